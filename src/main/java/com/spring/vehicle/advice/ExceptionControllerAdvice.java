@@ -10,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 
 import org.springframework.validation.BindingResult;
@@ -25,6 +26,8 @@ import org.springframework.web.context.request.WebRequest;
 import com.fasterxml.jackson.core.io.JsonEOFException;
 import com.spring.vehicle.exception.AppException;
 import com.spring.vehicle.exception.BadRequestException;
+import com.spring.vehicle.exception.ConflictException;
+import com.spring.vehicle.exception.PreconditionFailedException;
 
 import com.spring.vehicle.exception.ResourceNotFoundException;
 
@@ -103,6 +106,32 @@ public class ExceptionControllerAdvice {
 		);
 	}
 
+	@ExceptionHandler(value = {ConflictException.class, OptimisticLockingFailureException.class})
+	@ResponseStatus(HttpStatus.CONFLICT)
+	@ResponseBody
+	public ErrorResponse handleConflictException(RuntimeException ex, WebRequest request) {
+		return new ErrorResponse(
+				LocalDateTime.now(),
+				HttpStatus.CONFLICT.value(),
+				"Conflict",
+				ex.getMessage(),
+				resolvePathFromWebRequest(request)
+		);
+	}
+
+	@ExceptionHandler(value = PreconditionFailedException.class)
+	@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+	@ResponseBody
+	public ErrorResponse handlePreconditionFailedException(PreconditionFailedException ex, WebRequest request) {
+		return new ErrorResponse(
+				LocalDateTime.now(),
+				HttpStatus.PRECONDITION_FAILED.value(),
+				"Precondition Failed",
+				ex.getMessage(),
+				resolvePathFromWebRequest(request)
+		);
+	}
+
 	@ExceptionHandler(value = MalformedJwtException.class)
 	@ResponseStatus(HttpStatus.UNAUTHORIZED)
 	@ResponseBody
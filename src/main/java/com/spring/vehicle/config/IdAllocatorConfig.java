@@ -0,0 +1,33 @@
+package com.spring.vehicle.config;
+
+import com.spring.vehicle.repository.IdAllocator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The {@link IdAllocator} with a connection pool of its own on the application database.
+ * The pool is not a {@link javax.sql.DataSource} bean, so the application pool and JPA stay auto-configured and
+ * nothing but the allocator can borrow from it.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Configuration
+public class IdAllocatorConfig {
+
+    @Bean(destroyMethod = "close")
+    public IdAllocator idAllocator(DataSourceProperties dataSourceProperties,
+                                   @Value("${app.id.pool-size:2}") int poolSize,
+                                   @Value("${app.id.block-size:1000}") int blockSize) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                                                          .type(HikariDataSource.class)
+                                                          .build();
+        dataSource.setPoolName("id-allocator");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setMinimumIdle(0);
+        return new IdAllocator(dataSource, blockSize);
+    }
+}
@@ -0,0 +1,69 @@
+package com.spring.vehicle.config;
+
+import com.spring.vehicle.service.AppSettingService;
+import com.spring.vehicle.service.SettingStreamService;
+import com.spring.vehicle.service.TelemetryHistoryService;
+import com.spring.vehicle.service.TelemetryStateStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges and counters of the in-memory telemetry state, read from the services when the registry is scraped.
+ * Request latencies, repository invocations and the connection pool are timed by Spring Boot, the scheduler tick by
+ * {@link com.spring.vehicle.schedule.ChargingSchedule} and the settings cache by
+ * {@link com.spring.vehicle.service.SettingResponseCache}.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder telemetryMetrics(TelemetryStateStore telemetryStateStore, AppSettingService appSettingService,
+                                        TelemetryHistoryService telemetryHistoryService,
+                                        SettingStreamService settingStreamService) {
+        return registry -> {
+            Gauge.builder("telemetry.state.groups", telemetryStateStore, TelemetryStateStore::getGroupCount)
+                 .description("Setting groups held in memory")
+                 .register(registry);
+            FunctionCounter.builder("telemetry.state.loads", telemetryStateStore, TelemetryStateStore::getLoadCount)
+                           .description("Group loads, by whether they read the database or joined a load in flight")
+                           .tag("result", "loaded")
+                           .register(registry);
+            FunctionCounter.builder("telemetry.state.loads", telemetryStateStore, TelemetryStateStore::getCoalescedCount)
+                           .description("Group loads, by whether they read the database or joined a load in flight")
+                           .tag("result", "coalesced")
+                           .register(registry);
+            FunctionCounter.builder("telemetry.state.evictions", telemetryStateStore, TelemetryStateStore::getEvictionCount)
+                           .description("Idle or least recently used setting groups dropped from memory")
+                           .register(registry);
+
+            FunctionCounter.builder("settings.loads", appSettingService, AppSettingService::getSettingLoadCount)
+                           .description("Settings cache misses, by whether they assembled the response or joined a miss in flight")
+                           .tag("result", "loaded")
+                           .register(registry);
+            FunctionCounter.builder("settings.loads", appSettingService, AppSettingService::getSettingCoalescedCount)
+                           .description("Settings cache misses, by whether they assembled the response or joined a miss in flight")
+                           .tag("result", "coalesced")
+                           .register(registry);
+
+            Gauge.builder("telemetry.history.queue", telemetryHistoryService, TelemetryHistoryService::getQueueSize)
+                 .description("Samples waiting for the background insert")
+                 .register(registry);
+            FunctionCounter.builder("telemetry.history.dropped", telemetryHistoryService, TelemetryHistoryService::getDroppedCount)
+                           .description("Samples dropped because the queue was full or their batch failed")
+                           .register(registry);
+
+            Gauge.builder("settings.stream.subscribers", settingStreamService, SettingStreamService::getSubscriberCount)
+                 .description("Open Server-Sent Events streams")
+                 .register(registry);
+            FunctionCounter.builder("settings.stream.dropped", settingStreamService, SettingStreamService::getDroppedCount)
+                           .description("Streams closed because their client fell too far behind or the dispatcher was full")
+                           .register(registry);
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.spring.vehicle.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Schedulers of the {@code @Scheduled} jobs. The ticks and the stream heartbeat run on the default scheduler,
+ * configured by {@code spring.task.scheduling.*}; the jobs doing database I/O name the persistence scheduler, so a
+ * slow flush or partition DDL never delays a tick.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Configuration
+public class SchedulingConfig {
+
+    public static final String PERSISTENCE_SCHEDULER = "persistenceScheduler";
+
+    /**
+     * The default scheduler, declared because a second scheduler bean turns off the auto-configured one
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder threadPoolTaskSchedulerBuilder) {
+        return threadPoolTaskSchedulerBuilder.build();
+    }
+
+    @Bean(PERSISTENCE_SCHEDULER)
+    public ThreadPoolTaskScheduler persistenceScheduler(@Value("${app.scheduling.persistence.pool-size:2}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("persistence-");
+        return scheduler;
+    }
+}
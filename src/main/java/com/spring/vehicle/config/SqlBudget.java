@@ -0,0 +1,25 @@
+package com.spring.vehicle.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most SQL statements a controller endpoint may execute per request, checked by {@link SqlBudgetFilter}.
+ * A JDBC batch counts as one statement.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    /**
+     * @return the number of statements allowed
+     */
+    int value();
+}
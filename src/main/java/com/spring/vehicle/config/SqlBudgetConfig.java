@@ -0,0 +1,41 @@
+package com.spring.vehicle.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * SQL statement budgets, enabled by {@code app.sql.budget.enabled}: the data sources are wrapped in a proxy counting
+ * the statements of each thread, and requests are checked against the {@link SqlBudget} of their endpoint.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Configuration
+@ConditionalOnProperty(value = "app.sql.budget.enabled", havingValue = "true")
+public class SqlBudgetConfig {
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource).countQuery().build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(SqlBudgetGuard sqlBudgetGuard) {
+        return new FilterRegistrationBean<>(new SqlBudgetFilter(sqlBudgetGuard));
+    }
+}
@@ -0,0 +1,48 @@
+package com.spring.vehicle.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Checks the statements of a request against the {@link SqlBudget} of the endpoint that handled it.
+ * The check runs once the request is done, so the exception of an enforced budget fails the request in a test but
+ * cannot change a response already sent. Asynchronous requests, such as event streams, are not checked.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private final SqlBudgetGuard sqlBudgetGuard;
+
+    public SqlBudgetFilter(SqlBudgetGuard sqlBudgetGuard) {
+        this.sqlBudgetGuard = requireNonNull(sqlBudgetGuard);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = SqlBudgetGuard.statementCount();
+        filterChain.doFilter(request, response);
+        if (isAsyncStarted(request)) {
+            return;
+        }
+
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handlerMethod) {
+            SqlBudget budget = handlerMethod.getMethodAnnotation(SqlBudget.class);
+            if (budget != null) {
+                String name = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                sqlBudgetGuard.check(name, budget.value(), SqlBudgetGuard.statementCount() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.spring.vehicle.config;
+
+import com.spring.vehicle.exception.SqlBudgetExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Checks the SQL statements executed by a unit of work, a request or a scheduler tick, against its budget.
+ * Statements are counted per thread by the data source proxy of {@link SqlBudgetConfig}; without it nothing is
+ * counted and every budget holds.
+ * An exceeded budget is logged and counted as {@code sql.budget.exceeded}; with
+ * {@code app.sql.budget.fail-on-exceeded}, as in tests, a {@link SqlBudgetExceededException} is thrown as well.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Component
+public class SqlBudgetGuard {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlBudgetGuard.class);
+
+    private final boolean failOnExceeded;
+    private final MeterRegistry meterRegistry;
+
+    public SqlBudgetGuard(@Value("${app.sql.budget.fail-on-exceeded:false}") boolean failOnExceeded, MeterRegistry meterRegistry) {
+        this.failOnExceeded = failOnExceeded;
+        this.meterRegistry = requireNonNull(meterRegistry);
+    }
+
+    /**
+     * Start counting the statements of a unit of work on the current thread, until the scope is closed.
+     *
+     * @param name          the unit of work, for the log and the metric
+     * @param maxStatements the statements allowed
+     * @return the scope to close once the work is done
+     */
+    public Scope open(String name, int maxStatements) {
+        return new Scope(name, maxStatements, statementCount());
+    }
+
+    /**
+     * Statements executed so far by the current thread.
+     */
+    static long statementCount() {
+        return QueryCountHolder.getGrandTotal().getTotal();
+    }
+
+    /**
+     * @throws SqlBudgetExceededException if the budget is exceeded and budgets are enforced
+     */
+    void check(String name, int maxStatements, long statements) {
+        if (statements <= maxStatements) {
+            return;
+        }
+        meterRegistry.counter("sql.budget.exceeded", "budget", name).increment();
+        String message = String.format("%s executed %d SQL statements, its budget is %d", name, statements, maxStatements);
+        if (failOnExceeded) {
+            LOGGER.error(message);
+            throw new SqlBudgetExceededException(message);
+        }
+        LOGGER.warn(message);
+    }
+
+    /**
+     * Statements of one unit of work; scopes may be nested.
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final String name;
+        private final int maxStatements;
+        private final long start;
+
+        private Scope(String name, int maxStatements, long start) {
+            this.name = name;
+            this.maxStatements = maxStatements;
+            this.start = start;
+        }
+
+        /**
+         * @throws SqlBudgetExceededException if the budget is exceeded and budgets are enforced
+         */
+        @Override
+        public void close() {
+            check(name, maxStatements, statementCount() - start);
+        }
+    }
+}
@@ -1,10 +1,44 @@
 package com.spring.vehicle.controller;
 
+import com.spring.vehicle.payload.setting.SettingResponse;
+import com.spring.vehicle.service.VersionedSetting;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 @Setter
 @Getter
 public class BaseController {
-//TODO
+
+    /**
+     * Strong ETag of a settings version.
+     */
+    protected static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Answer a read of settings with their body and an ETag taken from the same snapshot, or with 304 Not Modified
+     * if the If-None-Match header of the request matches that ETag.
+     *
+     * @param setting the settings and the version they were read at
+     * @param request the current request, for its conditional headers
+     * @return the response
+     */
+    protected static ResponseEntity<SettingResponse> conditional(VersionedSetting setting, WebRequest request) {
+        String eTag = eTag(setting.getVersion());
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                 .eTag(eTag)
+                                 .cacheControl(CacheControl.noCache())
+                                 .build();
+        }
+        return ResponseEntity.ok()
+                             .eTag(eTag)
+                             .cacheControl(CacheControl.noCache())
+                             .body(setting.getSettingResponse());
+    }
 }
@@ -0,0 +1,67 @@
+package com.spring.vehicle.controller;
+
+import com.spring.vehicle.config.SqlBudget;
+import com.spring.vehicle.exception.ResourceNotFoundException;
+import com.spring.vehicle.payload.fleet.FleetMetricsResponse;
+import com.spring.vehicle.payload.load.LoadReportResponse;
+import com.spring.vehicle.schedule.FleetTickEngine;
+import com.spring.vehicle.schedule.LoadGenerator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import static com.spring.vehicle.constant.PathConstants.API_V1;
+
+/**
+ * Fleet Rest API controller, exposing the state of the fleet tick engine and of the load generator.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Tag(name = "Fleet Rest API", description = "Defines endpoints that expose the fleet simulation.")
+@Controller
+@RequestMapping(API_V1)
+class FleetController extends BaseController {
+
+    private final FleetTickEngine fleetTickEngine;
+    private final ObjectProvider<LoadGenerator> loadGenerator;
+
+    public FleetController(FleetTickEngine fleetTickEngine, ObjectProvider<LoadGenerator> loadGenerator) {
+        this.fleetTickEngine = fleetTickEngine;
+        this.loadGenerator = loadGenerator;
+    }
+
+    /**
+     * Get ticks per second and per-shard latency of the fleet tick engine
+     *
+     * @return ResponseEntity containing the fleet metrics
+     */
+    @Operation(summary = "Get fleet metrics")
+    @SqlBudget(0)
+    @GetMapping("/fleet/metrics")
+    public ResponseEntity<FleetMetricsResponse> getFleetMetrics() {
+        return ResponseEntity.ok(fleetTickEngine.getMetrics());
+    }
+
+    /**
+     * Get throughput and latency percentiles of the load generator run
+     *
+     * @return ResponseEntity containing the load report
+     * @throws ResourceNotFoundException if the load generator is disabled or its run is not finished
+     */
+    @Operation(summary = "Get load generator report")
+    @SqlBudget(0)
+    @GetMapping("/fleet/load")
+    public ResponseEntity<LoadReportResponse> getLoadReport() {
+        LoadGenerator generator = loadGenerator.getIfAvailable();
+        LoadReportResponse report = generator == null ? null : generator.getReport().orElse(null);
+        if (report == null) {
+            throw new ResourceNotFoundException("LoadReport", "run", "finished");
+        }
+        return ResponseEntity.ok(report);
+    }
+}
@@ -1,21 +1,35 @@
 package com.spring.vehicle.controller;
 
 
+import com.spring.vehicle.config.SqlBudget;
 import com.spring.vehicle.constant.Constants;
 import com.spring.vehicle.exception.BadRequestException;
 import com.spring.vehicle.exception.ResourceNotFoundException;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.payload.CacheStatsResponse;
+import com.spring.vehicle.payload.EntityCacheStatsResponse;
+import com.spring.vehicle.payload.history.TelemetryHistoryResponse;
 import com.spring.vehicle.payload.setting.AppSettingResponse;
+import com.spring.vehicle.payload.setting.RecentSettingResponse;
 import com.spring.vehicle.payload.setting.SettingResponse;
 import com.spring.vehicle.payload.setting.UpdateAppSettingRequest;
 import com.spring.vehicle.service.AppSettingService;
+import com.spring.vehicle.service.SettingStreamService;
+import com.spring.vehicle.service.TelemetryHistoryService;
+import com.spring.vehicle.service.VersionedSetting;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
 
 import static com.spring.vehicle.constant.PathConstants.API_V1;
 
@@ -34,9 +48,14 @@ class SettingController extends BaseController {
     private final Logger LOGGER = LoggerFactory.getLogger(SettingController.class);
 
     private final AppSettingService appSettingService;
+    private final SettingStreamService settingStreamService;
+    private final TelemetryHistoryService telemetryHistoryService;
 
-    public SettingController(AppSettingService appSettingService) {
+    public SettingController(AppSettingService appSettingService, SettingStreamService settingStreamService,
+                             TelemetryHistoryService telemetryHistoryService) {
         this.appSettingService = appSettingService;
+        this.settingStreamService = settingStreamService;
+        this.telemetryHistoryService = telemetryHistoryService;
     }
 
     /**
@@ -46,9 +65,10 @@ class SettingController extends BaseController {
      * @return ResponseEntity containing the AppSettingResponse or an error if not found
      */
     @Operation(summary = "Get appSetting by Id")
+    @SqlBudget(1)
     @GetMapping("/setting/{id}")
     public ResponseEntity<AppSettingResponse> getAppSetting(@PathVariable("id") Long id) {
-        LOGGER.info("Find AppSetting by Id:{}", id);
+        LOGGER.debug("Find AppSetting by Id:{}", id);
         return appSettingService.findById(id)
                                 .map(appSettingResponse -> new ResponseEntity<>(appSettingResponse, HttpStatus.OK))
                                 .orElseThrow(() -> new ResourceNotFoundException("AppSetting", "Id", id));
@@ -63,9 +83,10 @@ class SettingController extends BaseController {
      * @return ResponseEntity containing updated AppSettingResponse or error if update fails
      */
     @Operation(summary = "Update appSetting")
+    @SqlBudget(3)
     @PutMapping("/setting")
     public ResponseEntity<AppSettingResponse> updateAppSetting(@RequestBody UpdateAppSettingRequest updateAppSettingRequest) {
-        LOGGER.info("Update AppSetting:{}", updateAppSettingRequest);
+        LOGGER.debug("Update AppSetting:{}", updateAppSettingRequest);
         return appSettingService.updateAppSetting(updateAppSettingRequest)
                                 .map(appSettingResponse -> new ResponseEntity<>(appSettingResponse, HttpStatus.OK))
                                 .orElseThrow(() -> new BadRequestException("Update AppSetting Failed."));
@@ -73,19 +94,122 @@ class SettingController extends BaseController {
 
 
     /**
-     * Get setting of vehicle dashboard
+     * Endpoint to update several codes of the same settings at once.
+     * The codes are applied atomically: all of them under one version, or none if any is invalid. They are
+     * persisted together with a single batched statement.
+     *
+     * @param updateAppSettingRequests request body with the codes to update, all of the same vehicle and parent code
+     * @return ResponseEntity containing the consolidated settings right after the update, tagged with their version;
+     * a write made by someone else after it is neither in the body nor in the tag
+     */
+    @Operation(summary = "Update several appSettings")
+    @SqlBudget(1)
+    @PutMapping("/settings")
+    public ResponseEntity<SettingResponse> updateAppSettings(@RequestBody List<UpdateAppSettingRequest> updateAppSettingRequests) {
+        LOGGER.debug("Update AppSettings:{}", updateAppSettingRequests);
+        VersionedSetting setting = appSettingService.updateAppSettings(updateAppSettingRequests);
+        return ResponseEntity.ok()
+                             .eTag(eTag(setting.getVersion()))
+                             .body(setting.getSettingResponse());
+    }
+
+    /**
+     * Get setting of vehicle dashboard.
+     * The response carries a strong ETag made of the version of the settings it contains; a request whose
+     * If-None-Match matches it is answered with 304 Not Modified. Body and tag come from the same snapshot, usually
+     * the cached response, so neither the database nor the serializer is involved for a 304.
      *
+     * @param request the current request, for its conditional headers
      * @return ResponseEntity containing the list of codes
      */
     @Operation(summary = "Get setting")
+    @SqlBudget(1)
     @GetMapping("/settings")
-    public ResponseEntity<SettingResponse> getSettings() {
-
+    public ResponseEntity<SettingResponse> getSettings(WebRequest request) {
         // Call service to fetch codes, and throw exception if not found
-        SettingResponse settingResponse = appSettingService.getSetting(Constants.SETTING)
-                                                           .orElseThrow(() -> new ResourceNotFoundException("Code", "Id", Constants.SETTING));
+        VersionedSetting setting = appSettingService.getVersionedSetting(SettingKey.of(Constants.SETTING))
+                                                    .orElseThrow(() -> new ResourceNotFoundException("Code", "Id", Constants.SETTING));
+        return conditional(setting, request);
+    }
 
-        return ResponseEntity.ok(settingResponse);
+    /**
+     * Stream setting changes of vehicle dashboard as Server-Sent Events.
+     * A new stream starts with a "snapshot" event, followed by one "setting" event with the changed codes per write.
+     * Event ids are settings versions: only changes of a higher version than the snapshot follow it, and a client
+     * reconnecting with Last-Event-ID receives the changes it missed instead of a new snapshot.
+     *
+     * @param lastEventId the id of the last event received before reconnecting
+     * @return the event stream
+     */
+    @Operation(summary = "Stream setting changes")
+    @GetMapping(path = "/settings/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSettings(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SettingKey key = SettingKey.of(Constants.SETTING);
+        return settingStreamService.subscribe(key, lastEventId, () -> appSettingService.getVersionedSetting(key).orElse(null));
+    }
+
+    /**
+     * Get the numeric settings of vehicle dashboard written in the last minutes, for sparkline charts.
+     * Served from memory, the database is not queried.
+     *
+     * @param window length of the window in minutes, 10 by default
+     * @return ResponseEntity containing the write times and the values of every numeric code
+     */
+    @Operation(summary = "Get recent setting values")
+    @SqlBudget(1)
+    @GetMapping("/settings/recent")
+    public ResponseEntity<RecentSettingResponse> getRecentSettings(@RequestParam(value = "window", defaultValue = "10") int window) {
+        if (window <= 0) {
+            throw new BadRequestException("Window must be a positive number of minutes");
+        }
+        return appSettingService.getRecentSetting(Constants.SETTING, window)
+                                .map(ResponseEntity::ok)
+                                .orElseThrow(() -> new ResourceNotFoundException("Code", "Id", Constants.SETTING));
+    }
+
+    /**
+     * Get the history of a numeric setting of vehicle dashboard.
+     * Short ranges return every written value; longer ranges return min/max/avg/last per 1 minute, 1 hour or 1 day
+     * bucket, whichever is the coarsest that still has enough points, so raw samples are never scanned for them.
+     *
+     * @param code the setting code, e.g. APP_SETTING_BATTERY
+     * @param from start of the range in epoch milliseconds, inclusive; defaults to one hour before the end
+     * @param to   end of the range in epoch milliseconds, exclusive; defaults to now
+     * @return ResponseEntity containing the history points
+     */
+    @Operation(summary = "Get setting history")
+    @SqlBudget(1)
+    @GetMapping("/settings/history")
+    public ResponseEntity<TelemetryHistoryResponse> getSettingHistory(@RequestParam("code") String code,
+                                                                      @RequestParam(value = "from", required = false) Long from,
+                                                                      @RequestParam(value = "to", required = false) Long to) {
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - 3_600_000L;
+        return ResponseEntity.ok(telemetryHistoryService.getHistory(SettingKey.of(Constants.SETTING), code, start, end));
+    }
+
+    /**
+     * Get hit, miss and eviction counters of the settings cache
+     *
+     * @return ResponseEntity containing the cache statistics
+     */
+    @Operation(summary = "Get settings cache statistics")
+    @SqlBudget(0)
+    @GetMapping("/settings/cache/stats")
+    public ResponseEntity<CacheStatsResponse> getSettingsCacheStats() {
+        return ResponseEntity.ok(appSettingService.getSettingCacheStats());
+    }
+
+    /**
+     * Get hit and miss counters of the second-level and query cache of AppSetting entities
+     *
+     * @return ResponseEntity containing the cache statistics
+     */
+    @Operation(summary = "Get AppSetting entity cache statistics")
+    @SqlBudget(0)
+    @GetMapping("/settings/cache/entity/stats")
+    public ResponseEntity<EntityCacheStatsResponse> getEntityCacheStats() {
+        return ResponseEntity.ok(appSettingService.getEntityCacheStats());
     }
 
 
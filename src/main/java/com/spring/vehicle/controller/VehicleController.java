@@ -0,0 +1,173 @@
+package com.spring.vehicle.controller;
+
+import com.spring.vehicle.config.SqlBudget;
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.exception.BadRequestException;
+import com.spring.vehicle.exception.ConflictException;
+import com.spring.vehicle.exception.PreconditionFailedException;
+import com.spring.vehicle.exception.ResourceNotFoundException;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.payload.setting.SettingResponse;
+import com.spring.vehicle.service.AppSettingService;
+import com.spring.vehicle.service.SettingStreamService;
+import com.spring.vehicle.service.VersionedSetting;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.spring.vehicle.constant.PathConstants.API_V1;
+
+/**
+ * Vehicle Rest API controller, defining endpoints for the settings of every vehicle of the fleet.
+ * The settings of a vehicle are partitioned by its id; {@code /settings} serves the default vehicle 0.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Tag(name = "Vehicle Rest API", description = "Defines endpoints that manage the settings of vehicles.")
+@Controller
+@RequestMapping(API_V1)
+class VehicleController extends BaseController {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(VehicleController.class);
+
+    private final AppSettingService appSettingService;
+    private final SettingStreamService settingStreamService;
+    private final int bulkMaxIds;
+
+    public VehicleController(AppSettingService appSettingService, SettingStreamService settingStreamService,
+                             @Value("${app.vehicles.bulk-max-ids:1000}") int bulkMaxIds) {
+        this.appSettingService = appSettingService;
+        this.settingStreamService = settingStreamService;
+        this.bulkMaxIds = bulkMaxIds;
+    }
+
+    /**
+     * Get setting of a vehicle.
+     * The response carries a strong ETag made of the version of the settings it contains, a matching If-None-Match
+     * is answered with 304 Not Modified.
+     *
+     * @param vehicleId the vehicle
+     * @param request   the current request, for its conditional headers
+     * @return ResponseEntity containing the settings of the vehicle
+     */
+    @Operation(summary = "Get setting of a vehicle")
+    @SqlBudget(1)
+    @GetMapping("/vehicles/{vehicleId}/settings")
+    public ResponseEntity<SettingResponse> getVehicleSettings(@PathVariable("vehicleId") long vehicleId, WebRequest request) {
+        VersionedSetting setting = appSettingService.getVersionedSetting(SettingKey.of(vehicleId, Constants.SETTING))
+                                                    .orElseThrow(() -> new ResourceNotFoundException("Vehicle", "Id", vehicleId));
+        return conditional(setting, request);
+    }
+
+    /**
+     * Update settings of a vehicle, all codes at once or none.
+     * With an If-Match header carrying the ETag of a previous read, the update is rejected with 412 Precondition
+     * Failed if one of the written codes changed since; writes of other codes in between do not fail it.
+     * A weak ETag never matches and fails it as well, anything but one strong ETag or {@code *} is a bad request.
+     * {@code If-Match: *} only requires the settings to exist.
+     *
+     * @param vehicleId    the vehicle
+     * @param ifMatch      the ETag the client has read, optional
+     * @param configValues configuration values keyed by setting code
+     * @return ResponseEntity containing the settings of the vehicle right after the update, tagged with their version
+     */
+    @Operation(summary = "Update setting of a vehicle")
+    @SqlBudget(1)
+    @PutMapping("/vehicles/{vehicleId}/settings")
+    public ResponseEntity<SettingResponse> updateVehicleSettings(@PathVariable("vehicleId") long vehicleId,
+                                                                 @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                                 @RequestBody Map<String, String> configValues) {
+        LOGGER.debug("Update settings of vehicle {}: {}", vehicleId, configValues);
+        if (configValues == null || configValues.isEmpty()) {
+            throw new BadRequestException("No setting to update");
+        }
+        SettingKey key = SettingKey.of(vehicleId, Constants.SETTING);
+        VersionedSetting setting;
+        try {
+            setting = appSettingService.updateAppSettings(key, configValues, parseETag(ifMatch));
+        } catch (ConflictException e) {
+            // the condition came from a header, not from the body
+            throw new PreconditionFailedException(e.getMessage(), e);
+        }
+        return ResponseEntity.ok()
+                             .eTag(eTag(setting.getVersion()))
+                             .body(setting.getSettingResponse());
+    }
+
+    /**
+     * Stream setting changes of a vehicle as Server-Sent Events.
+     * Only writes of this vehicle are streamed; the stream starts with a "snapshot" event and continues with one
+     * "setting" event per write, ids being settings versions so that Last-Event-ID resumes after the last one seen.
+     *
+     * @param vehicleId   the vehicle
+     * @param lastEventId the id of the last event received before reconnecting
+     * @return the event stream
+     */
+    @Operation(summary = "Stream setting changes of a vehicle")
+    @GetMapping(path = "/vehicles/{vehicleId}/settings/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamVehicleSettings(@PathVariable("vehicleId") long vehicleId,
+                                            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SettingKey key = SettingKey.of(vehicleId, Constants.SETTING);
+        return settingStreamService.subscribe(key, lastEventId, () -> appSettingService.getVersionedSetting(key).orElse(null));
+    }
+
+    /**
+     * Get setting of many vehicles with a single query for the vehicles which are not in memory yet.
+     *
+     * @param ids the vehicles, at most {@code app.vehicles.bulk-max-ids}
+     * @return ResponseEntity containing the settings keyed by vehicle id; unknown vehicles are left out
+     */
+    @Operation(summary = "Get setting of many vehicles")
+    @SqlBudget(2)
+    @GetMapping("/vehicles/settings")
+    public ResponseEntity<Map<Long, SettingResponse>> getSettingsOfVehicles(@RequestParam("ids") List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > bulkMaxIds) {
+            throw new BadRequestException(String.format("Between 1 and %d vehicle ids are required", bulkMaxIds));
+        }
+        return ResponseEntity.ok(appSettingService.getSettings(ids, Constants.SETTING));
+    }
+
+    /**
+     * Version of an If-Match header, which must be {@code *} or exactly one strong ETag of the settings, a quoted
+     * version.
+     *
+     * @return the version, or null for {@code *} or without header
+     * @throws PreconditionFailedException for a weak ETag, which never matches with If-Match
+     * @throws BadRequestException         for anything else
+     */
+    private static Long parseETag(String eTag) {
+        if (eTag == null || "*".equals(eTag.trim())) {
+            return null;
+        }
+        String value = eTag.trim();
+        if (value.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match requires a strong ETag, " + value + " is weak");
+        }
+        int length = value.length();
+        if (length < 3 || length > 21 || value.charAt(0) != '"' || value.charAt(length - 1) != '"') {
+            throw new BadRequestException("If-Match must be an ETag of the settings");
+        }
+        for (int i = 1; i < length - 1; i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                throw new BadRequestException("If-Match must be an ETag of the settings");
+            }
+        }
+        try {
+            return Long.valueOf(value.substring(1, length - 1));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("If-Match must be an ETag of the settings");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.spring.vehicle.exception;
+
+/**
+ * Thrown when a request or a scheduler tick executes more SQL statements than its budget, while budgets are enforced.
+ */
+public class SqlBudgetExceededException extends AppException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
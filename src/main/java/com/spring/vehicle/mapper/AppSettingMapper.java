@@ -1,6 +1,7 @@
 package com.spring.vehicle.mapper;
 
 import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.model.SettingKey;
 import com.spring.vehicle.model.entity.AppSetting;
 import com.spring.vehicle.payload.setting.AppSettingResponse;
 import com.spring.vehicle.payload.setting.CreateAppSettingRequest;
@@ -9,6 +10,7 @@ import com.spring.vehicle.payload.setting.UpdateAppSettingRequest;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * AppSettingMapper is responsible for converting between AppSetting entities and DTOs (CreateAppSettingRequest, UpdateAppSettingRequest, AppSettingResponse).
@@ -30,6 +32,7 @@ public class AppSettingMapper {
 
         appSetting.setCode(request.getCode());
         appSetting.setConfigValue(request.getConfigValue());
+        appSetting.setVehicleId(SettingKey.vehicleOrDefault(request.getVehicleId()));
         appSetting.setParentCode(request.getParentCode());
         appSetting.setName(request.getName());
         appSetting.setMemo(request.getMemo());
@@ -47,6 +50,7 @@ public class AppSettingMapper {
     public AppSettingResponse mapToAppSettingResponse(AppSetting appSetting) {
         return AppSettingResponse.builder()
                 .id(appSetting.getId())
+                .vehicleId(appSetting.getVehicleId())
                 .code(appSetting.getCode())
                 .configValue(appSetting.getConfigValue())
                 .name(appSetting.getName())
@@ -80,24 +84,42 @@ public class AppSettingMapper {
         SettingResponse settingResponse = new SettingResponse();
 
         // Populate SettingResponse by iterating through the codes
-        codes.forEach(s -> {
-            switch (s.getCode()) {
-                case Constants.SETTING_RPM -> settingResponse.setRpm(s.getConfigValue());
-                case Constants.SETTING_POWER -> settingResponse.setPower(s.getConfigValue());
-                case Constants.SETTING_BATTERY -> settingResponse.setBattery(s.getConfigValue());
-                case Constants.SETTING_TEMPERATURE -> settingResponse.setTemperature(s.getConfigValue());
-                case Constants.SETTING_GEAR_RATIO -> settingResponse.setGearRatio(s.getConfigValue());
-                case Constants.SETTING_IS_CHARGING -> settingResponse.setIsCharging(s.getConfigValue()
-                                                                                     .equals("1"));
-
-                default -> {
-                    // Optionally handle unexpected codes here
-                }
-            }
-        });
+        codes.forEach(s -> setSettingValue(settingResponse, s.getCode(), s.getConfigValue()));
+
+        return settingResponse;
+    }
+
+    /**
+     * Constructs a SettingResponse object based on configuration values keyed by setting code.
+     *
+     * @param configValues the configuration values keyed by setting code
+     * @return a SettingResponse object populated with relevant configuration values, or null if the map is null/empty
+     */
+    public SettingResponse getSettingResponse(Map<String, String> configValues) {
+        if (configValues == null || configValues.isEmpty()) {
+            return null;
+        }
+
+        SettingResponse settingResponse = new SettingResponse();
+        configValues.forEach((code, configValue) -> setSettingValue(settingResponse, code, configValue));
 
         return settingResponse;
     }
 
+    private void setSettingValue(SettingResponse settingResponse, String code, String configValue) {
+        switch (code) {
+            case Constants.SETTING_RPM -> settingResponse.setRpm(configValue);
+            case Constants.SETTING_POWER -> settingResponse.setPower(configValue);
+            case Constants.SETTING_BATTERY -> settingResponse.setBattery(configValue);
+            case Constants.SETTING_TEMPERATURE -> settingResponse.setTemperature(configValue);
+            case Constants.SETTING_GEAR_RATIO -> settingResponse.setGearRatio(configValue);
+            case Constants.SETTING_IS_CHARGING -> settingResponse.setIsCharging(configValue.equals("1"));
+
+            default -> {
+                // Optionally handle unexpected codes here
+            }
+        }
+    }
+
 }
 
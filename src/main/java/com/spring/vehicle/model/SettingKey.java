@@ -0,0 +1,38 @@
+package com.spring.vehicle.model;
+
+import lombok.Value;
+
+/**
+ * Partition key of the live settings: the settings of one parent code of one vehicle.
+ */
+@Value(staticConstructor = "of")
+public class SettingKey {
+
+    /**
+     * vehicle the settings of a single-vehicle deployment belong to
+     */
+    public static final long DEFAULT_VEHICLE = 0L;
+
+    long vehicleId;
+
+    String parentCode;
+
+    /**
+     * @return the key of a parent code of the default vehicle
+     */
+    public static SettingKey of(String parentCode) {
+        return of(DEFAULT_VEHICLE, parentCode);
+    }
+
+    /**
+     * @return the vehicle id, falling back to the default vehicle when absent
+     */
+    public static long vehicleOrDefault(Long vehicleId) {
+        return vehicleId == null ? DEFAULT_VEHICLE : vehicleId;
+    }
+
+    @Override
+    public String toString() {
+        return vehicleId + "/" + parentCode;
+    }
+}
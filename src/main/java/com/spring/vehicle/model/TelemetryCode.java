@@ -0,0 +1,147 @@
+package com.spring.vehicle.model;
+
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.exception.BadRequestException;
+import com.spring.vehicle.utils.NumberParser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of the telemetry setting codes, declaring the type, range and default of each code.
+ * Numeric codes are kept as primitives in memory and only formatted when they leave the service.
+ */
+public enum TelemetryCode {
+
+	/**
+	 * rpm of motor
+	 */
+	RPM(Constants.SETTING_RPM, Type.INT, 0, 10_000, 0),
+
+	/**
+	 * power consumption
+	 */
+	POWER(Constants.SETTING_POWER, Type.INT, 0, 100_000, 100),
+
+	/**
+	 * battery percentage
+	 */
+	BATTERY(Constants.SETTING_BATTERY, Type.INT, 0, 100, 100),
+
+	/**
+	 * charging indicator, 1 charging, 0 not charging
+	 */
+	IS_CHARGING(Constants.SETTING_IS_CHARGING, Type.BOOLEAN, 0, 1, 0),
+
+	/**
+	 * temperature
+	 */
+	TEMPERATURE(Constants.SETTING_TEMPERATURE, Type.INT, -40, 120, 20),
+
+	/**
+	 * Gear ratio, free text
+	 */
+	GEAR_RATIO(Constants.SETTING_GEAR_RATIO, Type.TEXT, 0, 0, 0);
+
+	public enum Type {
+		INT, BOOLEAN, TEXT
+	}
+
+	private static final Map<String, TelemetryCode> BY_CODE = new HashMap<>();
+
+	static {
+		for (TelemetryCode telemetryCode : values()) {
+			BY_CODE.put(telemetryCode.code, telemetryCode);
+		}
+	}
+
+	private final String code;
+	private final Type type;
+	private final int min;
+	private final int max;
+	private final int defaultValue;
+
+	TelemetryCode(String code, Type type, int min, int max, int defaultValue) {
+		this.code = code;
+		this.type = type;
+		this.min = min;
+		this.max = max;
+		this.defaultValue = defaultValue;
+	}
+
+	/**
+	 * @return the registered telemetry code of a setting code, or null if the code is not registered
+	 */
+	public static TelemetryCode of(String code) {
+		return code == null ? null : BY_CODE.get(code);
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public int getMin() {
+		return min;
+	}
+
+	public int getMax() {
+		return max;
+	}
+
+	public int getDefaultValue() {
+		return defaultValue;
+	}
+
+	/**
+	 * @return whether the code is stored as a primitive
+	 */
+	public boolean isNumeric() {
+		return type != Type.TEXT;
+	}
+
+	public boolean inRange(int value) {
+		return value >= min && value <= max;
+	}
+
+	/**
+	 * Checks a value against the range of this code.
+	 *
+	 * @throws BadRequestException if the value is out of range
+	 */
+	public int validate(int value) {
+		if (!inRange(value)) {
+			throw new BadRequestException(String.format("%s must be between %d and %d, got %d", code, min, max, value));
+		}
+		return value;
+	}
+
+	/**
+	 * Parses a configuration value written by a client.
+	 *
+	 * @throws BadRequestException if the value is not a number or is out of range
+	 */
+	public int parse(String value) {
+		if (type == Type.BOOLEAN) {
+			if ("1".equals(value)) return 1;
+			if ("0".equals(value)) return 0;
+			throw new BadRequestException(String.format("%s must be 0 or 1, got %s", code, value));
+		}
+		// garbage from clients is common, reject it without the cost of a NumberFormatException
+		long parsed = NumberParser.parseLong(value, Long.MIN_VALUE);
+		if (parsed < Integer.MIN_VALUE || parsed > Integer.MAX_VALUE) {
+			throw new BadRequestException(String.format("%s must be a number, got %s", code, value));
+		}
+		return validate((int) parsed);
+	}
+
+	/**
+	 * Formats a value the way it is stored in {@code app_setting}.
+	 */
+	public String format(int value) {
+		return Integer.toString(value);
+	}
+}
@@ -0,0 +1,71 @@
+package com.spring.vehicle.model;
+
+/**
+ * Resolutions of the telemetry history, from the raw samples to the daily rollups.
+ */
+public enum TelemetryResolution {
+
+	/**
+	 * every written value
+	 */
+	RAW("raw", 0),
+
+	/**
+	 * 1 minute buckets
+	 */
+	MINUTE("1m", 60_000L),
+
+	/**
+	 * 1 hour buckets
+	 */
+	HOUR("1h", 3_600_000L),
+
+	/**
+	 * 1 day buckets
+	 */
+	DAY("1d", 86_400_000L);
+
+	/**
+	 * Rollup resolutions, coarsest first
+	 */
+	public static final TelemetryResolution[] ROLLUPS = {DAY, HOUR, MINUTE};
+
+	private final String label;
+	private final long millis;
+
+	TelemetryResolution(String label, long millis) {
+		this.label = label;
+		this.millis = millis;
+	}
+
+	/**
+	 * The coarsest resolution which still has at least {@code minPoints} buckets in the range, raw samples if even
+	 * the finest rollup has fewer.
+	 *
+	 * @param rangeMillis length of the requested range
+	 * @param minPoints   minimum number of buckets the range must be split into
+	 */
+	public static TelemetryResolution forRange(long rangeMillis, int minPoints) {
+		for (TelemetryResolution resolution : ROLLUPS) {
+			if (rangeMillis / resolution.millis >= minPoints) {
+				return resolution;
+			}
+		}
+		return RAW;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+
+	public long getMillis() {
+		return millis;
+	}
+
+	/**
+	 * @return the start of the bucket the time falls in
+	 */
+	public long bucketStart(long time) {
+		return Math.floorDiv(time, millis) * millis;
+	}
+}
@@ -0,0 +1,47 @@
+package com.spring.vehicle.model;
+
+import lombok.Getter;
+
+/**
+ * Min, max, sum, count and latest value of the samples of one code within one bucket.
+ * Rollups of the same bucket merge into each other, so a bucket can be built from any number of batches.
+ */
+@Getter
+public class TelemetryRollup {
+
+    private final long vehicleId;
+    private final String parentCode;
+    private final String code;
+    private final TelemetryResolution resolution;
+    private final long bucketStart;
+
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+    private long sum;
+    private long count;
+    private int latestValue;
+    private long latestTime = Long.MIN_VALUE;
+
+    public TelemetryRollup(long vehicleId, String parentCode, String code, TelemetryResolution resolution, long bucketStart) {
+        this.vehicleId = vehicleId;
+        this.parentCode = parentCode;
+        this.code = code;
+        this.resolution = resolution;
+        this.bucketStart = bucketStart;
+    }
+
+    public void add(long time, int value) {
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+        count++;
+        if (time >= latestTime) {
+            latestTime = time;
+            latestValue = value;
+        }
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+}
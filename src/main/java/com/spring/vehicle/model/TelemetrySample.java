@@ -0,0 +1,28 @@
+package com.spring.vehicle.model;
+
+import lombok.Value;
+
+/**
+ * A numeric telemetry value as written at a point in time.
+ */
+@Value
+public class TelemetrySample {
+
+    long vehicleId;
+
+    String parentCode;
+
+    String code;
+
+    /**
+     * epoch milliseconds of the write
+     */
+    long sampleTime;
+
+    /**
+     * version of the parent code after the write
+     */
+    long version;
+
+    int value;
+}
@@ -1,11 +1,18 @@
 package com.spring.vehicle.model.entity;
 
 import com.spring.vehicle.model.entity.audit.BaseEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.io.Serial;
 
@@ -20,7 +27,10 @@ import java.io.Serial;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "app_setting")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AppSetting.CACHE_REGION)
+@NaturalIdCache
+@Table(name = "app_setting", indexes = @Index(name = "uk_app_setting_vehicle_parent_code", columnList = "vehicle_id, parent_code, code", unique = true))
 public class AppSetting extends BaseEntity {
 
     /**
@@ -28,6 +38,18 @@ public class AppSetting extends BaseEntity {
      */
     public static final String TABLE = "app_setting";
 
+    /**
+     * second-level cache region of the entities, see ehcache.xml; the natural ids are cached in CACHE_REGION##NaturalId
+     */
+    public static final String CACHE_REGION = "appSetting";
+
+    /**
+     * attributes of the natural key
+     */
+    public static final String VEHICLE_ID = "vehicleId";
+    public static final String PARENT_CODE = "parentCode";
+    public static final String CODE = "code";
+
     /**
      *
      */
@@ -36,8 +58,15 @@ public class AppSetting extends BaseEntity {
 
 
     /**
-     * setting code, unique key
+     * vehicle the setting belongs to, 0 for the single vehicle of earlier deployments
      */
+    @NaturalId
+    private Long vehicleId;
+
+    /**
+     * setting code, unique key together with vehicleId and parentCode
+     */
+    @NaturalId
     private String code;
 
 
@@ -49,6 +78,7 @@ public class AppSetting extends BaseEntity {
     /**
      * parentCode
      */
+    @NaturalId
     private String parentCode;
 
 
@@ -69,5 +99,11 @@ public class AppSetting extends BaseEntity {
      */
     private String enabled;
 
+    /**
+     * optimistic lock version, increased by every update of the row
+     */
+    @Version
+    private Long version;
+
 
 }
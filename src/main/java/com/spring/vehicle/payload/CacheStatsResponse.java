@@ -0,0 +1,50 @@
+package com.spring.vehicle.payload;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "cache stats Response", description = "The cache statistics payload")
+public class CacheStatsResponse {
+
+    /**
+     * number of cached entries
+     */
+    private long size;
+
+    /**
+     * lookups answered from the cache
+     */
+    private long hitCount;
+
+    /**
+     * lookups that had to load the value
+     */
+    private long missCount;
+
+    /**
+     * entries evicted because of the size bound
+     */
+    private long evictionCount;
+
+    /**
+     * hitCount / (hitCount + missCount)
+     */
+    private double hitRate;
+
+    /**
+     * misses that read the values themselves
+     */
+    private long loadCount;
+
+    /**
+     * misses that shared the read of a concurrent miss instead
+     */
+    private long coalescedCount;
+}
@@ -0,0 +1,65 @@
+package com.spring.vehicle.payload;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "entity cache stats Response", description = "The Hibernate second-level and query cache statistics payload")
+public class EntityCacheStatsResponse {
+
+    /**
+     * entity lookups answered from the second-level cache
+     */
+    private long secondLevelCacheHitCount;
+
+    /**
+     * entity lookups that had to read the database
+     */
+    private long secondLevelCacheMissCount;
+
+    /**
+     * entities put into the second-level cache
+     */
+    private long secondLevelCachePutCount;
+
+    /**
+     * secondLevelCacheHitCount / (secondLevelCacheHitCount + secondLevelCacheMissCount)
+     */
+    private double secondLevelCacheHitRate;
+
+    /**
+     * natural id lookups answered from the cache
+     */
+    private long naturalIdCacheHitCount;
+
+    /**
+     * natural id lookups that had to read the database
+     */
+    private long naturalIdCacheMissCount;
+
+    /**
+     * query executions answered from the query cache
+     */
+    private long queryCacheHitCount;
+
+    /**
+     * query executions that had to read the database
+     */
+    private long queryCacheMissCount;
+
+    /**
+     * queryCacheHitCount / (queryCacheHitCount + queryCacheMissCount)
+     */
+    private double queryCacheHitRate;
+
+    /**
+     * whether Hibernate statistics are collected, every count is 0 otherwise
+     */
+    private boolean statisticsEnabled;
+}
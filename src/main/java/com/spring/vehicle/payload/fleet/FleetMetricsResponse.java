@@ -0,0 +1,55 @@
+package com.spring.vehicle.payload.fleet;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "fleet metrics Response", description = "The fleet tick engine metrics payload")
+public class FleetMetricsResponse {
+
+    /**
+     * number of simulated vehicles
+     */
+    private int vehicles;
+
+    /**
+     * number of shards a tick is split into
+     */
+    private int shards;
+
+    /**
+     * fork-join pool parallelism
+     */
+    private int parallelism;
+
+    /**
+     * ticks run since startup
+     */
+    private long tickCount;
+
+    /**
+     * duration of the last tick
+     */
+    private long lastTickMicros;
+
+    /**
+     * sustainable ticks per second, based on the last tick
+     */
+    private double ticksPerSecond;
+
+    /**
+     * sustainable vehicle updates per second, based on the last tick
+     */
+    private double vehicleUpdatesPerSecond;
+
+    /**
+     * duration of every shard during the last tick
+     */
+    private long[] shardLatencyMicros;
+}
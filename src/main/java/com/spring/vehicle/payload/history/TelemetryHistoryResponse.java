@@ -0,0 +1,37 @@
+package com.spring.vehicle.payload.history;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "telemetry history Response", description = "The telemetry history of one setting code")
+public class TelemetryHistoryResponse {
+
+    private long vehicleId;
+
+    private String parentCode;
+
+    private String code;
+
+    /**
+     * raw, 1m, 1h or 1d
+     */
+    private String resolution;
+
+    /**
+     * requested range in epoch milliseconds, from inclusive, to exclusive
+     */
+    private long from;
+
+    private long to;
+
+    private List<TelemetryPoint> points;
+}
@@ -0,0 +1,39 @@
+package com.spring.vehicle.payload.history;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "telemetry point", description = "One raw sample or one rollup bucket of the telemetry history")
+public class TelemetryPoint {
+
+    /**
+     * epoch milliseconds of the sample, or of the start of the bucket
+     */
+    private long time;
+
+    private int min;
+
+    private int max;
+
+    /**
+     * average of the samples in the bucket
+     */
+    private double avg;
+
+    /**
+     * latest value in the bucket
+     */
+    private int last;
+
+    /**
+     * number of samples in the bucket
+     */
+    private long count;
+}
@@ -0,0 +1,71 @@
+package com.spring.vehicle.payload.load;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "load report Response", description = "The load generator report payload")
+public class LoadReportResponse {
+
+    /**
+     * number of simulated vehicles
+     */
+    private int vehicles;
+
+    /**
+     * number of worker threads
+     */
+    private int threads;
+
+    /**
+     * requested operations per second, reads and writes together
+     */
+    private double targetRate;
+
+    /**
+     * achieved operations per second
+     */
+    private double throughput;
+
+    /**
+     * duration of the run
+     */
+    private double elapsedSeconds;
+
+    private long reads;
+
+    private long writes;
+
+    /**
+     * operations which failed or were answered with an error status
+     */
+    private long errors;
+
+    /**
+     * read latency percentiles, measured from the time the read was due
+     */
+    private long readP50Micros;
+
+    private long readP99Micros;
+
+    private long readP999Micros;
+
+    private long readMaxMicros;
+
+    /**
+     * write latency percentiles, measured from the time the write was due
+     */
+    private long writeP50Micros;
+
+    private long writeP99Micros;
+
+    private long writeP999Micros;
+
+    private long writeMaxMicros;
+}
@@ -32,6 +32,12 @@ public class AppSettingResponse {
     @Schema(name = "Valid appSetting", allowableValues = "String")
     private String configValue;
 
+    /**
+     * vehicle the setting belongs to
+     */
+    @Schema(name = "vehicleId", allowableValues = "Long")
+    private Long vehicleId;
+
     /**
      * parentCode
      */
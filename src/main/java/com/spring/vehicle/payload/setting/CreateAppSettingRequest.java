@@ -30,6 +30,12 @@ public class CreateAppSettingRequest {
     @Schema(name = "Valid appSetting code", allowableValues = "String")
     private String configValue;
 
+    /**
+     * vehicle the setting belongs to, the default vehicle 0 when absent
+     */
+    @Schema(name = "vehicleId", allowableValues = "Long")
+    private Long vehicleId;
+
     /**
      * parentCode
      */
@@ -0,0 +1,36 @@
+package com.spring.vehicle.payload.setting;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "recent setting Response", description = "The numeric setting values written in the last minutes, for sparklines")
+public class RecentSettingResponse {
+
+    private long vehicleId;
+
+    private String parentCode;
+
+    /**
+     * window in minutes
+     */
+    private int window;
+
+    /**
+     * epoch milliseconds of every write, oldest first
+     */
+    private long[] times;
+
+    /**
+     * values after every write keyed by setting code, aligned with times
+     */
+    private Map<String, int[]> values;
+}
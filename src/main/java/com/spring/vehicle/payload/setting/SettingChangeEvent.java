@@ -0,0 +1,37 @@
+package com.spring.vehicle.payload.setting;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "setting change Event", description = "The changed codes of a settings write")
+public class SettingChangeEvent {
+
+    /**
+     * vehicle the settings belong to
+     */
+    private long vehicleId;
+
+    /**
+     * parentCode
+     */
+    private String parentCode;
+
+    /**
+     * version of the parent code after the write
+     */
+    private long version;
+
+    /**
+     * changed configuration values keyed by setting code, null for a removed code
+     */
+    private Map<String, String> changes;
+}
@@ -0,0 +1,35 @@
+package com.spring.vehicle.payload.setting;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "setting snapshot Event", description = "The settings a stream starts from")
+public class SettingSnapshotEvent {
+
+    /**
+     * vehicle the settings belong to
+     */
+    private long vehicleId;
+
+    /**
+     * parentCode
+     */
+    private String parentCode;
+
+    /**
+     * version the settings were read at; only changes of a higher version follow
+     */
+    private long version;
+
+    /**
+     * the settings
+     */
+    private SettingResponse settings;
+}
@@ -0,0 +1,24 @@
+package com.spring.vehicle.payload.setting;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Code and configuration value of one setting, projected straight from {@code app_setting}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettingValue {
+
+    /**
+     * setting code, unique key
+     */
+    private String code;
+
+    /**
+     * configuration value
+     */
+    private String configValue;
+}
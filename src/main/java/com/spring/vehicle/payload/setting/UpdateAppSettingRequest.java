@@ -31,10 +31,23 @@ public class UpdateAppSettingRequest {
     @Schema(name = "Valid appSetting code", allowableValues = "String")
     private String configValue;
 
+    /**
+     * vehicle the setting belongs to, the default vehicle 0 when absent
+     */
+    @Schema(name = "vehicleId", allowableValues = "Long")
+    private Long vehicleId;
+
     /**
      * parentCode
      */
     @Schema(name = "parentCode", allowableValues = "String")
     private String parentCode;
 
+    /**
+     * settings version the client has read (ETag of the settings or version of a setting event), optional.
+     * The update is rejected with 409 Conflict if the code was written since; writes of other codes do not conflict.
+     */
+    @Schema(name = "version", allowableValues = "Long")
+    private Long version;
+
 }
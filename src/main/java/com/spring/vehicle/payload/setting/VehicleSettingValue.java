@@ -0,0 +1,29 @@
+package com.spring.vehicle.payload.setting;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vehicle, code and configuration value of one setting, projected straight from {@code app_setting}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleSettingValue {
+
+    /**
+     * vehicle the setting belongs to
+     */
+    private Long vehicleId;
+
+    /**
+     * setting code, unique key per vehicle and parent code
+     */
+    private String code;
+
+    /**
+     * configuration value
+     */
+    private String configValue;
+}
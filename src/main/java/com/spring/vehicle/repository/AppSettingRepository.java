@@ -1,12 +1,19 @@
 package com.spring.vehicle.repository;
 
 import com.spring.vehicle.model.entity.AppSetting;
+import com.spring.vehicle.payload.setting.SettingValue;
+import com.spring.vehicle.payload.setting.VehicleSettingValue;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 
 /**
@@ -16,12 +23,29 @@ import java.util.Optional;
  */
 
 @Repository
-public interface AppSettingRepository extends JpaRepository<AppSetting, Long> {
+public interface AppSettingRepository extends JpaRepository<AppSetting, Long>, AppSettingRepositoryCustom {
     /**
      * Select id,code,configValue,name,memo,enabled,createdBy,createdDate,lastModifiedBy,lastModifiedDate from app_setting
+     * The ids are kept in the query cache and the entities in the second-level cache, so a repeated lookup reads
+     * neither; the query cache entry is dropped whenever rows are inserted or deleted.
      */
-
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     public List<AppSetting> findByParentCode(String parentCode);
 
-    Optional<AppSetting> findTopByParentCodeAndCode(String parentCode, String code);
+    /**
+     * Select code,configValue from app_setting of one vehicle, without loading entities into the persistence context
+     */
+    @Query("select new com.spring.vehicle.payload.setting.SettingValue(a.code, a.configValue) from AppSetting a "
+           + "where a.vehicleId = :vehicleId and a.parentCode = :parentCode")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<SettingValue> findValuesByVehicleIdAndParentCode(@Param("vehicleId") long vehicleId, @Param("parentCode") String parentCode);
+
+    /**
+     * Select vehicleId,code,configValue from app_setting of many vehicles in one statement
+     */
+    @Query("select new com.spring.vehicle.payload.setting.VehicleSettingValue(a.vehicleId, a.code, a.configValue) from AppSetting a "
+           + "where a.vehicleId in :vehicleIds and a.parentCode = :parentCode")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<VehicleSettingValue> findValuesByVehicleIdInAndParentCode(@Param("vehicleIds") Collection<Long> vehicleIds,
+                                                                   @Param("parentCode") String parentCode);
 }
@@ -0,0 +1,52 @@
+package com.spring.vehicle.repository;
+
+import com.spring.vehicle.model.entity.AppSetting;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Custom AppSetting repository fragment for statements Spring Data cannot derive.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+public interface AppSettingRepositoryCustom {
+
+    /**
+     * Update the configuration values of several codes of the same vehicle and parent in one JDBC batch.
+     *
+     * @param vehicleId    the vehicle of the settings
+     * @param parentCode   the parent code of the settings
+     * @param configValues configuration values keyed by setting code
+     * @return the number of updated rows
+     */
+    int updateConfigValues(long vehicleId, String parentCode, Map<String, String> configValues);
+
+    /**
+     * Insert the settings of the vehicles which have none under a parent code yet, in one JDBC batch.
+     * Ids are taken from the {@link IdAllocator} in one block, so instances can provision concurrently.
+     *
+     * @param vehicleIds   the vehicles
+     * @param parentCode   the parent code of the settings
+     * @param configValues initial configuration values keyed by setting code
+     * @return the number of vehicles provisioned
+     */
+    @Transactional
+    int insertMissingSettings(Collection<Long> vehicleIds, String parentCode, Map<String, String> configValues);
+
+    /**
+     * Find a setting by its natural key (vehicleId, parentCode, code).
+     * The id is resolved through Hibernate's natural-id resolution, which hits the unique
+     * {@code (vehicle_id, parent_code, code)} index on a miss.
+     *
+     * @param vehicleId  the vehicle of the setting
+     * @param parentCode the parent code of the setting
+     * @param code       the setting code
+     * @return the setting, or Optional.empty() if there is none
+     */
+    @Transactional(readOnly = true)
+    Optional<AppSetting> findByNaturalId(long vehicleId, String parentCode, String code);
+}
@@ -0,0 +1,159 @@
+package com.spring.vehicle.repository;
+
+import com.spring.vehicle.exception.ResourceNotFoundException;
+import com.spring.vehicle.model.entity.AppSetting;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * JDBC and Hibernate implementation of {@link AppSettingRepositoryCustom}.
+ * Runs in the caller's transaction; with {@code rewriteBatchedStatements} the MySQL driver sends the whole batch
+ * in a single round trip.
+ * JDBC writes bypass Hibernate, so they evict what they change from the second-level cache themselves, once the
+ * transaction has committed: the updated entities, and the cached queries when rows are inserted.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+public class AppSettingRepositoryCustomImpl implements AppSettingRepositoryCustom {
+
+    private static final String UPDATE_CONFIG_VALUE =
+            "update app_setting set config_value = ?, last_modified_date = ?, version = version + 1 where vehicle_id = ? and parent_code = ? and code = ?";
+
+    /**
+     * Ids of codes of a vehicle, cached: natural keys never change, and inserts and deletes drop the query cache
+     */
+    private static final String FIND_IDS =
+            "select a.id from AppSetting a where a.vehicleId = :vehicleId and a.parentCode = :parentCode and a.code in :codes";
+
+    private static final String INSERT_SETTING =
+            "insert into app_setting (id, vehicle_id, parent_code, code, config_value, name, enabled, created_date, last_modified_date) "
+                    + "values (?, ?, ?, ?, ?, ?, '1', ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final IdAllocator idAllocator;
+
+    public AppSettingRepositoryCustomImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager, IdAllocator idAllocator) {
+        this.jdbcTemplate = requireNonNull(jdbcTemplate);
+        this.entityManager = requireNonNull(entityManager);
+        this.idAllocator = requireNonNull(idAllocator);
+    }
+
+    @Override
+    public Optional<AppSetting> findByNaturalId(long vehicleId, String parentCode, String code) {
+        if (parentCode == null || code == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                            .byNaturalId(AppSetting.class)
+                            .using(AppSetting.VEHICLE_ID, vehicleId)
+                            .using(AppSetting.PARENT_CODE, parentCode)
+                            .using(AppSetting.CODE, code)
+                            .loadOptional();
+    }
+
+    @Override
+    public int insertMissingSettings(Collection<Long> vehicleIds, String parentCode, Map<String, String> configValues) {
+        if (vehicleIds.isEmpty() || configValues.isEmpty()) {
+            return 0;
+        }
+        long min = vehicleIds.stream().mapToLong(Long::longValue).min().getAsLong();
+        long max = vehicleIds.stream().mapToLong(Long::longValue).max().getAsLong();
+        Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "select distinct vehicle_id from app_setting where vehicle_id between ? and ? and parent_code = ?",
+                Long.class, min, max, parentCode));
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> batchArgs = new ArrayList<>();
+        int provisioned = 0;
+        for (Long vehicleId : vehicleIds) {
+            if (!existing.add(vehicleId)) {
+                continue;
+            }
+            for (Map.Entry<String, String> entry : configValues.entrySet()) {
+                batchArgs.add(new Object[]{null, vehicleId, parentCode, entry.getKey(), entry.getValue(), entry.getKey(), now, now});
+            }
+            provisioned++;
+        }
+        long[] ids = idAllocator.nextIds(AppSetting.TABLE, batchArgs.size());
+        for (int i = 0; i < ids.length; i++) {
+            batchArgs.get(i)[0] = ids[i];
+        }
+        jdbcTemplate.batchUpdate(INSERT_SETTING, batchArgs);
+        if (provisioned > 0) {
+            afterCommit(() -> entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache().evictQueryRegions());
+        }
+        return provisioned;
+    }
+
+    @Override
+    public int updateConfigValues(long vehicleId, String parentCode, Map<String, String> configValues) {
+        if (configValues.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<String> codes = new ArrayList<>(configValues.size());
+        List<Object[]> batchArgs = new ArrayList<>(configValues.size());
+        configValues.forEach((code, configValue) -> {
+            codes.add(code);
+            batchArgs.add(new Object[]{configValue, now, vehicleId, parentCode, code});
+        });
+
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_CONFIG_VALUE, batchArgs);
+
+        int updated = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                throw new ResourceNotFoundException("AppSetting", "Id", vehicleId + "/" + parentCode + "-" + codes.get(i));
+            }
+            // rewritten batches only report SUCCESS_NO_INFO
+            updated += counts[i] == Statement.SUCCESS_NO_INFO ? 1 : counts[i];
+        }
+
+        List<Long> ids = entityManager.createQuery(FIND_IDS, Long.class)
+                                      .setParameter("vehicleId", vehicleId)
+                                      .setParameter("parentCode", parentCode)
+                                      .setParameter("codes", codes)
+                                      .setHint(HibernateHints.HINT_CACHEABLE, true)
+                                      .getResultList();
+        afterCommit(() -> ids.forEach(id -> entityManager.getEntityManagerFactory().getCache().evict(AppSetting.class, id)));
+        return updated;
+    }
+
+    /**
+     * Run a cache eviction once the current transaction has committed, so a concurrent read cannot cache the row
+     * again before the change is visible; immediately without a transaction.
+     */
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package com.spring.vehicle.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Hands out primary keys from blocks reserved in the {@code id_block} table, so an insert takes its id from memory.
+ * A block is reserved with one update of the table's row in a transaction of its own, committed before any id of
+ * the block is used: instances never share a block, and the row lock is held for that update only, not for the
+ * caller's transaction. Ids are unique and increasing per instance, not gapless; the rest of a block is lost on
+ * shutdown. The ids of a JDBC batch are taken at once with {@link #nextIds(String, int)}.
+ * <p>
+ * Blocks are reserved on a data source of their own, see {@link com.spring.vehicle.config.IdAllocatorConfig}.
+ * Callers ask for ids inside their transactions, holding a connection of the application pool; reserving from that
+ * pool as well would let callers waiting for the block lock hold every connection while the reserving thread waits
+ * for one more.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+public class IdAllocator implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdAllocator.class);
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[a-z][a-z0-9_]*");
+
+    private static final String RESERVE_BLOCK = "update id_block set next_id = next_id + ? where table_name = ?";
+
+    private static final String SELECT_NEXT_ID = "select next_id from id_block where table_name = ?";
+
+    // a table without a row yet continues after the ids it already holds
+    private static final String INSERT_BLOCK_ROW = "insert into id_block (table_name, next_id) select ?, coalesce(max(id), 0) + 1 from ";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    /**
+     * @param dataSource data source used for reservations only, closed with the allocator if it is closeable
+     * @param blockSize  ids reserved per round trip
+     */
+    public IdAllocator(DataSource dataSource, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("app.id.block-size must be positive: " + blockSize);
+        }
+        this.dataSource = requireNonNull(dataSource);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Next id of a table.
+     *
+     * @param table the table name
+     * @return an id no other call, on any instance, returns
+     */
+    public long nextId(String table) {
+        return nextIds(table, 1)[0];
+    }
+
+    /**
+     * Next ids of a table, for a batch insert. A count larger than the block size is reserved in one block.
+     *
+     * @param table the table name
+     * @param count the number of ids
+     * @return the ids, increasing
+     */
+    public long[] nextIds(String table, int count) {
+        Block block = blocks.computeIfAbsent(table, t -> new Block());
+        long[] ids = new long[count];
+        int filled = 0;
+        synchronized (block) {
+            while (filled < count) {
+                if (block.next == block.limit) {
+                    int size = Math.max(blockSize, count - filled);
+                    block.limit = reserve(table, size);
+                    block.next = block.limit - size;
+                }
+                while (filled < count && block.next < block.limit) {
+                    ids[filled++] = block.next++;
+                }
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (dataSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Reserve a block of ids, in its own transaction.
+     *
+     * @return the end of the block, exclusive
+     */
+    private long reserve(String table, int size) {
+        while (true) {
+            Long limit = transactionTemplate.execute(status -> jdbcTemplate.update(RESERVE_BLOCK, size, table) == 0
+                    ? null
+                    : jdbcTemplate.queryForObject(SELECT_NEXT_ID, Long.class, table));
+            if (limit != null) {
+                LOGGER.debug("Reserved ids {} to {} of {}", limit - size, limit - 1, table);
+                return limit;
+            }
+            if (!TABLE_NAME.matcher(table).matches()) {
+                throw new IllegalArgumentException("Invalid table name: " + table);
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_BLOCK_ROW + table, table));
+            } catch (DuplicateKeyException e) {
+                // another instance added the row first, reserve from it
+            }
+        }
+    }
+
+    /**
+     * Ids from next to limit, exclusive, reserved and not handed out yet.
+     */
+    private static final class Block {
+
+        private long next;
+        private long limit;
+    }
+}
@@ -0,0 +1,236 @@
+package com.spring.vehicle.repository;
+
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.model.TelemetryResolution;
+import com.spring.vehicle.model.TelemetryRollup;
+import com.spring.vehicle.model.TelemetrySample;
+import com.spring.vehicle.payload.history.TelemetryPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * JDBC access to the append-only telemetry history and its rollups.
+ * Samples are only ever inserted in batches; rollups are merged into the stored buckets with an upsert, so a bucket
+ * is never recomputed from the raw samples.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Repository
+public class TelemetryHistoryRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TelemetryHistoryRepository.class);
+
+    private static final String INSERT_SAMPLE =
+            "insert into telemetry_history (vehicle_id, parent_code, code, sample_time, version, sample_value) values (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ROLLUP =
+            "insert into telemetry_rollup (vehicle_id, parent_code, code, resolution, bucket_start, min_value, max_value, sum_value, sample_count, latest_value, latest_time) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // MySQL 8.0.20 deprecates values(col) in favour of a row alias; latest_value is assigned before latest_time, which
+    // it compares against
+    private static final String MERGE_ROLLUP = INSERT_ROLLUP + " as new on duplicate key update "
+            + "min_value = least(min_value, new.min_value), "
+            + "max_value = greatest(max_value, new.max_value), "
+            + "sum_value = sum_value + new.sum_value, "
+            + "sample_count = sample_count + new.sample_count, "
+            + "latest_value = case when new.latest_time >= latest_time then new.latest_value else latest_value end, "
+            + "latest_time = greatest(latest_time, new.latest_time)";
+
+    // The MySQL mode of H2 has no row alias
+    private static final String MERGE_ROLLUP_VALUES = INSERT_ROLLUP + " on duplicate key update "
+            + "min_value = least(min_value, values(min_value)), "
+            + "max_value = greatest(max_value, values(max_value)), "
+            + "sum_value = sum_value + values(sum_value), "
+            + "sample_count = sample_count + values(sample_count), "
+            + "latest_value = case when values(latest_time) >= latest_time then values(latest_value) else latest_value end, "
+            + "latest_time = greatest(latest_time, values(latest_time))";
+
+    private static final String SELECT_SAMPLES =
+            "select sample_time, sample_value from telemetry_history "
+            + "where vehicle_id = ? and parent_code = ? and code = ? and sample_time >= ? and sample_time < ? order by sample_time, version";
+
+    private static final String SELECT_ROLLUPS =
+            "select bucket_start, min_value, max_value, sum_value, sample_count, latest_value from telemetry_rollup "
+            + "where vehicle_id = ? and parent_code = ? and code = ? and resolution = ? and bucket_start >= ? and bucket_start < ? order by bucket_start";
+
+    private static final String SELECT_PARTITIONS =
+            "select partition_name, partition_description from information_schema.partitions "
+            + "where table_schema = database() and table_name = 'telemetry_history' and partition_name is not null";
+
+    private static final String MAX_PARTITION = "p_max";
+    private static final DateTimeFormatter PARTITION_DAY = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    private static final RowMapper<TelemetryPoint> SAMPLE_MAPPER = (rs, rowNum) -> {
+        int value = rs.getInt(2);
+        return new TelemetryPoint(rs.getLong(1), value, value, value, value, 1);
+    };
+
+    private static final RowMapper<TelemetryPoint> ROLLUP_MAPPER = (rs, rowNum) -> {
+        long count = rs.getLong(5);
+        return new TelemetryPoint(rs.getLong(1), rs.getInt(2), rs.getInt(3),
+                                  count == 0 ? 0 : (double) rs.getLong(4) / count, rs.getInt(6), count);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Whether the database is MySQL, and whether telemetry_history is range partitioned, only on MySQL
+     */
+    private volatile Boolean mySql;
+    private volatile Boolean partitioned;
+
+    public TelemetryHistoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = requireNonNull(jdbcTemplate);
+    }
+
+    public void insertSamples(List<TelemetrySample> samples) {
+        jdbcTemplate.batchUpdate(INSERT_SAMPLE, samples, samples.size(), (ps, sample) -> {
+            ps.setLong(1, sample.getVehicleId());
+            ps.setString(2, sample.getParentCode());
+            ps.setString(3, sample.getCode());
+            ps.setLong(4, sample.getSampleTime());
+            ps.setLong(5, sample.getVersion());
+            ps.setInt(6, sample.getValue());
+        });
+    }
+
+    public void mergeRollups(Collection<TelemetryRollup> rollups) {
+        jdbcTemplate.batchUpdate(isMySql() ? MERGE_ROLLUP : MERGE_ROLLUP_VALUES, rollups, rollups.size(), (ps, rollup) -> {
+            ps.setLong(1, rollup.getVehicleId());
+            ps.setString(2, rollup.getParentCode());
+            ps.setString(3, rollup.getCode());
+            ps.setString(4, rollup.getResolution().getLabel());
+            ps.setLong(5, rollup.getBucketStart());
+            ps.setInt(6, rollup.getMin());
+            ps.setInt(7, rollup.getMax());
+            ps.setLong(8, rollup.getSum());
+            ps.setLong(9, rollup.getCount());
+            ps.setInt(10, rollup.getLatestValue());
+            ps.setLong(11, rollup.getLatestTime());
+        });
+    }
+
+    /**
+     * Raw samples of a code, oldest first.
+     *
+     * @param from epoch milliseconds, inclusive
+     * @param to   epoch milliseconds, exclusive
+     */
+    public List<TelemetryPoint> findSamples(SettingKey key, String code, long from, long to) {
+        return jdbcTemplate.query(SELECT_SAMPLES, SAMPLE_MAPPER, key.getVehicleId(), key.getParentCode(), code, from, to);
+    }
+
+    /**
+     * Rollup buckets of a code starting in the range, oldest first.
+     *
+     * @param from epoch milliseconds, inclusive
+     * @param to   epoch milliseconds, exclusive
+     */
+    public List<TelemetryPoint> findRollups(SettingKey key, String code, TelemetryResolution resolution, long from, long to) {
+        return jdbcTemplate.query(SELECT_ROLLUPS, ROLLUP_MAPPER, key.getVehicleId(), key.getParentCode(), code, resolution.getLabel(), from, to);
+    }
+
+    public int deleteRollupsBefore(TelemetryResolution resolution, long time) {
+        return jdbcTemplate.update("delete from telemetry_rollup where resolution = ? and bucket_start < ?", resolution.getLabel(), time);
+    }
+
+    /**
+     * Drop the samples older than a day boundary: whole daily partitions on MySQL, a range delete elsewhere.
+     *
+     * @param day first day to keep, UTC
+     */
+    public void dropSamplesBefore(LocalDate day) {
+        long time = day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        if (!isPartitioned()) {
+            jdbcTemplate.update("delete from telemetry_history where sample_time < ?", time);
+            return;
+        }
+        List<String> expired = new ArrayList<>();
+        partitions().forEach((name, lessThan) -> {
+            if (lessThan != null && lessThan <= time) {
+                expired.add(name);
+            }
+        });
+        if (!expired.isEmpty()) {
+            LOGGER.info("Dropping telemetry history partitions {}", expired);
+            jdbcTemplate.execute("alter table telemetry_history drop partition " + String.join(", ", expired));
+        }
+    }
+
+    /**
+     * Split daily partitions off the catch-all partition up to a day, so that no sample lands in the catch-all.
+     * Does nothing where the table is not partitioned.
+     *
+     * @param lastDay last day to have its own partition, UTC
+     */
+    public void createPartitionsUntil(LocalDate lastDay) {
+        if (!isPartitioned()) {
+            return;
+        }
+        long newest = partitions().values().stream()
+                                  .filter(Objects::nonNull)
+                                  .mapToLong(Long::longValue)
+                                  .max()
+                                  .orElse(Long.MIN_VALUE);
+        LocalDate day = newest == Long.MIN_VALUE
+                ? LocalDate.now(ZoneOffset.UTC)
+                : Instant.ofEpochMilli(newest).atZone(ZoneOffset.UTC).toLocalDate();
+        for (; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            long lessThan = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            LOGGER.info("Adding telemetry history partition {}", PARTITION_DAY.format(day));
+            jdbcTemplate.execute("alter table telemetry_history reorganize partition " + MAX_PARTITION + " into ("
+                                 + "partition " + PARTITION_DAY.format(day) + " values less than (" + lessThan + "), "
+                                 + "partition " + MAX_PARTITION + " values less than maxvalue)");
+        }
+    }
+
+    /**
+     * Partitions of telemetry_history and their exclusive upper bound, null for the catch-all partition
+     */
+    private Map<String, Long> partitions() {
+        Map<String, Long> partitions = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_PARTITIONS, rs -> {
+            String description = rs.getString(2);
+            partitions.put(rs.getString(1), "MAXVALUE".equalsIgnoreCase(description) ? null : Long.valueOf(description));
+        });
+        return partitions;
+    }
+
+    private boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            result = isMySql() && !partitions().isEmpty();
+            partitioned = result;
+        }
+        return result;
+    }
+
+    private boolean isMySql() {
+        Boolean result = mySql;
+        if (result == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = "MySQL".equalsIgnoreCase(product);
+            mySql = result;
+        }
+        return result;
+    }
+}
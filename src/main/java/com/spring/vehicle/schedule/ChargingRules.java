@@ -0,0 +1,84 @@
+package com.spring.vehicle.schedule;
+
+/**
+ * Charge, run and idle rules of the vehicle simulation, the only implementation of them.
+ * They are expressed over the structure-of-arrays {@link FleetState} so that the fleet engine can run them without
+ * boxing; {@link ChargingSchedule} runs them over a fleet of the one vehicle of its settings.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+public final class ChargingRules {
+
+    public static final int MAX_BATTERY = 100;
+    public static final int MIN_BATTERY = 0;
+    public static final int MAX_POWER = 1000;
+    public static final int DEFAULT_POWER = 100;
+    public static final int MAX_TEMPERATURE = 120;
+    public static final int DEFAULT_TEMPERATURE = 20;
+
+    private ChargingRules() {
+        throw new UnsupportedOperationException("Cannot instantiate a ChargingRules class");
+    }
+
+    /**
+     * Applies one simulation tick to the vehicle stored at index {@code i}.
+     *
+     * @param state fleet state to mutate
+     * @param i     vehicle index
+     */
+    public static void apply(FleetState state, int i) {
+        apply(state, i, true);
+    }
+
+    /**
+     * Applies one simulation tick to the vehicle stored at index {@code i}.
+     *
+     * @param state         fleet state to mutate
+     * @param i             vehicle index
+     * @param chargingKnown whether the charging flag of the vehicle is known; an idle vehicle only gets the default
+     *                      temperature back when it is known not to be charging
+     */
+    public static void apply(FleetState state, int i, boolean chargingKnown) {
+        final int[] rpmArr = state.rpm;
+        final int[] powerArr = state.power;
+        final int[] batteryArr = state.battery;
+        final int[] temperatureArr = state.temperature;
+        final boolean charging = state.charging[i];
+
+        int rpm = rpmArr[i];
+        int power = powerArr[i];
+        int battery = batteryArr[i];
+        int temperature = temperatureArr[i];
+
+        // Handle charging logic
+        if (charging) {
+            battery = Math.min(battery + 1, MAX_BATTERY);
+            power = battery / 100 * 1000;
+            if (battery < 100) {
+                temperature = Math.min(temperature + 1, MAX_TEMPERATURE);
+            }
+        }
+
+        // Handle running logic
+        if (rpm > 0) {
+            battery = Math.max(battery - 1, MIN_BATTERY);
+            //stop running while battery fall to 0
+            if (battery == 0) {
+                rpm = 0;
+            }
+            power = rpm / 800 * 1000;
+            temperature = Math.min(temperature + 2, MAX_TEMPERATURE);
+        }
+
+        //motor stop and not charging
+        if (chargingKnown && !charging && rpm == 0) {
+            temperature = DEFAULT_TEMPERATURE;
+        }
+
+        rpmArr[i] = rpm;
+        powerArr[i] = power;
+        batteryArr[i] = battery;
+        temperatureArr[i] = temperature;
+    }
+}
@@ -1,122 +1,124 @@
 package com.spring.vehicle.schedule;
 
+import com.spring.vehicle.config.SqlBudgetGuard;
 import com.spring.vehicle.constant.Constants;
-import com.spring.vehicle.exception.ResourceNotFoundException;
-import com.spring.vehicle.payload.setting.SettingResponse;
-import com.spring.vehicle.payload.setting.UpdateAppSettingRequest;
+import com.spring.vehicle.model.TelemetryCode;
 import com.spring.vehicle.service.AppSettingService;
-import com.spring.vehicle.utils.MathUtils;
+import com.spring.vehicle.service.TelemetryValues;
+import com.spring.vehicle.utils.TimestampFormatter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import static com.spring.vehicle.model.TelemetryCode.*;
 
 @Component
 public class ChargingSchedule {
 
     private static final Logger log = LoggerFactory.getLogger(ChargingSchedule.class);
-    private static final SimpleDateFormat dateFormat = new SimpleDateFormat("HH:mm:ss");
+    private static final TimestampFormatter timeFormat = new TimestampFormatter("HH:mm:ss", ZoneId.systemDefault());
 
-    private static final int MAX_BATTERY = 100;
-    private static final int MIN_BATTERY = 0;
-    private static final int MAX_POWER = 1000;
-    private static final int DEFAULT_POWER = 100;
-    private static final int MAX_TEMPERATURE = 120;
-    private static final int DEFAULT_TEMPERATURE = 20;
+    /**
+     * Interval between tick starts, in milliseconds
+     */
+    private static final long TICK_RATE = 5000;
+
+    /**
+     * SQL statements of a tick: the load of the settings on the first one, none once they are in memory
+     */
+    private static final int TICK_SQL_BUDGET = 1;
 
     private final AppSettingService appSettingService;
+    private final SqlBudgetGuard sqlBudgetGuard;
 
-    public ChargingSchedule(AppSettingService appSettingService) {
+    /**
+     * Duration of a tick, how late it started behind the fixed rate, and the ticks that outlasted the rate
+     */
+    private final Timer tickTimer;
+    private final Timer lagTimer;
+    private final Counter overruns;
+    private volatile long lastStartNanos;
+
+    public ChargingSchedule(AppSettingService appSettingService, SqlBudgetGuard sqlBudgetGuard, MeterRegistry meterRegistry) {
         this.appSettingService = appSettingService;
+        this.sqlBudgetGuard = sqlBudgetGuard;
+        this.tickTimer = Timer.builder("charging.schedule.tick")
+                              .description("Duration of a charging schedule tick")
+                              .publishPercentileHistogram()
+                              .register(meterRegistry);
+        this.lagTimer = Timer.builder("charging.schedule.tick.lag")
+                             .description("Delay of a tick start behind its fixed rate")
+                             .publishPercentileHistogram()
+                             .register(meterRegistry);
+        this.overruns = Counter.builder("charging.schedule.tick.overruns")
+                               .description("Ticks that took longer than the tick rate")
+                               .register(meterRegistry);
     }
 
     /**
      * Scheduled task to reset application settings periodically.
      * This method executes every 5 seconds (5000ms).
      */
-    @Scheduled(fixedRate = 5000)
+    @Scheduled(fixedRate = TICK_RATE)
     public void resetAppSetting() {
-        log.info("The time is now {}", dateFormat.format(new Date()));
-
-        // Fetch the current settings; throw exception if not found
-        SettingResponse settingResponse = appSettingService.getSetting(Constants.SETTING)
-                                                           .orElseThrow(() -> new ResourceNotFoundException("Code", "Id", Constants.SETTING));
-        log.info("Current setting response: {}", settingResponse);
-
-        // Parse numeric values from the settings
-        int rpm = MathUtils.parseInt(settingResponse.getRpm());
-        int power = MathUtils.parseInt(settingResponse.getPower());
-        int battery = MathUtils.parseInt(settingResponse.getBattery());
-        int temperature = MathUtils.parseInt(settingResponse.getTemperature());
-
-        // Prepare a reusable request object for updates
-        UpdateAppSettingRequest updateRequest = new UpdateAppSettingRequest();
-        updateRequest.setParentCode(Constants.SETTING);
-
-        // Handle charging logic
-        if (Boolean.TRUE.equals(settingResponse.getIsCharging())) {
-            log.info("Device is charging. Increasing battery level from {}", battery);
-            battery = Math.min(battery + 1, MAX_BATTERY); // Ensure battery does not exceed max
-            updateRequest.setCode(Constants.SETTING_BATTERY);
-            updateRequest.setConfigValue(String.valueOf(battery));
-            appSettingService.updateAppSetting(updateRequest);
-
-            // Adjust power based on battery
-            power = battery / 100 * 1000;
-            updateRequest.setCode(Constants.SETTING_POWER);
-            updateRequest.setConfigValue(String.valueOf(power));
-            appSettingService.updateAppSetting(updateRequest);
-
-            // Increase temperature with a max limit and battery not fully charged
-            if (battery < 100) {
-                temperature = Math.min(temperature + 1, MAX_TEMPERATURE);
-                updateRequest.setCode(Constants.SETTING_TEMPERATURE);
-                updateRequest.setConfigValue(String.valueOf(temperature));
-                appSettingService.updateAppSetting(updateRequest);
-            }
+        long start = System.nanoTime();
+        long previousStart = lastStartNanos;
+        lastStartNanos = start;
+        if (previousStart != 0) {
+            lagTimer.record(Math.max(start - previousStart - TimeUnit.MILLISECONDS.toNanos(TICK_RATE), 0), TimeUnit.NANOSECONDS);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("The time is now {}", timeFormat.formatNow());
         }
 
-        // Handle running logic
-        if (rpm > 0) {
-            log.info("Device is running. RPM: {}, Decreasing battery, and adjusting power/temperature.", rpm);
-
-            // Decrease battery with a minimum limit
-            battery = Math.max(battery - 1, MIN_BATTERY);
-            updateRequest.setCode(Constants.SETTING_BATTERY);
-            updateRequest.setConfigValue(String.valueOf(battery));
-            appSettingService.updateAppSetting(updateRequest);
-
-            //stop running while battery fall to 0
-            if (battery == 0) {
-                rpm = 0;
-                updateRequest.setCode(Constants.SETTING_RPM);
-                updateRequest.setConfigValue("0");
-                appSettingService.updateAppSetting(updateRequest);
-            }
-
-            // Adjust power based on RPM
-            power = rpm / 800 * 1000;
-            updateRequest.setCode(Constants.SETTING_POWER);
-            updateRequest.setConfigValue(String.valueOf(power));
-            appSettingService.updateAppSetting(updateRequest);
-
-            // Increase temperature with a max limit
-            temperature = Math.min(temperature + 2, MAX_TEMPERATURE);
-            updateRequest.setCode(Constants.SETTING_TEMPERATURE);
-            updateRequest.setConfigValue(String.valueOf(temperature));
-            appSettingService.updateAppSetting(updateRequest);
+        // Read and write the settings as one atomic transition, so a concurrent update is never lost
+        try (SqlBudgetGuard.Scope ignored = sqlBudgetGuard.open("charging.schedule.tick", TICK_SQL_BUDGET)) {
+            appSettingService.transitionAppSettings(Constants.SETTING, this::tick);
         }
 
-        //motor stop and not charging
-        if (Boolean.FALSE.equals(settingResponse.getIsCharging()) && rpm == 0) {
-            // Reset temperature to default when not running
-            log.info("Device is idle. Resetting temperature to default: {}", DEFAULT_TEMPERATURE);
-            updateRequest.setCode(Constants.SETTING_TEMPERATURE);
-            updateRequest.setConfigValue(String.valueOf(DEFAULT_TEMPERATURE));
-            appSettingService.updateAppSetting(updateRequest);
+        long duration = System.nanoTime() - start;
+        tickTimer.record(duration, TimeUnit.NANOSECONDS);
+        if (duration > TimeUnit.MILLISECONDS.toNanos(TICK_RATE)) {
+            overruns.increment();
+        }
+    }
+
+    /**
+     * Applies the charge, run and idle rules to the current settings, as a fleet of one vehicle.
+     *
+     * @param values the current values, changed in place
+     */
+    void tick(TelemetryValues values) {
+        // Read the typed values, no parsing involved
+        boolean hasCharging = values.has(IS_CHARGING);
+        FleetState vehicle = new FleetState(1);
+        vehicle.set(0, values.getInt(RPM), values.getInt(POWER), values.getInt(BATTERY), values.getInt(TEMPERATURE),
+                    hasCharging && values.getBoolean(IS_CHARGING));
+        log.debug("Current setting values: rpm={}, power={}, battery={}, temperature={}, isCharging={}",
+                  vehicle.getRpm(0), vehicle.getPower(0), vehicle.getBattery(0), vehicle.getTemperature(0), vehicle.isCharging(0));
+
+        // Without the charging setting the vehicle is not known to be idle, its temperature is kept
+        ChargingRules.apply(vehicle, 0, hasCharging);
+
+        write(values, RPM, vehicle.getRpm(0));
+        write(values, POWER, vehicle.getPower(0));
+        write(values, BATTERY, vehicle.getBattery(0));
+        write(values, TEMPERATURE, vehicle.getTemperature(0));
+    }
+
+    /**
+     * Write a value the rules changed, so codes they left alone are not required to exist.
+     */
+    private static void write(TelemetryValues values, TelemetryCode code, int value) {
+        if (values.getInt(code) != value) {
+            values.setInt(code, value);
         }
     }
 }
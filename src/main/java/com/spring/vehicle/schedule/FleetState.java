@@ -0,0 +1,73 @@
+package com.spring.vehicle.schedule;
+
+/**
+ * Structure-of-arrays storage of per-vehicle telemetry.
+ * Vehicle {@code i} is described by the i-th slot of every array, so a tick walks contiguous primitive memory
+ * instead of chasing one object per vehicle.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+public final class FleetState {
+
+    final int[] rpm;
+    final int[] power;
+    final int[] battery;
+    final int[] temperature;
+    final boolean[] charging;
+
+    private final int size;
+
+    public FleetState(int size) {
+        if (size < 0) throw new IllegalArgumentException("Fleet size must be non-negative");
+        this.size = size;
+        this.rpm = new int[size];
+        this.power = new int[size];
+        this.battery = new int[size];
+        this.temperature = new int[size];
+        this.charging = new boolean[size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sets the whole state of one vehicle.
+     */
+    public void set(int i, int rpm, int power, int battery, int temperature, boolean charging) {
+        this.rpm[i] = rpm;
+        this.power[i] = power;
+        this.battery[i] = battery;
+        this.temperature[i] = temperature;
+        this.charging[i] = charging;
+    }
+
+    public int getRpm(int i) {
+        return rpm[i];
+    }
+
+    public int getPower(int i) {
+        return power[i];
+    }
+
+    public int getBattery(int i) {
+        return battery[i];
+    }
+
+    public int getTemperature(int i) {
+        return temperature[i];
+    }
+
+    public boolean isCharging(int i) {
+        return charging[i];
+    }
+
+    public void setCharging(int i, boolean charging) {
+        this.charging[i] = charging;
+    }
+
+    public void setRpm(int i, int rpm) {
+        this.rpm[i] = rpm;
+    }
+}
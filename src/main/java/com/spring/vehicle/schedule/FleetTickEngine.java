@@ -0,0 +1,153 @@
+package com.spring.vehicle.schedule;
+
+import com.spring.vehicle.payload.fleet.FleetMetricsResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fleet tick engine, simulating many vehicles with the {@link ChargingRules}.
+ * Vehicles are stored in a {@link FleetState} and split into fixed-size shards which are ticked in parallel
+ * on a dedicated fork-join pool, so one tick scales with the number of cores.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Component
+public class FleetTickEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(FleetTickEngine.class);
+
+    private final FleetState state;
+    private final int shardSize;
+    private final int shardCount;
+    private final ForkJoinPool pool;
+
+    /**
+     * Latency of each shard during the last tick, in nanoseconds; written by the pool threads, read by any
+     */
+    private final AtomicLongArray shardLatencyNanos;
+
+    private final AtomicLong tickCount = new AtomicLong();
+    private volatile long lastTickNanos;
+
+    public FleetTickEngine(@Value("${app.fleet.size:0}") int size,
+                           @Value("${app.fleet.shard-size:4096}") int shardSize,
+                           @Value("${app.fleet.parallelism:0}") int parallelism) {
+        if (shardSize <= 0) throw new IllegalArgumentException("Shard size must be positive");
+        this.state = new FleetState(size);
+        this.shardSize = shardSize;
+        this.shardCount = (size + shardSize - 1) / shardSize;
+        this.shardLatencyNanos = new AtomicLongArray(shardCount);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        seed(new SplittableRandom(size));
+    }
+
+    /**
+     * Initial state: a quarter of the fleet is charging, half of it is running.
+     */
+    private void seed(SplittableRandom random) {
+        for (int i = 0; i < state.size(); i++) {
+            boolean charging = random.nextInt(4) == 0;
+            int rpm = !charging && random.nextBoolean() ? random.nextInt(800, 4001) : 0;
+            state.set(i, rpm, ChargingRules.DEFAULT_POWER, random.nextInt(20, ChargingRules.MAX_BATTERY + 1),
+                      ChargingRules.DEFAULT_TEMPERATURE, charging);
+        }
+    }
+
+    /**
+     * Scheduled fleet tick, disabled while {@code app.fleet.size} is 0.
+     */
+    @Scheduled(fixedRateString = "${app.fleet.tick-rate:5000}")
+    public void scheduledTick() {
+        if (state.size() == 0) {
+            return;
+        }
+        tick();
+        if (log.isDebugEnabled()) {
+            log.debug("Fleet tick {} of {} vehicles took {} us", tickCount.get(), state.size(), lastTickNanos / 1000);
+        }
+    }
+
+    /**
+     * Runs one tick over the whole fleet and blocks until every shard is done.
+     */
+    public void tick() {
+        long start = System.nanoTime();
+        if (shardCount > 0) {
+            pool.invoke(new ShardTask(0, shardCount));
+        }
+        lastTickNanos = System.nanoTime() - start;
+        tickCount.incrementAndGet();
+    }
+
+    public FleetState getState() {
+        return state;
+    }
+
+    /**
+     * Snapshot of the engine metrics.
+     * Ticks per second is the sustainable tick rate given the duration of the last tick.
+     */
+    public FleetMetricsResponse getMetrics() {
+        long last = lastTickNanos;
+        long[] shardMicros = new long[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shardMicros[i] = shardLatencyNanos.get(i) / 1000;
+        }
+        return FleetMetricsResponse.builder()
+                                   .vehicles(state.size())
+                                   .shards(shardCount)
+                                   .parallelism(pool.getParallelism())
+                                   .tickCount(tickCount.get())
+                                   .lastTickMicros(last / 1000)
+                                   .ticksPerSecond(last > 0 ? 1_000_000_000d / last : 0)
+                                   .vehicleUpdatesPerSecond(last > 0 ? state.size() * 1_000_000_000d / last : 0)
+                                   .shardLatencyMicros(shardMicros)
+                                   .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Splits a range of shards in halves until a single shard is left, which is then ticked in place.
+     */
+    private final class ShardTask extends RecursiveAction {
+
+        private final int fromShard;
+        private final int toShard;
+
+        ShardTask(int fromShard, int toShard) {
+            this.fromShard = fromShard;
+            this.toShard = toShard;
+        }
+
+        @Override
+        protected void compute() {
+            if (toShard - fromShard > 1) {
+                int mid = (fromShard + toShard) >>> 1;
+                invokeAll(new ShardTask(fromShard, mid), new ShardTask(mid, toShard));
+                return;
+            }
+            long start = System.nanoTime();
+            int from = fromShard * shardSize;
+            int to = Math.min(from + shardSize, state.size());
+            for (int i = from; i < to; i++) {
+                ChargingRules.apply(state, i);
+            }
+            shardLatencyNanos.set(fromShard, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.spring.vehicle.schedule;
+
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.model.TelemetryCode;
+import com.spring.vehicle.payload.load.LoadReportResponse;
+import com.spring.vehicle.service.AppSettingService;
+import com.spring.vehicle.utils.LatencyHistogram;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.LongStream;
+
+import static com.spring.vehicle.constant.PathConstants.API_V1;
+
+/**
+ * Synthetic load for capacity planning, enabled with {@code app.load.enabled=true}.
+ * Once the application is ready, a range of simulated vehicles is provisioned and driven for a fixed duration at a
+ * target rate: writes go through {@link AppSettingService} like the scheduler's, reads go through the HTTP API of
+ * this same instance like a dashboard's. Every vehicle follows a duty cycle of trips, idling and charging under the
+ * {@link ChargingRules}, with noise on the rpm and temperature sensors.
+ * <p>
+ * Each worker thread owns a slice of the vehicles, a random source split from the seed and its own latency
+ * histograms, so workers share nothing. Operations are scheduled at fixed intervals and their latency is measured
+ * from the time they were due, so a server falling behind shows up in the latency instead of lowering the rate.
+ * The report is logged at the end of the run and served by {@code GET /fleet/load}.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "app.load.enabled", havingValue = "true")
+public class LoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final int LOW_BATTERY = 20;
+    private static final int MIN_TRIP_RPM = 800;
+    private static final int MAX_TRIP_RPM = 6000;
+
+    private final AppSettingService appSettingService;
+    private final int vehicles;
+    private final long firstVehicleId;
+    private final int threads;
+    private final double rate;
+    private final double readRatio;
+    private final int durationSeconds;
+    private final long seed;
+
+    private final HttpClient httpClient;
+    private volatile Thread runner;
+    private volatile LoadReportResponse report;
+
+    public LoadGenerator(AppSettingService appSettingService,
+                         @Value("${app.load.vehicles:1000}") int vehicles,
+                         @Value("${app.load.first-vehicle-id:1000000}") long firstVehicleId,
+                         @Value("${app.load.threads:8}") int threads,
+                         @Value("${app.load.rate:1000}") double rate,
+                         @Value("${app.load.read-ratio:0.8}") double readRatio,
+                         @Value("${app.load.duration:60}") int durationSeconds,
+                         @Value("${app.load.seed:42}") long seed) {
+        if (vehicles < threads) throw new IllegalArgumentException("Every load thread needs at least one vehicle");
+        if (rate <= 0) throw new IllegalArgumentException("Load rate must be positive");
+        this.appSettingService = appSettingService;
+        this.vehicles = vehicles;
+        this.firstVehicleId = firstVehicleId;
+        this.threads = threads;
+        this.rate = rate;
+        this.readRatio = readRatio;
+        this.durationSeconds = durationSeconds;
+        this.seed = seed;
+        this.httpClient = HttpClient.newBuilder()
+                                    .version(HttpClient.Version.HTTP_1_1)
+                                    .connectTimeout(Duration.ofSeconds(5))
+                                    .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start(ApplicationReadyEvent event) {
+        if (!(event.getApplicationContext() instanceof WebServerApplicationContext context)) {
+            log.warn("Load generator needs a web server to read through, not starting");
+            return;
+        }
+        String baseUrl = "http://localhost:" + context.getWebServer().getPort() + API_V1;
+        runner = new Thread(() -> run(baseUrl), "load-generator");
+        runner.setDaemon(true);
+        runner.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread thread = runner;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * @return the report of the run, empty until it is finished
+     */
+    public Optional<LoadReportResponse> getReport() {
+        return Optional.ofNullable(report);
+    }
+
+    private void run(String baseUrl) {
+        List<Long> vehicleIds = LongStream.range(firstVehicleId, firstVehicleId + vehicles).boxed().toList();
+        appSettingService.provisionAppSettings(vehicleIds, Constants.SETTING, defaultValues());
+        log.info("Load generator starting: {} vehicles, {} threads, {} ops/s for {} s, {}% reads",
+                 vehicles, threads, rate, durationSeconds, Math.round(readRatio * 100));
+
+        FleetState fleet = new FleetState(vehicles);
+        SplittableRandom root = new SplittableRandom(seed);
+        seed(fleet, root);
+
+        long start = System.nanoTime();
+        long deadline = start + durationSeconds * 1_000_000_000L;
+        List<Worker> workers = new ArrayList<>(threads);
+        List<Thread> workerThreads = new ArrayList<>(threads);
+        for (int w = 0; w < threads; w++) {
+            Worker worker = new Worker(w, fleet, root.split(), baseUrl, start, deadline);
+            Thread thread = new Thread(worker, "load-worker-" + w);
+            thread.setDaemon(true);
+            workers.add(worker);
+            workerThreads.add(thread);
+            thread.start();
+        }
+        try {
+            for (Thread thread : workerThreads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            workerThreads.forEach(Thread::interrupt);
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        report = report(workers, System.nanoTime() - start);
+        log.info("Load generator finished: {}", report);
+    }
+
+    private static Map<String, String> defaultValues() {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (TelemetryCode telemetryCode : TelemetryCode.values()) {
+            if (telemetryCode.isNumeric()) {
+                values.put(telemetryCode.getCode(), telemetryCode.format(telemetryCode.getDefaultValue()));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Initial state: a quarter of the vehicles is charging, half of the others is on a trip.
+     */
+    private static void seed(FleetState fleet, SplittableRandom random) {
+        for (int i = 0; i < fleet.size(); i++) {
+            boolean charging = random.nextInt(4) == 0;
+            int rpm = !charging && random.nextBoolean() ? random.nextInt(MIN_TRIP_RPM, 4001) : 0;
+            fleet.set(i, rpm, ChargingRules.DEFAULT_POWER, random.nextInt(LOW_BATTERY, ChargingRules.MAX_BATTERY + 1),
+                      ChargingRules.DEFAULT_TEMPERATURE, charging);
+        }
+    }
+
+    private LoadReportResponse report(List<Worker> workers, long elapsedNanos) {
+        LatencyHistogram reads = new LatencyHistogram();
+        LatencyHistogram writes = new LatencyHistogram();
+        long errors = 0;
+        for (Worker worker : workers) {
+            reads.add(worker.reads);
+            writes.add(worker.writes);
+            errors += worker.errors;
+        }
+        double elapsedSeconds = elapsedNanos / 1e9;
+        return LoadReportResponse.builder()
+                                 .vehicles(vehicles)
+                                 .threads(threads)
+                                 .targetRate(rate)
+                                 .throughput((reads.getCount() + writes.getCount()) / elapsedSeconds)
+                                 .elapsedSeconds(elapsedSeconds)
+                                 .reads(reads.getCount())
+                                 .writes(writes.getCount())
+                                 .errors(errors)
+                                 .readP50Micros(reads.percentile(50) / 1000)
+                                 .readP99Micros(reads.percentile(99) / 1000)
+                                 .readP999Micros(reads.percentile(99.9) / 1000)
+                                 .readMaxMicros(reads.getMax() / 1000)
+                                 .writeP50Micros(writes.percentile(50) / 1000)
+                                 .writeP99Micros(writes.percentile(99) / 1000)
+                                 .writeP999Micros(writes.percentile(99.9) / 1000)
+                                 .writeMaxMicros(writes.getMax() / 1000)
+                                 .build();
+    }
+
+    /**
+     * One load thread; it writes the vehicles {@code index, index + threads, ...} and reads any vehicle.
+     */
+    private final class Worker implements Runnable {
+
+        private final int index;
+        private final int owned;
+        private final FleetState fleet;
+        private final SplittableRandom random;
+        private final String baseUrl;
+        private final long start;
+        private final long deadline;
+
+        private final LatencyHistogram reads = new LatencyHistogram();
+        private final LatencyHistogram writes = new LatencyHistogram();
+        private long errors;
+
+        Worker(int index, FleetState fleet, SplittableRandom random, String baseUrl, long start, long deadline) {
+            this.index = index;
+            this.owned = (fleet.size() - index + threads - 1) / threads;
+            this.fleet = fleet;
+            this.random = random;
+            this.baseUrl = baseUrl;
+            this.start = start;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            long interval = (long) (threads * 1e9 / rate);
+            // stagger the workers over one interval
+            long due = start + interval * index / threads;
+            while (due < deadline && !Thread.currentThread().isInterrupted()) {
+                long now = System.nanoTime();
+                if (due > now) {
+                    LockSupport.parkNanos(due - now);
+                }
+                boolean read = random.nextDouble() < readRatio;
+                boolean ok;
+                try {
+                    ok = read ? read() : write();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (IOException | RuntimeException e) {
+                    ok = false;
+                }
+                (read ? reads : writes).record(System.nanoTime() - due);
+                if (!ok) {
+                    errors++;
+                }
+                due += interval;
+            }
+        }
+
+        private boolean read() throws IOException, InterruptedException {
+            long vehicleId = firstVehicleId + random.nextInt(vehicles);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/vehicles/" + vehicleId + "/settings"))
+                                             .timeout(Duration.ofSeconds(10))
+                                             .GET()
+                                             .build();
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        }
+
+        private boolean write() {
+            int i = index + threads * random.nextInt(owned);
+            step(i);
+            Map<String, String> values = new LinkedHashMap<>();
+            values.put(TelemetryCode.RPM.getCode(), TelemetryCode.RPM.format(fleet.getRpm(i)));
+            values.put(TelemetryCode.POWER.getCode(), TelemetryCode.POWER.format(fleet.getPower(i)));
+            values.put(TelemetryCode.BATTERY.getCode(), TelemetryCode.BATTERY.format(fleet.getBattery(i)));
+            values.put(TelemetryCode.TEMPERATURE.getCode(), TelemetryCode.TEMPERATURE.format(noisyTemperature(i)));
+            values.put(TelemetryCode.IS_CHARGING.getCode(), fleet.isCharging(i) ? "1" : "0");
+            appSettingService.updateAppSettings(SettingKey.of(firstVehicleId + i, Constants.SETTING), values, null);
+            return true;
+        }
+
+        /**
+         * Duty cycle: idle vehicles start a trip or plug in when low, trips end at random, full batteries unplug.
+         */
+        private void step(int i) {
+            int rpm = fleet.getRpm(i);
+            if (fleet.isCharging(i)) {
+                if (fleet.getBattery(i) >= ChargingRules.MAX_BATTERY) {
+                    fleet.setCharging(i, false);
+                }
+            } else if (rpm == 0) {
+                if (fleet.getBattery(i) < LOW_BATTERY) {
+                    fleet.setCharging(i, true);
+                } else if (random.nextInt(10) == 0) {
+                    fleet.setRpm(i, random.nextInt(MIN_TRIP_RPM, 4001));
+                }
+            } else if (random.nextInt(50) == 0) {
+                fleet.setRpm(i, 0);
+            } else {
+                int noisy = rpm + (int) Math.round(random.nextGaussian() * 150);
+                fleet.setRpm(i, Math.max(MIN_TRIP_RPM, Math.min(noisy, MAX_TRIP_RPM)));
+            }
+            ChargingRules.apply(fleet, i);
+        }
+
+        private int noisyTemperature(int i) {
+            int temperature = fleet.getTemperature(i) + (int) Math.round(random.nextGaussian() * 0.5);
+            return Math.max(TelemetryCode.TEMPERATURE.getMin(), Math.min(temperature, TelemetryCode.TEMPERATURE.getMax()));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.spring.vehicle.schedule;
+
+import com.spring.vehicle.config.SchedulingConfig;
+import com.spring.vehicle.model.TelemetryResolution;
+import com.spring.vehicle.repository.TelemetryHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Daily upkeep of the telemetry history: creates the partitions of the coming days ahead of time and drops the raw
+ * samples and minute rollups past the retention period. Hourly and daily rollups are kept. Runs on the persistence
+ * scheduler, so the partition DDL never holds up a tick.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Component
+public class TelemetryHistoryMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryHistoryMaintenance.class);
+
+    private final TelemetryHistoryRepository telemetryHistoryRepository;
+    private final int retentionDays;
+    private final int daysAhead;
+
+    public TelemetryHistoryMaintenance(TelemetryHistoryRepository telemetryHistoryRepository,
+                                       @Value("${app.telemetry.history.retention-days:30}") int retentionDays,
+                                       @Value("${app.telemetry.history.partitions-ahead:7}") int daysAhead) {
+        this.telemetryHistoryRepository = telemetryHistoryRepository;
+        this.retentionDays = retentionDays;
+        this.daysAhead = daysAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.telemetry.history.maintenance-cron:0 5 0 * * *}", zone = "UTC", scheduler = SchedulingConfig.PERSISTENCE_SCHEDULER)
+    public void maintain() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate firstKept = today.minusDays(retentionDays);
+        try {
+            telemetryHistoryRepository.createPartitionsUntil(today.plusDays(daysAhead));
+            telemetryHistoryRepository.dropSamplesBefore(firstKept);
+            telemetryHistoryRepository.deleteRollupsBefore(TelemetryResolution.MINUTE,
+                                                           firstKept.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli());
+        } catch (RuntimeException e) {
+            log.error("Telemetry history maintenance failed", e);
+        }
+    }
+}
@@ -1,19 +1,37 @@
 package com.spring.vehicle.service;
 
+import com.spring.vehicle.exception.BadRequestException;
+import com.spring.vehicle.exception.ConflictException;
 import com.spring.vehicle.exception.ResourceNotFoundException;
 import com.spring.vehicle.mapper.AppSettingMapper;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.payload.CacheStatsResponse;
+import com.spring.vehicle.payload.EntityCacheStatsResponse;
 import com.spring.vehicle.model.entity.AppSetting;
 import com.spring.vehicle.payload.setting.AppSettingResponse;
 import com.spring.vehicle.payload.setting.CreateAppSettingRequest;
+import com.spring.vehicle.payload.setting.RecentSettingResponse;
 import com.spring.vehicle.payload.setting.SettingResponse;
 import com.spring.vehicle.payload.setting.UpdateAppSettingRequest;
 import com.spring.vehicle.repository.AppSettingRepository;
+import com.spring.vehicle.repository.IdAllocator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static java.util.Objects.requireNonNull;
 
@@ -32,17 +50,30 @@ public class AppSettingService extends BasicService {
 
     private final AppSettingRepository appSettingRepository;
     private final AppSettingMapper appSettingMapper;  // Separate mapper class for mapping entities
+    private final TelemetryStateStore telemetryStateStore;  // Authoritative in-memory configuration values
+    private final SettingResponseCache settingResponseCache;  // Assembled SettingResponse per parent code
+    private final EntityManagerFactory entityManagerFactory;  // Second-level cache statistics
+    private final SingleFlight<SettingKey, VersionedSetting> settingLoads = new SingleFlight<>();  // In-flight cache misses
 
     /**
      * Constructor to inject dependencies.
      *
      * @param appSettingRepository AppSettingRepository for database interactions
      * @param appSettingMapper     Mapper for converting entities to DTOs
+     * @param telemetryStateStore  In-memory store of the live configuration values
+     * @param settingResponseCache Cache of assembled SettingResponse objects
+     * @param entityManagerFactory JPA entity manager factory, for its cache statistics
+     * @param idAllocator          Allocator of the ids of new settings
      */
-    public AppSettingService(AppSettingRepository appSettingRepository, AppSettingMapper appSettingMapper) {
-        super();
+    public AppSettingService(AppSettingRepository appSettingRepository, AppSettingMapper appSettingMapper,
+                             TelemetryStateStore telemetryStateStore, SettingResponseCache settingResponseCache,
+                             EntityManagerFactory entityManagerFactory, IdAllocator idAllocator) {
+        super(idAllocator);
         this.appSettingRepository = requireNonNull(appSettingRepository);
         this.appSettingMapper = requireNonNull(appSettingMapper);
+        this.telemetryStateStore = requireNonNull(telemetryStateStore);
+        this.settingResponseCache = requireNonNull(settingResponseCache);
+        this.entityManagerFactory = requireNonNull(entityManagerFactory);
     }
 
     /**
@@ -54,7 +85,7 @@ public class AppSettingService extends BasicService {
      */
     public Optional<AppSettingResponse> createAppSetting(CreateAppSettingRequest createAppSettingRequest) {
         // Generate a new appSetting ID
-        Long appSettingId = null;// super.nextId(AppSetting.TABLE);
+        Long appSettingId = super.nextId(AppSetting.TABLE);
         LOGGER.info("Creating AppSetting: {}", createAppSettingRequest);
 
         // Convert the request to a AppSetting entity
@@ -62,6 +93,9 @@ public class AppSettingService extends BasicService {
 
         // Save the created appSetting entity to the database
         appSettingRepository.save(appSetting);
+        SettingKey key = SettingKey.of(appSetting.getVehicleId(), appSetting.getParentCode());
+        telemetryStateStore.added(key, appSetting.getCode(), appSetting.getConfigValue());
+        settingResponseCache.invalidate(key);
 
         // Return the mapped AppSettingResponse as an Optional
         return Optional.of(appSettingMapper.mapToAppSettingResponse(appSetting));
@@ -79,16 +113,20 @@ public class AppSettingService extends BasicService {
         LOGGER.info("Deleting AppSetting by ID: {}", id);
 
         // Check if the appSetting exists before attempting deletion
-        if (!appSettingRepository.existsById(id)) {
-            throw new ResourceNotFoundException("AppSetting", "Id", id);
-        }
+        AppSetting appSetting = appSettingRepository.findById(id)
+                                                    .orElseThrow(() -> new ResourceNotFoundException("AppSetting", "Id", id));
 
-        // Delete the appSetting by its ID
-        appSettingRepository.deleteById(id);
+        // Delete the appSetting and drop it from the live state
+        appSettingRepository.delete(appSetting);
+        SettingKey key = SettingKey.of(appSetting.getVehicleId(), appSetting.getParentCode());
+        telemetryStateStore.removed(key, appSetting.getCode());
+        settingResponseCache.invalidate(key);
     }
 
     /**
      * Retrieve a appSetting by its ID.
+     * The entity may be older than a write not flushed yet, so the value is taken from the live state if its parent
+     * code is held in memory.
      * If the appSetting is not found, a ResourceNotFoundException is thrown.
      *
      * @param id The ID of the appSetting to retrieve.
@@ -96,40 +134,151 @@ public class AppSettingService extends BasicService {
      * @throws ResourceNotFoundException if the appSetting with the given ID is not found.
      */
     public Optional<AppSettingResponse> findById(Long id) {
-        LOGGER.info("Finding AppSetting by Id: {}", id);
+        LOGGER.debug("Finding AppSetting by Id: {}", id);
 
         // Find the appSetting by ID and map it to a AppSettingResponse, or throw an exception if not found
         return Optional.ofNullable(appSettingRepository.findById(id)
-                                                       .map(appSettingMapper::mapToAppSettingResponse)
+                                                       .map(appSetting -> toLiveResponse(appSetting, new HashMap<>()))
                                                        .orElseThrow(() -> new ResourceNotFoundException("AppSetting", "Id", id)));
     }
 
     /**
      * Update an existing appSetting by its ID.
-     * The method is transactional, ensuring that the update is either completed or rolled back.
+     * The new value is written to the in-memory state and persisted by the next write-behind flush.
      * If the appSetting is not found, a ResourceNotFoundException is thrown.
+     * If the request carries a version and the code was written since, a ConflictException is thrown.
      *
      * @param updateAppSettingRequest The request containing updated appSetting details.
      * @return Optional containing the updated AppSettingResponse.
      * @throws ResourceNotFoundException if the appSetting with the given ID is not found.
+     * @throws ConflictException         if the code was written since the version of the request.
      */
     public Optional<AppSettingResponse> updateAppSetting(UpdateAppSettingRequest updateAppSettingRequest) {
-        LOGGER.info("Updating AppSetting with ID: {}", updateAppSettingRequest);
+        LOGGER.debug("Updating AppSetting with ID: {}", updateAppSettingRequest);
 
-        // Find the appSetting by ID, update its fields, save it, and map it to a response
-        return appSettingRepository.findTopByParentCodeAndCode(updateAppSettingRequest.getParentCode(),updateAppSettingRequest.getCode())
+        // Find the appSetting by its natural key, write the new value to the live state, and map it to a response
+        SettingKey key = keyOf(updateAppSettingRequest);
+        return appSettingRepository.findByNaturalId(key.getVehicleId(), key.getParentCode(), updateAppSettingRequest.getCode())
                                    .map(appSetting -> {
-                                       // Update appSetting entity fields using the provided request data
-                                       appSettingMapper.updateAppSettingFromRequest(updateAppSettingRequest, appSetting);
-                                       appSettingRepository.save(appSetting);  // Save the updated appSetting entity
-                                       return Optional.of(appSettingMapper.mapToAppSettingResponse(appSetting));
+                                       telemetryStateStore.put(key,
+                                                               Collections.singletonMap(updateAppSettingRequest.getCode(), updateAppSettingRequest.getConfigValue()),
+                                                               updateAppSettingRequest.getVersion());
+                                       settingResponseCache.invalidate(key);
+                                       AppSettingResponse appSettingResponse = appSettingMapper.mapToAppSettingResponse(appSetting);
+                                       appSettingResponse.setConfigValue(updateAppSettingRequest.getConfigValue());
+                                       return Optional.of(appSettingResponse);
                                    })
                                    .orElseThrow(() -> new ResourceNotFoundException("AppSetting", "Id", updateAppSettingRequest.getParentCode() +"-"+updateAppSettingRequest.getCode()));
     }
 
+    /**
+     * Update the configuration values of several codes of the same parent code.
+     * The values are written to the in-memory state; the write-behind flush persists them in one transaction
+     * with a single batched statement.
+     * If any code is not found, a ResourceNotFoundException is thrown and nothing is written.
+     *
+     * @param key             the vehicle and parent code of the settings
+     * @param configValues    configuration values keyed by setting code
+     * @param expectedVersion the version the caller has read, null to write unconditionally
+     * @return the settings right after the write and their version, read under the same lock as the write
+     * @throws ResourceNotFoundException if one of the codes is not found.
+     * @throws ConflictException         if one of the codes was written since the expected version.
+     */
+    public VersionedSetting updateAppSettings(SettingKey key, Map<String, String> configValues, Long expectedVersion) {
+        LOGGER.debug("Updating AppSetting codes of {}: {}", key, configValues);
+
+        TelemetryStateStore.Snapshot snapshot = telemetryStateStore.put(key, configValues, expectedVersion);
+        settingResponseCache.invalidate(key);
+        return toVersionedSetting(key, snapshot);
+    }
+
+    /**
+     * Update several codes of the same vehicle and parent code at once.
+     * The codes are validated together and written under one version, so the scheduler cannot interleave with
+     * them; the write-behind flush persists them in one transaction with a single batched statement.
+     * If any code is not found or invalid, nothing is written.
+     *
+     * @param updateAppSettingRequests the codes to update, all of the same vehicle and parent code
+     * @return the settings right after the write and their version
+     * @throws BadRequestException       if the requests are empty, mix settings, repeat a code or disagree on the version.
+     * @throws ResourceNotFoundException if one of the codes is not found.
+     * @throws ConflictException         if one of the codes was written since the version of the requests.
+     */
+    public VersionedSetting updateAppSettings(List<UpdateAppSettingRequest> updateAppSettingRequests) {
+        if (updateAppSettingRequests == null || updateAppSettingRequests.isEmpty()) {
+            throw new BadRequestException("No setting to update");
+        }
+        SettingKey key = keyOf(updateAppSettingRequests.get(0));
+        Long expectedVersion = null;
+        Map<String, String> configValues = new LinkedHashMap<>();
+        for (UpdateAppSettingRequest request : updateAppSettingRequests) {
+            if (!key.equals(keyOf(request))) {
+                throw new BadRequestException(String.format("All settings must belong to %s, got %s", key, keyOf(request)));
+            }
+            if (configValues.containsKey(request.getCode())) {
+                throw new BadRequestException(String.format("%s is updated twice", request.getCode()));
+            }
+            configValues.put(request.getCode(), request.getConfigValue());
+            if (request.getVersion() != null) {
+                if (expectedVersion != null && !expectedVersion.equals(request.getVersion())) {
+                    throw new BadRequestException("All settings must be updated from the same version");
+                }
+                expectedVersion = request.getVersion();
+            }
+        }
+        return updateAppSettings(key, configValues, expectedVersion);
+    }
+
+    /**
+     * The vehicle and parent code an update request targets.
+     *
+     * @param updateAppSettingRequest the request
+     * @return the key of the settings
+     */
+    public SettingKey keyOf(UpdateAppSettingRequest updateAppSettingRequest) {
+        return SettingKey.of(SettingKey.vehicleOrDefault(updateAppSettingRequest.getVehicleId()), updateAppSettingRequest.getParentCode());
+    }
+
+    /**
+     * Provision the settings of vehicles which have none yet under a parent code, for example simulated vehicles.
+     * Vehicles which already have settings are left as they are.
+     *
+     * @param vehicleIds   the vehicles
+     * @param parentCode   the parent code of the settings
+     * @param configValues initial configuration values keyed by setting code
+     * @return the number of vehicles provisioned
+     */
+    public int provisionAppSettings(Collection<Long> vehicleIds, String parentCode, Map<String, String> configValues) {
+        int provisioned = appSettingRepository.insertMissingSettings(vehicleIds, parentCode, configValues);
+        telemetryStateStore.inserted(vehicleIds.stream().map(vehicleId -> SettingKey.of(vehicleId, parentCode)).toList());
+        LOGGER.info("Provisioned settings of {} out of {} vehicles", provisioned, vehicleIds.size());
+        return provisioned;
+    }
+
+    /**
+     * Apply a state transition to the settings of a parent code.
+     * The rule reads and writes the typed values in place; reading and writing happen atomically,
+     * so a concurrent update can neither be lost nor interleave with the transition.
+     * Values set back to what they were are not written.
+     *
+     * @param parentCode the parent code of the settings
+     * @param rule       reads the current values and sets the changed ones
+     * @return whether anything changed
+     * @throws ResourceNotFoundException if the parent code or one of the changed codes is not found.
+     */
+    public boolean transitionAppSettings(String parentCode, Consumer<TelemetryValues> rule) {
+        SettingKey key = SettingKey.of(parentCode);
+        boolean changed = telemetryStateStore.transition(key, rule);
+        if (changed) {
+            settingResponseCache.invalidate(key);
+        }
+        return changed;
+    }
+
     /**
      * Finds a list of AppSettingResponse objects based on the provided parent code.
-     * Maps the AppSetting entities to AppSettingResponse objects.
+     * Maps the AppSetting entities to AppSettingResponse objects, with the live values of the parent codes held in
+     * memory.
      *
      * @param parentCode the code of the parent setting used to filter the settings
      * @return an Optional containing the list of AppSettingResponse objects, or an empty Optional if no settings are found
@@ -144,8 +293,9 @@ public class AppSettingService extends BasicService {
         }
 
         // Use Stream API to map entities to DTOs and collect them into a list
+        Map<SettingKey, Optional<TelemetryStateStore.Snapshot>> snapshots = new HashMap<>();
         List<AppSettingResponse> responseList = list.stream()
-                                                    .map(appSettingMapper::mapToAppSettingResponse)
+                                                    .map(appSetting -> toLiveResponse(appSetting, snapshots))
                                                     .toList();
 
         // Wrap the mapped list in an Optional and return
@@ -154,12 +304,164 @@ public class AppSettingService extends BasicService {
 
     /**
      * Retrieves the SettingResponse object based on the given setting code.
+     * The assembled response is cached until the next write of the parent code; it must not be modified.
+     * Concurrent callers missing the cache wait for the first one and share its response.
      *
      * @param setting the parent code used to fetch the settings
      * @return an Optional containing the SettingResponse, or Optional.empty() if no settings are found
      */
     public Optional<SettingResponse> getSetting(String setting) {
-        // Fetch the list of AppSettingResponse objects and map them to SettingResponse
-        return findByParentCode(setting).map(appSettingMapper::getSettingResponse);
+        return getSetting(SettingKey.of(setting));
+    }
+
+    /**
+     * Retrieves the SettingResponse object of a parent code of a vehicle.
+     * The assembled response is cached until the next write of the parent code; it must not be modified.
+     *
+     * @param key the vehicle and parent code of the settings
+     * @return an Optional containing the SettingResponse, or Optional.empty() if no settings are found
+     */
+    public Optional<SettingResponse> getSetting(SettingKey key) {
+        return getVersionedSetting(key).map(VersionedSetting::getSettingResponse);
+    }
+
+    /**
+     * Retrieves the SettingResponse object of a parent code of a vehicle together with the version it was read at.
+     * Concurrent callers missing the cache wait for the first one and share its response, if it started reading at
+     * their version or a later one.
+     *
+     * @param key the vehicle and parent code of the settings
+     * @return an Optional containing the versioned settings, or Optional.empty() if no settings are found
+     */
+    public Optional<VersionedSetting> getVersionedSetting(SettingKey key) {
+        VersionedSetting cached = settingResponseCache.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // Concurrent misses of the same settings share one read of the live configuration values, unless it started
+        // before the version the caller sees, such as the one of its own write
+        return Optional.ofNullable(settingLoads.execute(key, telemetryStateStore.version(key), () -> {
+            VersionedSetting loaded = settingResponseCache.get(key);
+            return loaded != null ? loaded : toVersionedSetting(key, telemetryStateStore.snapshot(key));
+        }));
+    }
+
+    /**
+     * Retrieves the SettingResponse objects of a parent code of many vehicles.
+     * Cached responses are used as they are, the settings of vehicles not loaded yet are read with one query.
+     *
+     * @param vehicleIds the vehicles
+     * @param parentCode the parent code of the settings
+     * @return the SettingResponse objects keyed by vehicle id; vehicles without settings are left out
+     */
+    public Map<Long, SettingResponse> getSettings(Collection<Long> vehicleIds, String parentCode) {
+        Map<Long, SettingResponse> settings = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long vehicleId : vehicleIds) {
+            VersionedSetting cached = settingResponseCache.get(SettingKey.of(vehicleId, parentCode));
+            settings.put(vehicleId, cached != null ? cached.getSettingResponse() : null);
+            if (cached == null) {
+                misses.add(vehicleId);
+            }
+        }
+        if (!misses.isEmpty()) {
+            telemetryStateStore.snapshots(misses, parentCode)
+                               .forEach((vehicleId, snapshot) -> {
+                                   VersionedSetting loaded = toVersionedSetting(SettingKey.of(vehicleId, parentCode), snapshot);
+                                   settings.put(vehicleId, loaded != null ? loaded.getSettingResponse() : null);
+                               });
+        }
+        settings.values().removeIf(Objects::isNull);
+        return settings;
+    }
+
+    /**
+     * Retrieves the numeric values written to the settings of a parent code in the last minutes.
+     * Values come from an in-memory ring filled by every write, by the scheduler as well as by clients.
+     *
+     * @param setting       the parent code of the settings
+     * @param windowMinutes length of the window in minutes
+     * @return an Optional containing the recent values, or Optional.empty() if no settings are found
+     */
+    public Optional<RecentSettingResponse> getRecentSetting(String setting, int windowMinutes) {
+        return Optional.ofNullable(telemetryStateStore.recent(SettingKey.of(setting), windowMinutes));
+    }
+
+    /**
+     * Hit, miss and eviction counters of the SettingResponse cache.
+     *
+     * @return the cache statistics
+     */
+    public CacheStatsResponse getSettingCacheStats() {
+        CacheStatsResponse stats = settingResponseCache.getStats();
+        stats.setLoadCount(getSettingLoadCount());
+        stats.setCoalescedCount(getSettingCoalescedCount());
+        return stats;
+    }
+
+    /**
+     * Settings cache misses that assembled the response themselves.
+     */
+    public long getSettingLoadCount() {
+        return settingLoads.getLoadCount();
+    }
+
+    /**
+     * Settings cache misses that shared the response of a concurrent miss instead.
+     */
+    public long getSettingCoalescedCount() {
+        return settingLoads.getCoalescedCount();
+    }
+
+    /**
+     * Hit and miss counters of the Hibernate second-level cache of AppSetting entities, their natural ids and the
+     * cached queries, since startup.
+     *
+     * @return the cache statistics
+     */
+    public EntityCacheStatsResponse getEntityCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long misses = statistics.getSecondLevelCacheMissCount();
+        long queryHits = statistics.getQueryCacheHitCount();
+        long queryMisses = statistics.getQueryCacheMissCount();
+        return EntityCacheStatsResponse.builder()
+                                       .secondLevelCacheHitCount(hits)
+                                       .secondLevelCacheMissCount(misses)
+                                       .secondLevelCachePutCount(statistics.getSecondLevelCachePutCount())
+                                       .secondLevelCacheHitRate(hits + misses == 0 ? 0 : (double) hits / (hits + misses))
+                                       .naturalIdCacheHitCount(statistics.getNaturalIdCacheHitCount())
+                                       .naturalIdCacheMissCount(statistics.getNaturalIdCacheMissCount())
+                                       .queryCacheHitCount(queryHits)
+                                       .queryCacheMissCount(queryMisses)
+                                       .queryCacheHitRate(queryHits + queryMisses == 0 ? 0 : (double) queryHits / (queryHits + queryMisses))
+                                       .statisticsEnabled(statistics.isStatisticsEnabled())
+                                       .build();
+    }
+
+    /**
+     * Map an entity, replacing its value by the live one when its parent code is held in memory; the write-behind
+     * flush may not have persisted it yet.
+     *
+     * @param snapshots snapshots already taken, keyed by vehicle and parent code
+     */
+    private AppSettingResponse toLiveResponse(AppSetting appSetting, Map<SettingKey, Optional<TelemetryStateStore.Snapshot>> snapshots) {
+        AppSettingResponse appSettingResponse = appSettingMapper.mapToAppSettingResponse(appSetting);
+        SettingKey key = SettingKey.of(appSetting.getVehicleId(), appSetting.getParentCode());
+        snapshots.computeIfAbsent(key, k -> Optional.ofNullable(telemetryStateStore.loadedSnapshot(k)))
+                 .map(snapshot -> snapshot.getValues().get(appSetting.getCode()))
+                 .ifPresent(appSettingResponse::setConfigValue);
+        return appSettingResponse;
+    }
+
+    private VersionedSetting toVersionedSetting(SettingKey key, TelemetryStateStore.Snapshot snapshot) {
+        SettingResponse settingResponse = appSettingMapper.getSettingResponse(snapshot.getValues());
+        if (settingResponse == null) {
+            return null;
+        }
+        VersionedSetting setting = new VersionedSetting(snapshot.getVersion(), settingResponse);
+        settingResponseCache.put(key, setting, () -> telemetryStateStore.version(key) == snapshot.getVersion());
+        return setting;
     }
 }
@@ -1,5 +1,6 @@
 package com.spring.vehicle.service;
 
+import com.spring.vehicle.repository.IdAllocator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -8,11 +9,19 @@ import org.springframework.data.domain.Sort.Direction;
 
 import java.util.List;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * @author Tom
  */
 public class BasicService {
 
+    private final IdAllocator idAllocator;
+
+    public BasicService(IdAllocator idAllocator) {
+        this.idAllocator = requireNonNull(idAllocator);
+    }
+
     public static <T> Page<T> createPage(List<T> content, Page<?> p) {
         return new PageImpl<>(content, p.getPageable(), p.getTotalElements());
     }
@@ -25,4 +34,14 @@ public class BasicService {
     public PageRequest buildPageRequestNoId(int pageNumber, int pagzSize, Sort sort) {
         return PageRequest.of(pageNumber - 1, pagzSize, sort);
     }
+
+    /**
+     * Next primary key of a table, taken from a block reserved by the {@link IdAllocator}.
+     *
+     * @param table the table name
+     * @return a new id
+     */
+    public long nextId(String table) {
+        return idAllocator.nextId(table);
+    }
 }
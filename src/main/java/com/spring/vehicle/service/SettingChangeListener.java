@@ -0,0 +1,23 @@
+package com.spring.vehicle.service;
+
+import com.spring.vehicle.model.SettingKey;
+
+import java.util.Map;
+
+/**
+ * Callback for writes to the live settings held by {@link TelemetryStateStore}.
+ * Listeners are called synchronously, in version order, while the written group is locked; they must be quick
+ * and hand any I/O off to another thread. The changes map must not be retained.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+public interface SettingChangeListener {
+
+    /**
+     * @param key     the vehicle and parent code of the settings
+     * @param changes the written configuration values keyed by setting code, a null value for a removed code
+     * @param version the version of the parent code after the write
+     */
+    void onSettingChange(SettingKey key, Map<String, String> changes, long version);
+}
@@ -0,0 +1,78 @@
+package com.spring.vehicle.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.payload.CacheStatsResponse;
+import com.spring.vehicle.payload.setting.SettingResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Bounded cache of assembled {@link SettingResponse} objects keyed by vehicle and parent code, each kept with the
+ * version it was built from. Cached responses are shared between callers and must not be modified.
+ * Size, hits, misses and evictions are published as the {@code cache.*} meters of the {@value #NAME} cache.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Component
+public class SettingResponseCache implements MeterBinder {
+
+    private static final String NAME = "settings";
+
+    private final Cache<SettingKey, VersionedSetting> cache;
+
+    public SettingResponseCache(@Value("${app.cache.setting.maxSize:1000}") long maxSize) {
+        this.cache = CacheBuilder.newBuilder()
+                                 .maximumSize(maxSize)
+                                 .recordStats()
+                                 .build();
+    }
+
+    /**
+     * @return the cached response of a parent code, or null on a miss
+     */
+    public VersionedSetting get(SettingKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Cache a freshly assembled response, unless it went stale while it was being built.
+     * The check runs atomically with the insert, so a concurrent write followed by {@link #invalidate(SettingKey)}
+     * can never be overtaken by the older response.
+     *
+     * @param key          the vehicle and parent code of the settings
+     * @param setting      the assembled response and its version
+     * @param stillCurrent whether the values the response was built from are still current
+     */
+    public void put(SettingKey key, VersionedSetting setting, BooleanSupplier stillCurrent) {
+        cache.asMap().compute(key, (k, cached) -> stillCurrent.getAsBoolean() ? setting : cached);
+    }
+
+    public void invalidate(SettingKey key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, cache, NAME);
+    }
+
+    public CacheStatsResponse getStats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                                 .size(cache.size())
+                                 .hitCount(stats.hitCount())
+                                 .missCount(stats.missCount())
+                                 .evictionCount(stats.evictionCount())
+                                 .hitRate(stats.hitRate())
+                                 .build();
+    }
+}
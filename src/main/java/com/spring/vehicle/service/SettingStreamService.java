@@ -0,0 +1,441 @@
+package com.spring.vehicle.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.payload.setting.SettingChangeEvent;
+import com.spring.vehicle.payload.setting.SettingSnapshotEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Server-Sent Events fan-out of setting writes, one channel per vehicle and parent code.
+ * A write of settings nobody streams returns at once. Otherwise the change is handed to a single dispatcher thread
+ * which serializes it once into a ready-to-send frame and queues the same frame for every subscriber of the channel.
+ * <p>
+ * The dispatcher never writes to a connection itself: each subscriber has a bounded outbox, written by a virtual
+ * thread of its own, so a slow or stalled client only delays itself. A subscriber whose outbox is full is closed and
+ * reconnects where it left off. The dispatcher queue is bounded too; when it is full the change is not queued, and
+ * the subscribers of its channel are closed instead of missing it.
+ * <p>
+ * The id of an event is the version of the settings, so a snapshot and the changes following it are ordered by the
+ * version alone: a new stream starts with a snapshot, sent by the dispatcher like any change, and only changes of a
+ * higher version follow it. The last frames of a channel are kept, also for a while after its last subscriber left,
+ * so that a client reconnecting with a {@code Last-Event-ID} header only receives what it missed; a client too far
+ * behind gets a fresh snapshot.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Service
+public class SettingStreamService implements SettingChangeListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SettingStreamService.class);
+
+    public static final String EVENT_CHANGE = "setting";
+    public static final String EVENT_SNAPSHOT = "snapshot";
+
+    private final ObjectMapper objectMapper;
+    private final long timeout;
+    private final int replaySize;
+    private final long retention;
+    private final int outboxSize;
+
+    private final Map<SettingKey, Channel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("setting-stream-send-", 0).factory());
+    private final Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+    private final LongAdder droppedCount = new LongAdder();
+
+    public SettingStreamService(ObjectMapper objectMapper,
+                                @Value("${app.sse.timeout:1800000}") long timeout,
+                                @Value("${app.sse.replay-size:256}") int replaySize,
+                                @Value("${app.sse.retention:60000}") long retention,
+                                @Value("${app.sse.outbox-size:512}") int outboxSize,
+                                @Value("${app.sse.dispatch-queue-size:10000}") int dispatchQueueSize) {
+        if (outboxSize <= replaySize) {
+            throw new IllegalArgumentException("app.sse.outbox-size must exceed app.sse.replay-size, a snapshot and a whole replay have to fit");
+        }
+        this.objectMapper = requireNonNull(objectMapper);
+        this.timeout = timeout;
+        this.replaySize = replaySize;
+        this.retention = retention;
+        this.outboxSize = outboxSize;
+        this.dispatcher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(dispatchQueueSize), r -> {
+            Thread thread = new Thread(r, "setting-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Open a stream of the settings of a vehicle and parent code for a new subscriber.
+     * Without a usable {@code Last-Event-ID} the stream starts with a snapshot of the current settings.
+     *
+     * @param key         the vehicle and parent code of the settings
+     * @param lastEventId the last event id the client has seen, null on first connect
+     * @param snapshot    supplier of the current settings and their version
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(SettingKey key, Long lastEventId, Supplier<VersionedSetting> snapshot) {
+        Channel channel = join(key);
+        Subscriber subscriber = new Subscriber(newEmitter(), outboxSize);
+        subscriber.leave = () -> {
+            if (subscriber.open.compareAndSet(true, false)) {
+                channel.subscribers.remove(subscriber);
+                leave(channel);
+            }
+        };
+        subscriber.emitter.onCompletion(subscriber.leave);
+        subscriber.emitter.onTimeout(subscriber.leave);
+        subscriber.emitter.onError(e -> subscriber.leave.run());
+
+        // Read once the channel exists: every write the snapshot misses is dispatched to the channel after it
+        VersionedSetting current;
+        try {
+            current = snapshot.get();
+        } catch (RuntimeException e) {
+            subscriber.leave.run();
+            throw e;
+        }
+        dispatch(subscriber, () -> start(channel, subscriber, lastEventId, current, snapshot));
+        return subscriber.emitter;
+    }
+
+    /**
+     * Queue the change for the subscribers of its settings, if there are any.
+     * Runs under the lock of the state store, so it never blocks: if the dispatcher queue is full the change is
+     * dropped, together with the channel, whose subscribers are closed and start again from a snapshot.
+     */
+    @Override
+    public void onSettingChange(SettingKey key, Map<String, String> changes, long version) {
+        Channel channel = channels.get(key);
+        if (channel == null) {
+            return; // nobody streams these settings
+        }
+        Map<String, String> copy = new HashMap<>(changes);
+        try {
+            dispatcher.execute(() -> publish(channel, copy, version));
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Setting stream dispatcher is full, closing the streams of {}", key);
+            channel.lost = true;
+            channels.remove(key, channel);
+            channel.subscribers.forEach(this::close);
+        }
+    }
+
+    /**
+     * Keep idle connections open through proxies, and drop the replay buffers nobody came back for.
+     */
+    @Scheduled(fixedRateString = "${app.sse.heartbeat:15000}")
+    public void sendHeartbeat() {
+        long now = System.currentTimeMillis();
+        for (Channel channel : channels.values()) {
+            channels.computeIfPresent(channel.key, (k, c) -> c.joined == 0 && now - c.leftAt > retention ? null : c);
+            channel.subscribers.forEach(subscriber -> enqueue(subscriber, heartbeat));
+        }
+    }
+
+    public int getSubscriberCount() {
+        return channels.values().stream().mapToInt(channel -> channel.joined).sum();
+    }
+
+    public int getChannelCount() {
+        return channels.size();
+    }
+
+    /**
+     * Subscribers closed because their outbox was full or their change could not be dispatched.
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeout);
+    }
+
+    private Channel join(SettingKey key) {
+        return channels.compute(key, (k, channel) -> {
+            Channel joined = channel != null ? channel : new Channel(k);
+            joined.joined++;
+            return joined;
+        });
+    }
+
+    private void leave(Channel channel) {
+        channels.computeIfPresent(channel.key, (k, c) -> {
+            if (c == channel) {
+                c.joined--;
+                c.leftAt = System.currentTimeMillis();
+            }
+            return c;
+        });
+    }
+
+    /**
+     * Queue for a new subscriber what it missed, or a snapshot followed by the changes dispatched since it was read.
+     * Runs on the dispatcher, so no change of the channel can be queued in between.
+     */
+    private void start(Channel channel, Subscriber subscriber, Long lastEventId, VersionedSetting current,
+                       Supplier<VersionedSetting> snapshot) {
+        if (!subscriber.open.get()) {
+            return;
+        }
+        if (channel.lost) {
+            close(subscriber);
+            return;
+        }
+        if (lastEventId != null && lastEventId >= channel.replayFrom) {
+            subscriber.after = lastEventId;
+        } else if (current != null && current.getVersion() < channel.replayFrom && channel.replayFrom != Long.MAX_VALUE) {
+            // changes made since the first read already left the replay buffer: read again, off the dispatcher
+            senders.execute(() -> {
+                VersionedSetting again;
+                try {
+                    again = snapshot.get();
+                } catch (RuntimeException e) {
+                    subscriber.leave.run();
+                    subscriber.emitter.completeWithError(e);
+                    return;
+                }
+                dispatch(subscriber, () -> start(channel, subscriber, lastEventId, again, snapshot));
+            });
+            return;
+        } else if (current == null) {
+            addSubscriber(channel, subscriber);
+            return;
+        } else {
+            subscriber.after = current.getVersion();
+            if (channel.replayFrom == Long.MAX_VALUE) {
+                channel.replayFrom = current.getVersion(); // every later change is dispatched to the channel
+            }
+            enqueue(subscriber, SseEmitter.event()
+                                          .id(String.valueOf(current.getVersion()))
+                                          .name(EVENT_SNAPSHOT)
+                                          .data(SettingSnapshotEvent.builder()
+                                                                    .vehicleId(channel.key.getVehicleId())
+                                                                    .parentCode(channel.key.getParentCode())
+                                                                    .version(current.getVersion())
+                                                                    .settings(current.getSettingResponse())
+                                                                    .build())
+                                          .build());
+        }
+        for (Frame frame : channel.replay) {
+            if (frame.version > subscriber.after) {
+                enqueue(subscriber, frame.data);
+                subscriber.after = frame.version;
+            }
+        }
+        addSubscriber(channel, subscriber);
+    }
+
+    private void addSubscriber(Channel channel, Subscriber subscriber) {
+        channel.subscribers.add(subscriber);
+        if (channel.lost) {
+            close(subscriber); // the channel was dropped meanwhile, and may not have seen this subscriber
+        }
+    }
+
+    private void publish(Channel channel, Map<String, String> changes, long version) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(SettingChangeEvent.builder()
+                                                                     .vehicleId(channel.key.getVehicleId())
+                                                                     .parentCode(channel.key.getParentCode())
+                                                                     .version(version)
+                                                                     .changes(changes)
+                                                                     .build());
+        } catch (JsonProcessingException e) {
+            LOGGER.error("Serializing the change of {} at version {} failed", channel.key, version, e);
+            return;
+        }
+        Frame frame = new Frame(version, SseEmitter.event().id(String.valueOf(version)).name(EVENT_CHANGE).data(json).build());
+        if (channel.replay.isEmpty() && channel.replayFrom == Long.MAX_VALUE) {
+            channel.replayFrom = version; // changes before the first one were not dispatched to the channel
+        }
+        channel.replay.addLast(frame);
+        if (channel.replay.size() > replaySize) {
+            channel.replayFrom = Math.max(channel.replayFrom, channel.replay.removeFirst().version);
+        }
+        for (Subscriber subscriber : channel.subscribers) {
+            if (version <= subscriber.after) {
+                continue; // already covered by its snapshot
+            }
+            enqueue(subscriber, frame.data);
+            subscriber.after = version;
+        }
+    }
+
+    /**
+     * Run a task on the dispatcher, or close the subscriber it is for if the dispatcher is full.
+     */
+    private void dispatch(Subscriber subscriber, Runnable task) {
+        try {
+            dispatcher.execute(task);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Setting stream dispatcher is full, closing a new stream");
+            close(subscriber);
+        }
+    }
+
+    /**
+     * Queue an event for a subscriber, closing it if its outbox is full: it is too far behind to be kept waiting.
+     */
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> data) {
+        if (!subscriber.open.get()) {
+            return;
+        }
+        if (!subscriber.outbox.offer(data)) {
+            LOGGER.debug("Dropping a setting stream subscriber with {} events pending", subscriber.outbox.size());
+            close(subscriber);
+            return;
+        }
+        drain(subscriber);
+    }
+
+    /**
+     * Stop queuing events for a subscriber and complete its stream once the events being written are out.
+     */
+    private void close(Subscriber subscriber) {
+        if (subscriber.open.get()) {
+            droppedCount.increment();
+        }
+        subscriber.leave.run();
+        subscriber.closing = true;
+        drain(subscriber);
+    }
+
+    /**
+     * Start the sender of a subscriber unless it is running, which writes its outbox out.
+     */
+    private void drain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> send(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false); // shut down
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        do {
+            for (Set<DataWithMediaType> data; subscriber.open.get() && (data = subscriber.outbox.poll()) != null; ) {
+                try {
+                    subscriber.emitter.send(data);
+                } catch (IOException | IllegalStateException e) {
+                    LOGGER.debug("Dropping setting stream subscriber: {}", e.getMessage());
+                    subscriber.leave.run();
+                    subscriber.emitter.completeWithError(e);
+                }
+            }
+            if (!subscriber.open.get()) {
+                subscriber.outbox.clear();
+                if (subscriber.closing) {
+                    subscriber.closing = false;
+                    subscriber.emitter.complete();
+                }
+            }
+            subscriber.draining.set(false);
+            // an event queued or a close requested after the last poll found the sender still running
+        } while ((subscriber.closing || subscriber.open.get() && !subscriber.outbox.isEmpty())
+                 && subscriber.draining.compareAndSet(false, true));
+    }
+
+    /**
+     * Subscribers and recent frames of the settings of one vehicle and parent code.
+     * The subscriber count is only changed inside the compute functions of the channel map; the frames are only
+     * touched by the dispatcher.
+     */
+    private static final class Channel {
+
+        private final SettingKey key;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private volatile int joined;
+        private long leftAt;
+
+        /**
+         * Set once a change of the channel could not be dispatched; the channel is no longer in the map
+         */
+        private volatile boolean lost;
+
+        private final ArrayDeque<Frame> replay = new ArrayDeque<>();
+
+        /**
+         * Lowest version a reconnecting client may have seen and still be sent every change after it
+         */
+        private long replayFrom = Long.MAX_VALUE;
+
+        private Channel(SettingKey key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * An open stream, its outbox and the version of the last change queued for it, which is owned by the dispatcher.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> outbox;
+        private final AtomicBoolean open = new AtomicBoolean(true);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closing;
+        private Runnable leave;
+        private long after = -1;
+
+        private Subscriber(SseEmitter emitter, int outboxSize) {
+            this.emitter = emitter;
+            this.outbox = new ArrayBlockingQueue<>(outboxSize);
+        }
+    }
+
+    /**
+     * A serialized change, ready to be written to any subscriber.
+     */
+    private static final class Frame {
+
+        private final long version;
+        private final Set<DataWithMediaType> data;
+
+        private Frame(long version, Set<DataWithMediaType> data) {
+            this.version = version;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.spring.vehicle.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the load, callers arriving while it is in
+ * flight wait for it and share its result or its exception. Nothing is kept once the load is done, the next caller
+ * loads again.
+ * <p>
+ * A caller may name the version of the data it has to see, typically one it has just written; it only joins a load
+ * started once that version was current, and otherwise starts a new load which later callers join instead.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the loaded values, null is allowed
+ * @author : Tom
+ * @since : 1.0.0
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    /**
+     * Run the load of a key, or join the one already in flight.
+     *
+     * @param key    the key
+     * @param loader the load, run by the caller's thread
+     * @return the loaded value
+     */
+    V execute(K key, Supplier<V> loader) {
+        return execute(key, Long.MIN_VALUE, loader);
+    }
+
+    /**
+     * Run the load of a key, or join the one in flight if it started at the version or a later one.
+     *
+     * @param key     the key
+     * @param version the version current when the caller arrived, the load must not read anything older
+     * @param loader  the load, run by the caller's thread
+     * @return the loaded value
+     */
+    V execute(K key, long version, Supplier<V> loader) {
+        Flight<V> flight = new Flight<>(version);
+        Flight<V> running = inFlight.compute(key, (k, current) -> current != null && current.version >= version ? current : flight);
+        if (running != flight) {
+            coalescedCount.increment();
+            return join(running.result);
+        }
+
+        loadCount.increment();
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        // callers arriving from now on start a new load and see every write made after this one read
+        inFlight.remove(key, flight);
+        flight.result.complete(value);
+        return value;
+    }
+
+    /**
+     * Loads actually run
+     */
+    long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    /**
+     * Callers which shared the result of a load run by another caller
+     */
+    long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * Number of keys with a load in flight
+     */
+    int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V join(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A load in flight and the version current when it started.
+     */
+    private static final class Flight<V> {
+
+        private final long version;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+
+        private Flight(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.spring.vehicle.service;
+
+import com.spring.vehicle.config.SchedulingConfig;
+import com.spring.vehicle.exception.BadRequestException;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.model.TelemetryCode;
+import com.spring.vehicle.model.TelemetryResolution;
+import com.spring.vehicle.model.TelemetryRollup;
+import com.spring.vehicle.model.TelemetrySample;
+import com.spring.vehicle.payload.history.TelemetryHistoryResponse;
+import com.spring.vehicle.payload.history.TelemetryPoint;
+import com.spring.vehicle.repository.TelemetryHistoryRepository;
+import com.spring.vehicle.utils.NumberParser;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Append-only history of the numeric telemetry values.
+ * Every write of the state store, by the scheduler or by a client, is queued as a sample without touching the
+ * database; a background flush inserts the queued samples in one batch and merges them into the 1 minute, 1 hour and
+ * 1 day rollups in the same transaction. When the database falls behind the queue is bounded and samples are dropped.
+ * History queries are answered from the coarsest rollup which still splits the range into enough points.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Service
+public class TelemetryHistoryService implements SettingChangeListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TelemetryHistoryService.class);
+
+    private final TelemetryHistoryRepository telemetryHistoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int minPoints;
+
+    private final BlockingQueue<TelemetrySample> queue;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public TelemetryHistoryService(TelemetryHistoryRepository telemetryHistoryRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.telemetry.history.queue-capacity:65536}") int queueCapacity,
+                                   @Value("${app.telemetry.history.batch-size:5000}") int batchSize,
+                                   @Value("${app.telemetry.history.min-points:60}") int minPoints) {
+        this.telemetryHistoryRepository = requireNonNull(telemetryHistoryRepository);
+        this.transactionTemplate = new TransactionTemplate(requireNonNull(transactionManager));
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.minPoints = minPoints;
+    }
+
+    /**
+     * Queue a sample per changed numeric code; runs under the lock of the state store, so it never blocks.
+     */
+    @Override
+    public void onSettingChange(SettingKey key, Map<String, String> changes, long version) {
+        long now = System.currentTimeMillis();
+        changes.forEach((code, configValue) -> {
+            TelemetryCode telemetryCode = TelemetryCode.of(code);
+            if (telemetryCode == null || !telemetryCode.isNumeric() || configValue == null) {
+                return;
+            }
+            long value = NumberParser.parseLong(configValue, Long.MIN_VALUE);
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                return; // a stored value which never was numeric
+            }
+            if (!queue.offer(new TelemetrySample(key.getVehicleId(), key.getParentCode(), code, now, version, (int) value))) {
+                droppedCount.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Insert the queued samples and merge them into the rollups, one transaction per batch.
+     * A failed batch is dropped and counted, the history is best effort.
+     */
+    @Scheduled(fixedDelayString = "${app.telemetry.history.flush-interval:1000}", scheduler = SchedulingConfig.PERSISTENCE_SCHEDULER)
+    public void flush() {
+        List<TelemetrySample> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+        while (queue.drainTo(batch, batchSize) > 0) {
+            Map<RollupKey, TelemetryRollup> rollups = rollup(batch);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    telemetryHistoryRepository.insertSamples(batch);
+                    telemetryHistoryRepository.mergeRollups(rollups.values());
+                });
+            } catch (RuntimeException e) {
+                droppedCount.addAndGet(batch.size());
+                LOGGER.error("Writing {} telemetry history samples failed, dropping them", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * History of a numeric code over a range, from the raw samples or the coarsest rollup with enough points.
+     *
+     * @param key  the vehicle and parent code of the setting
+     * @param code the setting code
+     * @param from epoch milliseconds, inclusive
+     * @param to   epoch milliseconds, exclusive
+     * @return the points of the range, oldest first
+     * @throws BadRequestException if the code is not numeric or the range is empty
+     */
+    public TelemetryHistoryResponse getHistory(SettingKey key, String code, long from, long to) {
+        TelemetryCode telemetryCode = TelemetryCode.of(code);
+        if (telemetryCode == null || !telemetryCode.isNumeric()) {
+            throw new BadRequestException(String.format("%s has no numeric history", code));
+        }
+        if (to <= from) {
+            throw new BadRequestException("History range must end after it starts");
+        }
+
+        TelemetryResolution resolution = TelemetryResolution.forRange(to - from, minPoints);
+        List<TelemetryPoint> points = resolution == TelemetryResolution.RAW
+                ? telemetryHistoryRepository.findSamples(key, code, from, to)
+                : telemetryHistoryRepository.findRollups(key, code, resolution, resolution.bucketStart(from), to);
+        return TelemetryHistoryResponse.builder()
+                                       .vehicleId(key.getVehicleId())
+                                       .parentCode(key.getParentCode())
+                                       .code(code)
+                                       .resolution(resolution.getLabel())
+                                       .from(from)
+                                       .to(to)
+                                       .points(points)
+                                       .build();
+    }
+
+    /**
+     * Samples dropped because the queue was full or their batch failed.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private static Map<RollupKey, TelemetryRollup> rollup(List<TelemetrySample> samples) {
+        Map<RollupKey, TelemetryRollup> rollups = new HashMap<>();
+        for (TelemetrySample sample : samples) {
+            for (TelemetryResolution resolution : TelemetryResolution.ROLLUPS) {
+                long bucketStart = resolution.bucketStart(sample.getSampleTime());
+                rollups.computeIfAbsent(new RollupKey(sample.getVehicleId(), sample.getParentCode(), sample.getCode(), resolution, bucketStart),
+                                        key -> new TelemetryRollup(key.vehicleId, key.parentCode, key.code, key.resolution, key.bucketStart))
+                       .add(sample.getSampleTime(), sample.getValue());
+            }
+        }
+        return rollups;
+    }
+
+    @lombok.Value
+    private static class RollupKey {
+
+        long vehicleId;
+        String parentCode;
+        String code;
+        TelemetryResolution resolution;
+        long bucketStart;
+    }
+}
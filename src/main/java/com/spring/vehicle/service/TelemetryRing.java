@@ -0,0 +1,148 @@
+package com.spring.vehicle.service;
+
+import com.spring.vehicle.model.TelemetryCode;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Fixed-size ring of the recent numeric telemetry values of one parent code.
+ * Each slot holds the time of a write and the values of every numeric code after it, in flat primitive arrays,
+ * so appending allocates nothing.
+ * <p>
+ * There is a single writer, the holder of the state store lock of the parent code, and any number of lock-free
+ * readers. The writer fills a slot and then publishes it by advancing the volatile cursor. A reader copies the
+ * published slots and re-reads the cursor afterwards; slots the writer may have overwritten meanwhile are discarded.
+ * The ring holds one slot more than its capacity, the one the writer fills next, so a reader racing no write gets
+ * the full capacity.
+ * As in {@link java.util.concurrent.locks.StampedLock#validate(long)}, fences keep the plain stores of the writer
+ * after the previous publication, and the plain loads of the reader before the re-read of the cursor.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+final class TelemetryRing {
+
+    private static final TelemetryCode[] CODES = TelemetryCode.values();
+    private static final int WIDTH = CODES.length;
+
+    private final int capacity;
+    private final int slots;
+    private final long[] times;
+    private final int[] values;
+
+    /**
+     * Bit set of the codes the parent code has, as of the last write
+     */
+    private long codes;
+
+    /**
+     * Number of slots ever written; slot {@code seq} lives at index {@code seq % slots}
+     */
+    private volatile long cursor;
+
+    TelemetryRing(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Ring capacity must be positive");
+        this.capacity = capacity;
+        this.slots = capacity + 1;
+        this.times = new long[slots];
+        this.values = new int[slots * WIDTH];
+    }
+
+    /**
+     * Append the values after a write; only called by the single writer.
+     *
+     * @param time    epoch milliseconds of the write
+     * @param numbers values indexed by {@link TelemetryCode#ordinal()}
+     * @param present bit set of the codes the parent code has
+     */
+    void append(long time, int[] numbers, long present) {
+        long seq = cursor;
+        int slot = (int) (seq % slots);
+        // the slot is not overwritten before the cursor that excludes it from readers is visible
+        VarHandle.storeStoreFence();
+        times[slot] = time;
+        System.arraycopy(numbers, 0, values, slot * WIDTH, WIDTH);
+        codes = present;
+        cursor = seq + 1;
+    }
+
+    /**
+     * Copy the values written at or after a time, oldest first; at most the capacity of the latest ones.
+     *
+     * @param from epoch milliseconds
+     * @return the recent values
+     */
+    Recent read(long from) {
+        long end = cursor;
+        long present = codes;
+        long start = Math.max(0, end - capacity);
+        int size = (int) (end - start);
+        long[] copiedTimes = new long[size];
+        int[] copiedValues = new int[size * WIDTH];
+        for (int i = 0; i < size; i++) {
+            int slot = (int) ((start + i) % slots);
+            copiedTimes[i] = times[slot];
+            System.arraycopy(values, slot * WIDTH, copiedValues, i * WIDTH, WIDTH);
+        }
+
+        // the writer may have overwritten the oldest slots while they were copied, including the one it is filling;
+        // the copies are not reordered after the re-read of the cursor that validates them
+        VarHandle.acquireFence();
+        long firstValid = Math.max(start, cursor - slots + 1);
+        int first = (int) Math.min(firstValid - start, size);
+        while (first < size && copiedTimes[first] < from) {
+            first++;
+        }
+        return new Recent(copiedTimes, copiedValues, first, size, present);
+    }
+
+    /**
+     * Values copied out of the ring; rows {@code first} until {@code end} are valid.
+     */
+    static final class Recent {
+
+        /**
+         * Nothing written yet
+         */
+        static final Recent EMPTY = new Recent(new long[0], new int[0], 0, 0, 0);
+
+        private final long[] times;
+        private final int[] values;
+        private final int first;
+        private final int end;
+        private final long codes;
+
+        private Recent(long[] times, int[] values, int first, int end, long codes) {
+            this.times = times;
+            this.values = values;
+            this.first = first;
+            this.end = end;
+            this.codes = codes;
+        }
+
+        int size() {
+            return end - first;
+        }
+
+        boolean has(TelemetryCode code) {
+            return (codes & (1L << code.ordinal())) != 0;
+        }
+
+        long[] times() {
+            long[] result = new long[size()];
+            System.arraycopy(times, first, result, 0, result.length);
+            return result;
+        }
+
+        /**
+         * @return the values of one code, aligned with {@link #times()}
+         */
+        int[] values(TelemetryCode code) {
+            int[] result = new int[size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = values[(first + i) * WIDTH + code.ordinal()];
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,863 @@
+package com.spring.vehicle.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.spring.vehicle.config.SchedulingConfig;
+import com.spring.vehicle.config.SqlBudgetGuard;
+import com.spring.vehicle.exception.ConflictException;
+import com.spring.vehicle.exception.ResourceNotFoundException;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.model.TelemetryCode;
+import com.spring.vehicle.payload.setting.RecentSettingResponse;
+import com.spring.vehicle.payload.setting.SettingValue;
+import com.spring.vehicle.payload.setting.VehicleSettingValue;
+import com.spring.vehicle.repository.AppSettingRepository;
+import com.spring.vehicle.utils.NumberParser;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * In-memory, authoritative state of the live telemetry settings, grouped by vehicle and parent code.
+ * A group is loaded from {@code app_setting} on first access, concurrent first accesses share one query; afterwards
+ * reads and writes are served from memory, with a constant-time hash lookup of the group however many vehicles are
+ * loaded. A parent code found without settings is remembered for {@code app.telemetry.missing-ttl}, so reads of
+ * unknown vehicles do not query again until then or until settings are inserted for it.
+ * Codes registered as numeric in {@link TelemetryCode} are held as primitives and only formatted when they leave
+ * the store; every other code is held as its string value.
+ * Written codes are marked dirty and persisted by a write-behind flush on a fixed interval, repeated writes of the
+ * same code in between are coalesced into one. Pending writes are flushed once more on shutdown.
+ * Every write increases the version of the parent code and stamps the written codes with it, so a conditional write
+ * only conflicts with writes of the same codes, not with the scheduler writing other codes of the parent code.
+ * Every write is also appended to a {@link TelemetryRing} of the parent code, which serves recent values without
+ * locking or database access; the ring is only allocated by the first write, groups which are only read have none.
+ * Groups idle for longer than {@code app.telemetry.idle-timeout}, or the least recently used ones beyond
+ * {@code app.telemetry.max-groups}, are evicted once they have no pending write and are loaded again on next access.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@Component
+public class TelemetryStateStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TelemetryStateStore.class);
+
+    private static final Snapshot EMPTY = new Snapshot(-1, Collections.emptyMap());
+    private static final TelemetryCode[] CODES = TelemetryCode.values();
+
+    /**
+     * Vehicles loaded per statement by {@link #snapshots(Collection, String)}
+     */
+    private static final int LOAD_CHUNK = 500;
+
+    /**
+     * SQL statements of the flush of one group: the batched update and the select of the ids evicted from the entity
+     * cache, unless the query cache serves it
+     */
+    private static final int FLUSH_SQL_BUDGET = 2;
+
+    private final AppSettingRepository appSettingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SqlBudgetGuard sqlBudgetGuard;
+    private final List<SettingChangeListener> listeners;
+    private final int recentCapacity;
+    private final long idleTimeout;
+    private final int maxGroups;
+
+    private final ConcurrentHashMap<SettingKey, SettingGroup> groups = new ConcurrentHashMap<>();
+    private final SingleFlight<SettingKey, SettingGroup> loads = new SingleFlight<>();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Parent codes found without settings, and the number of times settings were inserted since startup; a load
+     * only remembers a miss if no insert happened while it ran
+     */
+    private final Cache<SettingKey, Boolean> missing;
+    private final AtomicLong inserts = new AtomicLong();
+
+    public TelemetryStateStore(AppSettingRepository appSettingRepository, PlatformTransactionManager transactionManager,
+                               SqlBudgetGuard sqlBudgetGuard, List<SettingChangeListener> listeners,
+                               @Value("${app.telemetry.recent.capacity:360}") int recentCapacity,
+                               @Value("${app.telemetry.idle-timeout:1800000}") long idleTimeout,
+                               @Value("${app.telemetry.max-groups:100000}") int maxGroups,
+                               @Value("${app.telemetry.missing-ttl:60000}") long missingTtl) {
+        this.appSettingRepository = requireNonNull(appSettingRepository);
+        this.transactionTemplate = new TransactionTemplate(requireNonNull(transactionManager));
+        this.sqlBudgetGuard = requireNonNull(sqlBudgetGuard);
+        this.listeners = List.copyOf(listeners);
+        this.recentCapacity = recentCapacity;
+        this.idleTimeout = idleTimeout;
+        this.maxGroups = maxGroups;
+        this.missing = CacheBuilder.newBuilder()
+                                   .maximumSize(maxGroups)
+                                   .expireAfterWrite(missingTtl, TimeUnit.MILLISECONDS)
+                                   .build();
+    }
+
+    /**
+     * Snapshot of the configuration values of a parent code, keyed by setting code.
+     *
+     * @param key the vehicle and parent code of the settings
+     * @return the configuration values, empty if the parent code has no settings
+     */
+    public Map<String, String> get(SettingKey key) {
+        return snapshot(key).getValues();
+    }
+
+    /**
+     * Snapshot of the configuration values of a parent code together with the version they were read at.
+     *
+     * @param key the vehicle and parent code of the settings
+     * @return the snapshot, with empty values and version -1 if the parent code has no settings
+     */
+    public Snapshot snapshot(SettingKey key) {
+        SettingGroup group = group(key);
+        return group == null ? EMPTY : group.snapshot();
+    }
+
+    /**
+     * Snapshot of a parent code if it is held in memory, never read from the database.
+     *
+     * @param key the vehicle and parent code of the settings
+     * @return the snapshot, or null if the parent code is not loaded
+     */
+    public Snapshot loadedSnapshot(SettingKey key) {
+        SettingGroup group = groups.get(key);
+        return group == null ? null : group.snapshot();
+    }
+
+    /**
+     * Snapshots of a parent code of many vehicles. Vehicles which are not loaded yet are loaded together, with one
+     * statement per {@value #LOAD_CHUNK} vehicles.
+     *
+     * @param vehicleIds the vehicles
+     * @param parentCode the parent code of the settings
+     * @return the snapshots keyed by vehicle id, in the order of the ids; vehicles without settings are left out
+     */
+    public Map<Long, Snapshot> snapshots(Collection<Long> vehicleIds, String parentCode) {
+        List<Long> unloaded = vehicleIds.stream()
+                                        .filter(vehicleId -> {
+                                            SettingKey key = SettingKey.of(vehicleId, parentCode);
+                                            return !groups.containsKey(key) && missing.getIfPresent(key) == null;
+                                        })
+                                        .distinct()
+                                        .toList();
+        for (int from = 0; from < unloaded.size(); from += LOAD_CHUNK) {
+            load(unloaded.subList(from, Math.min(from + LOAD_CHUNK, unloaded.size())), parentCode);
+        }
+
+        Map<Long, Snapshot> snapshots = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        for (Long vehicleId : vehicleIds) {
+            SettingGroup group = groups.get(SettingKey.of(vehicleId, parentCode));
+            if (group != null) {
+                group.touch(now);
+                snapshots.put(vehicleId, group.snapshot());
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Numeric values written in a recent window, read without locking and, once the parent code is loaded,
+     * without database access.
+     *
+     * @param key           the vehicle and parent code of the settings
+     * @param windowMinutes length of the window in minutes
+     * @return the values, or null if the parent code has no settings
+     */
+    public RecentSettingResponse recent(SettingKey key, int windowMinutes) {
+        SettingGroup group = group(key);
+        if (group == null) {
+            return null;
+        }
+        TelemetryRing ring = group.recent;
+        TelemetryRing.Recent recent = ring == null ? TelemetryRing.Recent.EMPTY : ring.read(System.currentTimeMillis() - windowMinutes * 60_000L);
+        Map<String, int[]> values = new LinkedHashMap<>();
+        for (TelemetryCode telemetryCode : CODES) {
+            if (telemetryCode.isNumeric() && recent.has(telemetryCode)) {
+                values.put(telemetryCode.getCode(), recent.values(telemetryCode));
+            }
+        }
+        return RecentSettingResponse.builder()
+                                    .vehicleId(key.getVehicleId())
+                                    .parentCode(key.getParentCode())
+                                    .window(windowMinutes)
+                                    .times(recent.times())
+                                    .values(values)
+                                    .build();
+    }
+
+    /**
+     * Current version of a parent code, increased by every write; -1 if the parent code is not loaded.
+     * Versions start from the load time in microseconds, so they keep increasing across restarts.
+     */
+    public long version(SettingKey key) {
+        SettingGroup group = groups.get(key);
+        return group == null ? -1 : group.version;
+    }
+
+    /**
+     * Write configuration values; they are persisted by the next flush.
+     *
+     * @param key          the vehicle and parent code of the settings
+     * @param configValues configuration values keyed by setting code
+     * @throws ResourceNotFoundException if one of the codes is not found, in which case nothing is written
+     * @throws com.spring.vehicle.exception.BadRequestException if a numeric value is invalid or out of range
+     */
+    public void put(SettingKey key, Map<String, String> configValues) {
+        put(key, configValues, null);
+    }
+
+    /**
+     * Write configuration values if none of the written codes changed since the version the caller has read.
+     * Writes of other codes of the parent code in between do not conflict.
+     *
+     * @param key             the vehicle and parent code of the settings
+     * @param configValues    configuration values keyed by setting code
+     * @param expectedVersion the version the caller has read, null to write unconditionally
+     * @return the values and the version right after the write, read before any other write of the parent code
+     * @throws ResourceNotFoundException if one of the codes is not found, in which case nothing is written
+     * @throws com.spring.vehicle.exception.BadRequestException if a numeric value is invalid or out of range
+     * @throws ConflictException         if one of the codes has been written since the expected version
+     */
+    public Snapshot put(SettingKey key, Map<String, String> configValues, Long expectedVersion) {
+        while (true) {
+            SettingGroup group = requireGroup(key);
+            synchronized (group) {
+                if (!group.evicted) {
+                    put(key, group, configValues, expectedVersion);
+                    return group.snapshot();
+                }
+            }
+        }
+    }
+
+    /**
+     * Write to a group held under its monitor.
+     */
+    private void put(SettingKey key, SettingGroup group, Map<String, String> configValues, Long expectedVersion) {
+        if (expectedVersion != null) {
+            if (expectedVersion > group.version) {
+                throw new ConflictException(String.format("%s has no version %d, current version is %d",
+                                                          key, expectedVersion, group.version));
+            }
+            for (String code : configValues.keySet()) {
+                long codeVersion = group.version(code);
+                if (codeVersion > expectedVersion) {
+                    throw new ConflictException(String.format("%s-%s has changed since version %d, it was written at version %d",
+                                                              key, code, expectedVersion, codeVersion));
+                }
+            }
+        }
+
+        // Validate everything before writing anything
+        int[] parsed = new int[CODES.length];
+        for (Map.Entry<String, String> entry : configValues.entrySet()) {
+            String code = entry.getKey();
+            if (!group.contains(code)) {
+                throw new ResourceNotFoundException("AppSetting", "Id", key + "-" + code);
+            }
+            TelemetryCode telemetryCode = TelemetryCode.of(code);
+            if (telemetryCode != null && telemetryCode.isNumeric()) {
+                parsed[telemetryCode.ordinal()] = telemetryCode.parse(entry.getValue());
+            }
+        }
+
+        long mask = 0;
+        Map<String, String> texts = new HashMap<>();
+        for (Map.Entry<String, String> entry : configValues.entrySet()) {
+            TelemetryCode telemetryCode = TelemetryCode.of(entry.getKey());
+            if (telemetryCode != null && telemetryCode.isNumeric()) {
+                group.texts.remove(entry.getKey());
+                group.numbers[telemetryCode.ordinal()] = parsed[telemetryCode.ordinal()];
+                group.present |= bit(telemetryCode);
+                mask |= bit(telemetryCode);
+            } else {
+                texts.put(entry.getKey(), entry.getValue());
+            }
+        }
+        group.texts.putAll(texts);
+        group.dirtyTexts.putAll(texts);
+        group.dirty |= mask;
+        group.version++;
+        group.stamp(mask, texts.keySet());
+        if (mask != 0) {
+            group.record();
+        }
+        notifyListeners(key, group, mask, texts);
+    }
+
+    /**
+     * Atomically read the values of a parent code and write the changes computed from them.
+     * No other write of the parent code can happen between the read and the write, and nothing is written if the
+     * rule fails. Codes set back to their current value are not written.
+     *
+     * @param key  the vehicle and parent code of the settings
+     * @param rule reads and writes the typed values; must not block
+     * @return whether anything changed
+     * @throws ResourceNotFoundException if the parent code or one of the written codes is not found
+     */
+    public boolean transition(SettingKey key, Consumer<TelemetryValues> rule) {
+        while (true) {
+            SettingGroup group = requireGroup(key);
+            synchronized (group) {
+                if (!group.evicted) {
+                    return transition(key, group, rule);
+                }
+            }
+        }
+    }
+
+    /**
+     * Transition a group held under its monitor.
+     */
+    private boolean transition(SettingKey key, SettingGroup group, Consumer<TelemetryValues> rule) {
+        Transition transition = group.transition;
+        transition.begin(key);
+        rule.accept(transition);
+
+        long mask = 0;
+        for (long pending = transition.changed; pending != 0; pending &= pending - 1) {
+            int i = Long.numberOfTrailingZeros(pending);
+            if (transition.staged[i] != group.numbers[i]) {
+                group.numbers[i] = transition.staged[i];
+                mask |= 1L << i;
+            }
+        }
+        if (mask == 0) {
+            return false;
+        }
+        group.dirty |= mask;
+        group.version++;
+        group.stamp(mask, Collections.emptySet());
+        group.record();
+        notifyListeners(key, group, mask, Collections.emptyMap());
+        return true;
+    }
+
+    /**
+     * Record a setting which has just been inserted, if its parent code is already loaded.
+     */
+    public void added(SettingKey key, String code, String configValue) {
+        inserted(List.of(key));
+        SettingGroup group = groups.get(key);
+        if (group != null) {
+            synchronized (group) {
+                if (group.evicted) {
+                    return; // the next load reads the inserted row
+                }
+                group.load(code, configValue);
+                group.version++;
+                group.stamp(code);
+                group.record();
+                notifyListeners(Collections.singletonMap(code, configValue), key, group.version);
+            }
+        }
+    }
+
+    /**
+     * Forget that parent codes had no settings, once settings have been inserted for them.
+     *
+     * @param keys the vehicles and parent codes which have settings now
+     */
+    public void inserted(Collection<SettingKey> keys) {
+        inserts.incrementAndGet();
+        missing.invalidateAll(keys);
+    }
+
+    /**
+     * Forget a setting which has just been deleted, including a pending write of it.
+     */
+    public void removed(SettingKey key, String code) {
+        SettingGroup group = groups.get(key);
+        if (group != null) {
+            synchronized (group) {
+                if (group.evicted) {
+                    return;
+                }
+                TelemetryCode telemetryCode = TelemetryCode.of(code);
+                if (telemetryCode != null) {
+                    group.present &= ~bit(telemetryCode);
+                    group.dirty &= ~bit(telemetryCode);
+                }
+                group.texts.remove(code);
+                group.dirtyTexts.remove(code);
+                group.version++;
+                group.stamp(code);
+                group.record();
+                notifyListeners(Collections.singletonMap(code, null), key, group.version);
+            }
+        }
+    }
+
+    /**
+     * Persist the dirty codes of every group, one transaction and one batched statement per group, each checked
+     * against its SQL statement budget.
+     * Numeric codes are formatted here, once per flush, however often they were written in between.
+     * A failed group stays dirty and is retried by the next flush.
+     */
+    @Scheduled(fixedDelayString = "${app.telemetry.flush-interval:1000}", scheduler = SchedulingConfig.PERSISTENCE_SCHEDULER)
+    public void flush() {
+        groups.forEach((key, group) -> {
+            Map<String, String> textBatch;
+            long mask;
+            int[] numbers;
+            synchronized (group) {
+                if (group.dirty == 0 && group.dirtyTexts.isEmpty()) {
+                    return;
+                }
+                mask = group.dirty;
+                numbers = group.numbers.clone();
+                textBatch = new HashMap<>(group.dirtyTexts);
+            }
+            Map<String, String> batch = new HashMap<>(textBatch);
+            for (long pending = mask; pending != 0; pending &= pending - 1) {
+                TelemetryCode telemetryCode = CODES[Long.numberOfTrailingZeros(pending)];
+                batch.put(telemetryCode.getCode(), telemetryCode.format(numbers[telemetryCode.ordinal()]));
+            }
+            try (SqlBudgetGuard.Scope ignored = sqlBudgetGuard.open("telemetry.flush", FLUSH_SQL_BUDGET)) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> appSettingRepository.updateConfigValues(key.getVehicleId(), key.getParentCode(), batch));
+                } catch (RuntimeException e) {
+                    LOGGER.error("Flushing {} AppSetting codes of {} failed, retrying on next flush", batch.size(), key, e);
+                    return;
+                }
+                synchronized (group) {
+                    // keep codes written again while the batch was in flight
+                    for (long pending = mask; pending != 0; pending &= pending - 1) {
+                        int i = Long.numberOfTrailingZeros(pending);
+                        if (group.numbers[i] == numbers[i]) {
+                            group.dirty &= ~(1L << i);
+                        }
+                    }
+                    textBatch.forEach((code, configValue) -> {
+                        if (Objects.equals(group.dirtyTexts.get(code), configValue)) {
+                            group.dirtyTexts.remove(code);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    /**
+     * Evict the groups idle for longer than the idle timeout, then the least recently used ones while there are more
+     * than the maximum. Groups with pending writes are kept until a flush has persisted them.
+     */
+    @Scheduled(fixedDelayString = "${app.telemetry.eviction-interval:60000}", scheduler = SchedulingConfig.PERSISTENCE_SCHEDULER)
+    public void evictIdle() {
+        evictIdle(System.currentTimeMillis());
+    }
+
+    /**
+     * @param now epoch milliseconds the idle time is measured against
+     * @return the number of evicted groups
+     */
+    int evictIdle(long now) {
+        int evicted = 0;
+        List<Candidate> candidates = new ArrayList<>();
+        for (Map.Entry<SettingKey, SettingGroup> entry : groups.entrySet()) {
+            long lastAccess = entry.getValue().lastAccess;
+            if (now - lastAccess > idleTimeout) {
+                evicted += evict(entry.getKey(), entry.getValue()) ? 1 : 0;
+            } else {
+                candidates.add(new Candidate(entry.getKey(), entry.getValue(), lastAccess));
+            }
+        }
+        int excess = groups.size() - maxGroups;
+        if (excess > 0) {
+            // ordered by the access times read above, which concurrent reads keep moving
+            candidates.sort(Comparator.comparingLong(Candidate::lastAccess));
+            for (int i = 0; i < candidates.size() && excess > 0; i++) {
+                if (evict(candidates.get(i).key(), candidates.get(i).group())) {
+                    evicted++;
+                    excess--;
+                }
+            }
+        }
+        if (evicted > 0) {
+            LOGGER.debug("Evicted {} setting groups, {} left", evicted, groups.size());
+        }
+        return evicted;
+    }
+
+    /**
+     * Number of setting groups held in memory.
+     */
+    public int getGroupCount() {
+        return groups.size();
+    }
+
+    /**
+     * Group loads that read the database themselves.
+     */
+    public long getLoadCount() {
+        return loads.getLoadCount();
+    }
+
+    /**
+     * Group loads that shared the read of a concurrent load instead.
+     */
+    public long getCoalescedCount() {
+        return loads.getCoalescedCount();
+    }
+
+    /**
+     * Groups evicted since startup.
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Flush pending writes before the data source goes away.
+     */
+    @PreDestroy
+    public void shutdown() {
+        LOGGER.info("Flushing telemetry state on shutdown");
+        flush();
+    }
+
+    private void notifyListeners(SettingKey key, SettingGroup group, long mask, Map<String, String> texts) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        Map<String, String> changes = new HashMap<>(texts);
+        for (long pending = mask; pending != 0; pending &= pending - 1) {
+            TelemetryCode telemetryCode = CODES[Long.numberOfTrailingZeros(pending)];
+            changes.put(telemetryCode.getCode(), telemetryCode.format(group.numbers[telemetryCode.ordinal()]));
+        }
+        notifyListeners(changes, key, group.version);
+    }
+
+    private void notifyListeners(Map<String, String> changes, SettingKey key, long version) {
+        for (SettingChangeListener listener : listeners) {
+            try {
+                listener.onSettingChange(key, changes, version);
+            } catch (RuntimeException e) {
+                LOGGER.error("Setting change listener {} failed", listener, e);
+            }
+        }
+    }
+
+    private SettingGroup requireGroup(SettingKey key) {
+        SettingGroup group = group(key);
+        if (group == null) {
+            throw new ResourceNotFoundException("Code", "Id", key);
+        }
+        return group;
+    }
+
+    private boolean evict(SettingKey key, SettingGroup group) {
+        synchronized (group) {
+            if (group.dirty != 0 || !group.dirtyTexts.isEmpty()) {
+                return false;
+            }
+            // writers holding the group retry with a fresh load
+            group.evicted = true;
+        }
+        groups.remove(key, group);
+        evictionCount.increment();
+        return true;
+    }
+
+    private SettingGroup group(SettingKey key) {
+        SettingGroup group = groups.get(key);
+        if (group != null) {
+            group.touch(System.currentTimeMillis());
+            return group;
+        }
+        if (missing.getIfPresent(key) != null) {
+            return null;
+        }
+        // Query outside of the map, so loading one group does not block the others of its bin
+        return loads.execute(key, () -> {
+            long insertsBefore = inserts.get();
+            SettingGroup loaded = load(key);
+            if (loaded == null) {
+                remember(key, insertsBefore);
+                return null;
+            }
+            SettingGroup existing = groups.putIfAbsent(key, loaded);
+            return existing != null ? existing : loaded;
+        });
+    }
+
+    private SettingGroup load(SettingKey key) {
+        // Project code and value only, no entity is hydrated
+        List<SettingValue> list = appSettingRepository.findValuesByVehicleIdAndParentCode(key.getVehicleId(), key.getParentCode());
+        if (list == null || list.isEmpty()) {
+            return null;
+        }
+        SettingGroup group = newGroup();
+        list.forEach(settingValue -> group.load(settingValue.getCode(), settingValue.getConfigValue()));
+        return group;
+    }
+
+    /**
+     * Load the groups of many vehicles with one statement; a group loaded concurrently in between is kept.
+     */
+    private void load(List<Long> vehicleIds, String parentCode) {
+        long insertsBefore = inserts.get();
+        Map<Long, List<VehicleSettingValue>> byVehicle =
+                appSettingRepository.findValuesByVehicleIdInAndParentCode(vehicleIds, parentCode)
+                                    .stream()
+                                    .collect(Collectors.groupingBy(VehicleSettingValue::getVehicleId));
+        byVehicle.forEach((vehicleId, values) -> {
+            SettingGroup group = newGroup();
+            values.forEach(settingValue -> group.load(settingValue.getCode(), settingValue.getConfigValue()));
+            groups.putIfAbsent(SettingKey.of(vehicleId, parentCode), group);
+        });
+        for (Long vehicleId : vehicleIds) {
+            if (!byVehicle.containsKey(vehicleId)) {
+                remember(SettingKey.of(vehicleId, parentCode), insertsBefore);
+            }
+        }
+    }
+
+    /**
+     * Remember a parent code found without settings, unless settings may have been inserted since it was read.
+     */
+    private void remember(SettingKey key, long insertsBefore) {
+        missing.put(key, Boolean.TRUE);
+        if (inserts.get() != insertsBefore) {
+            missing.invalidate(key); // the insert may have invalidated before the put
+        }
+    }
+
+    private SettingGroup newGroup() {
+        return new SettingGroup(System.currentTimeMillis() * 1000, recentCapacity);
+    }
+
+    private static long bit(TelemetryCode telemetryCode) {
+        return 1L << telemetryCode.ordinal();
+    }
+
+    /**
+     * Settings of one parent code of one vehicle; guarded by its own monitor.
+     */
+    private static final class SettingGroup {
+
+        /**
+         * Values of the numeric codes, indexed by {@link TelemetryCode#ordinal()}
+         */
+        private final int[] numbers = new int[CODES.length];
+
+        /**
+         * Bit sets of the numeric codes the group has, and of those waiting for the flush
+         */
+        private long present;
+        private long dirty;
+
+        /**
+         * Text and unregistered codes
+         */
+        private final Map<String, String> texts = new HashMap<>();
+        private final Map<String, String> dirtyTexts = new HashMap<>();
+
+        private final Transition transition = new Transition(this);
+        private final int recentCapacity;
+        private volatile long version;
+
+        /**
+         * Version of the last write of each numeric code, and of each text code written since the load;
+         * codes not written since are at the load version
+         */
+        private final long[] numberVersions = new long[CODES.length];
+        private final Map<String, Long> textVersions = new HashMap<>();
+        private final long loadVersion;
+
+        /**
+         * Recent values, allocated by the first write; read without locking
+         */
+        private volatile TelemetryRing recent;
+
+        /**
+         * Epoch milliseconds of the last read or write, for the eviction of idle groups
+         */
+        private volatile long lastAccess;
+
+        /**
+         * Set once the group has been removed from the store; it must not be written any more
+         */
+        private boolean evicted;
+
+        private SettingGroup(long version, int recentCapacity) {
+            this.version = version;
+            this.loadVersion = version;
+            Arrays.fill(numberVersions, version);
+            this.recentCapacity = recentCapacity;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        private void touch(long now) {
+            if (lastAccess != now) {
+                lastAccess = now;
+            }
+        }
+
+        private synchronized Snapshot snapshot() {
+            return new Snapshot(version, Collections.unmodifiableMap(toMap()));
+        }
+
+        /**
+         * Append the current numeric values to the recent ring; the group monitor makes this the single writer.
+         */
+        private void record() {
+            TelemetryRing ring = recent;
+            if (ring == null) {
+                ring = new TelemetryRing(recentCapacity);
+                recent = ring;
+            }
+            ring.append(System.currentTimeMillis(), numbers, present);
+        }
+
+        /**
+         * @return the version the code was last written at
+         */
+        private long version(String code) {
+            TelemetryCode telemetryCode = TelemetryCode.of(code);
+            if (telemetryCode != null && telemetryCode.isNumeric() && !texts.containsKey(code)) {
+                return numberVersions[telemetryCode.ordinal()];
+            }
+            return textVersions.getOrDefault(code, loadVersion);
+        }
+
+        /**
+         * Stamp the numeric codes of the mask and the text codes with the current version.
+         */
+        private void stamp(long mask, Collection<String> textCodes) {
+            for (long pending = mask; pending != 0; pending &= pending - 1) {
+                numberVersions[Long.numberOfTrailingZeros(pending)] = version;
+            }
+            for (String code : textCodes) {
+                textVersions.put(code, version);
+            }
+        }
+
+        private void stamp(String code) {
+            TelemetryCode telemetryCode = TelemetryCode.of(code);
+            if (telemetryCode != null && telemetryCode.isNumeric()) {
+                numberVersions[telemetryCode.ordinal()] = version;
+            }
+            textVersions.put(code, version);
+        }
+
+        private boolean contains(String code) {
+            TelemetryCode telemetryCode = TelemetryCode.of(code);
+            return (telemetryCode != null && (present & bit(telemetryCode)) != 0) || texts.containsKey(code);
+        }
+
+        /**
+         * Take a value as stored in {@code app_setting}; a numeric code that does not parse is kept as text.
+         */
+        private void load(String code, String configValue) {
+            TelemetryCode telemetryCode = TelemetryCode.of(code);
+            if (telemetryCode != null && telemetryCode.isNumeric()) {
+                if (telemetryCode.getType() == TelemetryCode.Type.BOOLEAN) {
+                    numbers[telemetryCode.ordinal()] = "1".equals(configValue) ? 1 : 0;
+                    present |= bit(telemetryCode);
+                    return;
+                }
+                long value = NumberParser.parseLong(configValue, Long.MIN_VALUE);
+                if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                    numbers[telemetryCode.ordinal()] = (int) value;
+                    present |= bit(telemetryCode);
+                    return;
+                }
+                LOGGER.warn("Stored value {} of {} is not a number, keeping it as text", configValue, code);
+            }
+            texts.put(code, configValue);
+        }
+
+        private Map<String, String> toMap() {
+            Map<String, String> map = new HashMap<>(texts);
+            for (long pending = present; pending != 0; pending &= pending - 1) {
+                TelemetryCode telemetryCode = CODES[Long.numberOfTrailingZeros(pending)];
+                map.put(telemetryCode.getCode(), telemetryCode.format(numbers[telemetryCode.ordinal()]));
+            }
+            return map;
+        }
+    }
+
+    /**
+     * Staging area of a transition, reused by every transition of its group.
+     */
+    private static final class Transition implements TelemetryValues {
+
+        private final SettingGroup group;
+        private final int[] staged = new int[CODES.length];
+        private long changed;
+        private SettingKey key;
+
+        private Transition(SettingGroup group) {
+            this.group = group;
+        }
+
+        private void begin(SettingKey key) {
+            this.key = key;
+            System.arraycopy(group.numbers, 0, staged, 0, staged.length);
+            changed = 0;
+        }
+
+        @Override
+        public boolean has(TelemetryCode code) {
+            return (group.present & bit(code)) != 0;
+        }
+
+        @Override
+        public int getInt(TelemetryCode code) {
+            return has(code) ? staged[code.ordinal()] : code.getDefaultValue();
+        }
+
+        @Override
+        public void setInt(TelemetryCode code, int value) {
+            if (!code.isNumeric()) {
+                throw new IllegalArgumentException(code.getCode() + " is not numeric");
+            }
+            if (!has(code)) {
+                throw new ResourceNotFoundException("AppSetting", "Id", key + "-" + code.getCode());
+            }
+            staged[code.ordinal()] = code.validate(value);
+            changed |= bit(code);
+        }
+    }
+
+    private record Candidate(SettingKey key, SettingGroup group, long lastAccess) {
+    }
+
+    /**
+     * Configuration values of a parent code at a given version.
+     */
+    @lombok.Value
+    public static class Snapshot {
+
+        long version;
+        Map<String, String> values;
+    }
+}
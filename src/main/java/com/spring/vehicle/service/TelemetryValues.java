@@ -0,0 +1,39 @@
+package com.spring.vehicle.service;
+
+import com.spring.vehicle.model.TelemetryCode;
+
+/**
+ * Typed view of the telemetry values of one parent code, handed to a transition rule by
+ * {@link TelemetryStateStore#transition(com.spring.vehicle.model.SettingKey, java.util.function.Consumer)}.
+ * Values are read and written as primitives; the view is only valid during the transition and must not be retained.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+public interface TelemetryValues {
+
+    /**
+     * @return whether the parent code has a typed value for the code
+     */
+    boolean has(TelemetryCode code);
+
+    /**
+     * @return the value of the code, or its declared default if it has no value
+     */
+    int getInt(TelemetryCode code);
+
+    /**
+     * @return whether a boolean code is set to 1
+     */
+    default boolean getBoolean(TelemetryCode code) {
+        return getInt(code) == 1;
+    }
+
+    /**
+     * Write the value of a numeric code; writing the current value is a no-op.
+     *
+     * @throws com.spring.vehicle.exception.BadRequestException       if the value is out of the declared range
+     * @throws com.spring.vehicle.exception.ResourceNotFoundException if the parent code has no such setting
+     */
+    void setInt(TelemetryCode code, int value);
+}
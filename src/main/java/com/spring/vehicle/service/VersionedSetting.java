@@ -0,0 +1,18 @@
+package com.spring.vehicle.service;
+
+import com.spring.vehicle.payload.setting.SettingResponse;
+
+/**
+ * Assembled settings of a parent code together with the version they were read at.
+ * Both come from the same {@link TelemetryStateStore.Snapshot}, so the version always identifies the content;
+ * the response is shared between callers and must not be modified.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+@lombok.Value
+public class VersionedSetting {
+
+    long version;
+    SettingResponse settingResponse;
+}
@@ -0,0 +1,70 @@
+package com.spring.vehicle.utils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * CachedClock class is a coarse clock: time advances in whole ticks, and the {@link Instant} of the current tick is
+ * created once and then shared by every caller until the next tick, so reading the time allocates nothing.
+ * Like {@link Clock#tick(Clock, java.time.Duration)}, instants are truncated to the tick.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+public final class CachedClock extends Clock {
+
+	/**
+	 * System clock in UTC, advancing every second
+	 */
+	public static final CachedClock SECONDS = new CachedClock(Clock.systemUTC(), 1000);
+
+	private final Clock source;
+	private final long tickMillis;
+
+	/**
+	 * Instant of the latest tick read; instants are immutable, so a racy read is safe
+	 */
+	private volatile Instant current = Instant.EPOCH;
+
+	public CachedClock(Clock source, long tickMillis) {
+		if (tickMillis <= 0) throw new IllegalArgumentException("Tick must be positive");
+		this.source = source;
+		this.tickMillis = tickMillis;
+	}
+
+	/**
+	 * Epoch milliseconds of the current tick.
+	 */
+	@Override
+	public long millis() {
+		long millis = source.millis();
+		return millis - Math.floorMod(millis, tickMillis);
+	}
+
+	@Override
+	public Instant instant() {
+		long millis = millis();
+		Instant instant = current;
+		if (instant.toEpochMilli() != millis) {
+			instant = Instant.ofEpochMilli(millis);
+			current = instant;
+		}
+		return instant;
+	}
+
+	@Override
+	public ZoneId getZone() {
+		return source.getZone();
+	}
+
+	@Override
+	public Clock withZone(ZoneId zone) {
+		return zone.equals(getZone()) ? this : new CachedClock(source.withZone(zone), tickMillis);
+	}
+
+	@Override
+	public String toString() {
+		return "CachedClock[" + source + "," + tickMillis + "ms]";
+	}
+}
@@ -0,0 +1,228 @@
+package com.spring.vehicle.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * FixedPoint class provides arithmetic on decimal values held as longs scaled by a power of ten, for example a
+ * price of 12.34 held as 1234 cents with scale 2. Operations allocate nothing, round HALF_UP like
+ * {@link RoundingMode#HALF_UP} and throw an {@link ArithmeticException} instead of overflowing.
+ * <p>
+ * Doubles are converted through the decimal {@link Double#toString(double)} prints for them, the same way
+ * {@link BigDecimal#valueOf(double)} does, so that 1.005 is 1.005 and not 1.00499999999999989...
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+public final class FixedPoint {
+
+	/**
+	 * Largest supported scale, 10^18 is the largest power of ten in a long.
+	 */
+	public static final int MAX_SCALE = 18;
+
+	private static final long[] POWERS = new long[MAX_SCALE + 1];
+	private static final double[] DOUBLE_POWERS = new double[MAX_SCALE + 1];
+
+	/**
+	 * Doubles below 2^53 hold every integer exactly.
+	 */
+	private static final double EXACT_LIMIT = 0x1p53;
+
+	static {
+		long power = 1;
+		for (int i = 0; i <= MAX_SCALE; i++) {
+			POWERS[i] = power;
+			DOUBLE_POWERS[i] = power; // exact up to 10^22
+			power *= 10;
+		}
+	}
+
+	private FixedPoint() {
+	}
+
+	/**
+	 * Converts a double to a fixed-point value, rounding HALF_UP.
+	 *
+	 * @param value The double to be converted.
+	 * @param scale The scale of the result.
+	 * @return The value scaled by 10^scale.
+	 * @throws ArithmeticException if the scaled value does not fit in a long.
+	 * @throws NumberFormatException if the value is NaN or infinite.
+	 */
+	public static long of(double value, int scale) {
+		checkScale(scale);
+		int digits = fractionDigits(value);
+		if (digits >= 0) {
+			return rescale(unscaled(value, digits), digits, scale);
+		}
+		return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP).longValueExact();
+	}
+
+	/**
+	 * Converts a fixed-point value to the nearest double.
+	 *
+	 * @param value The fixed-point value.
+	 * @param scale The scale of the value.
+	 * @return The value divided by 10^scale.
+	 */
+	public static double toDouble(long value, int scale) {
+		checkScale(scale);
+		if (Math.abs(value) < EXACT_LIMIT) {
+			// both operands are exact, the quotient is correctly rounded
+			return value / DOUBLE_POWERS[scale];
+		}
+		return BigDecimal.valueOf(value, scale).doubleValue();
+	}
+
+	/**
+	 * Adds two fixed-point values of the same scale.
+	 *
+	 * @param a First operand.
+	 * @param b Second operand.
+	 * @return The sum of a and b.
+	 * @throws ArithmeticException if the result overflows.
+	 */
+	public static long add(long a, long b) {
+		return Math.addExact(a, b);
+	}
+
+	/**
+	 * Subtracts two fixed-point values of the same scale.
+	 *
+	 * @param a Minuend.
+	 * @param b Subtrahend.
+	 * @return The difference between a and b.
+	 * @throws ArithmeticException if the result overflows.
+	 */
+	public static long sub(long a, long b) {
+		return Math.subtractExact(a, b);
+	}
+
+	/**
+	 * Multiplies two fixed-point values of the same scale.
+	 *
+	 * @param a     First operand.
+	 * @param b     Second operand.
+	 * @param scale The scale of the operands and of the result.
+	 * @return The product of a and b, rounded HALF_UP to the scale.
+	 * @throws ArithmeticException if the result overflows.
+	 */
+	public static long mul(long a, long b, int scale) {
+		checkScale(scale);
+		long high = Math.multiplyHigh(a, b);
+		long low = a * b;
+		if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+			return divide(low, POWERS[scale]);
+		}
+		throw new ArithmeticException("long overflow");
+	}
+
+	/**
+	 * Divides two fixed-point values of the same scale.
+	 *
+	 * @param a     Dividend.
+	 * @param b     Divisor.
+	 * @param scale The scale of the operands and of the result.
+	 * @return The quotient of a and b, rounded HALF_UP to the scale.
+	 * @throws ArithmeticException if b is zero or the result overflows.
+	 */
+	public static long div(long a, long b, int scale) {
+		checkScale(scale);
+		return divide(Math.multiplyExact(a, POWERS[scale]), b);
+	}
+
+	/**
+	 * Changes the scale of a fixed-point value, rounding HALF_UP when digits are dropped.
+	 *
+	 * @param value The fixed-point value.
+	 * @param from  The scale of the value.
+	 * @param to    The scale of the result.
+	 * @return The value at the new scale.
+	 * @throws ArithmeticException if the result overflows.
+	 */
+	public static long rescale(long value, int from, int to) {
+		checkScale(from);
+		checkScale(to);
+		if (to >= from) {
+			return Math.multiplyExact(value, POWERS[to - from]);
+		}
+		return divide(value, POWERS[from - to]);
+	}
+
+	static boolean isScale(int scale) {
+		return scale >= 0 && scale <= MAX_SCALE;
+	}
+
+	/**
+	 * Number of fraction digits of the decimal {@link Double#toString(double)} prints for a value.
+	 *
+	 * @param value The double.
+	 * @return The number of fraction digits, or -1 if the decimal is not an exact double below 2^53 at
+	 * {@link #MAX_SCALE} or less, or is not the only candidate; callers then fall back to {@link BigDecimal}.
+	 */
+	static int fractionDigits(double value) {
+		if (!Double.isFinite(value)) {
+			return -1;
+		}
+		for (int digits = 0; digits <= MAX_SCALE; digits++) {
+			double scaled = value * DOUBLE_POWERS[digits];
+			if (Math.abs(scaled) >= EXACT_LIMIT - 1) {
+				return -1;
+			}
+			// the shortest decimal has the fewest fraction digits, look for it around the scaled value
+			double nearest = Math.rint(scaled);
+			if (Math.abs(scaled - nearest) > 4 * Math.ulp(scaled)) {
+				continue; // no decimal of this length is within rounding distance
+			}
+			long candidate = (long) nearest;
+			int found = 0;
+			for (long c = candidate - 1; c <= candidate + 1; c++) {
+				if (c / DOUBLE_POWERS[digits] == value) {
+					found++;
+				}
+			}
+			if (found == 1) {
+				return digits;
+			}
+			if (found > 1) {
+				return -1; // several decimals of this length, leave the tie-break to Double.toString
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * The decimal of a value scaled by 10^digits, where digits comes from {@link #fractionDigits(double)}.
+	 */
+	static long unscaled(double value, int digits) {
+		long candidate = (long) Math.rint(value * DOUBLE_POWERS[digits]);
+		if (candidate / DOUBLE_POWERS[digits] == value) {
+			return candidate;
+		}
+		return (candidate - 1) / DOUBLE_POWERS[digits] == value ? candidate - 1 : candidate + 1;
+	}
+
+	/**
+	 * Divides two longs, rounding HALF_UP.
+	 */
+	static long divide(long dividend, long divisor) {
+		long quotient = Math.divideExact(dividend, divisor);
+		long remainder = dividend % divisor;
+		if (remainder != 0 && Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+			return (dividend ^ divisor) < 0 ? quotient - 1 : quotient + 1;
+		}
+		return quotient;
+	}
+
+	/**
+	 * 10^exponent, for an exponent up to {@link #MAX_SCALE}.
+	 */
+	static long pow10(int exponent) {
+		return POWERS[exponent];
+	}
+
+	private static void checkScale(int scale) {
+		if (!isScale(scale)) throw new IllegalArgumentException("Scale must be between 0 and " + MAX_SCALE);
+	}
+}
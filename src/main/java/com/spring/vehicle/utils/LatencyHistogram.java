@@ -0,0 +1,110 @@
+package com.spring.vehicle.utils;
+
+/**
+ * LatencyHistogram class records latencies in log-linear buckets: exact below 128, then 64 buckets per power of two,
+ * so every recorded value is reported within 1.6% over the whole range of a long. Recording allocates nothing.
+ * <p>
+ * A histogram is not thread-safe; give each thread its own and {@link #add(LatencyHistogram) add} them up.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+	private static final int BUCKETS = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+	private final long[] counts = new long[BUCKETS];
+	private long count;
+	private long sum;
+	private long min = Long.MAX_VALUE;
+	private long max;
+
+	/**
+	 * Records a value; negative values are recorded as 0.
+	 *
+	 * @param value The latency, in any unit.
+	 */
+	public void record(long value) {
+		value = Math.max(value, 0);
+		counts[index(value)]++;
+		count++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Adds the values recorded by another histogram.
+	 *
+	 * @param other The histogram to add.
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] += other.counts[i];
+		}
+		count += other.count;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * Value below or at which a share of the recorded values are.
+	 *
+	 * @param percentile The percentile, between 0 and 100.
+	 * @return The highest value of the bucket holding the percentile, capped by the maximum; 0 if nothing was recorded.
+	 */
+	public long percentile(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(highest(i), max);
+			}
+		}
+		return max;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getMin() {
+		return count == 0 ? 0 : min;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	private static int index(long value) {
+		if (value < LINEAR_LIMIT) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+	}
+
+	/**
+	 * Highest value recorded in a bucket.
+	 */
+	private static long highest(int index) {
+		if (index < LINEAR_LIMIT) {
+			return index;
+		}
+		int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+		long lowest = (long) ((index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+}
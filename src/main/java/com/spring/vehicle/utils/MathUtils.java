@@ -4,29 +4,36 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
 import java.util.Locale;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * MathUtils class provides utility methods for mathematical operations such as parsing,
  * rounding, random number generation, and arithmetic operations with precise control over scale.
+ * The arithmetic operations run on {@link FixedPoint} longs and only fall back to BigDecimal for operands
+ * or results a long cannot hold; both paths give the same results.
  */
 public class MathUtils {
 	private static final int DEFAULT_SCALE = 2; // Default scale for operations, set to 2 decimal places.
 
+	private static final int ADD = 0;
+	private static final int SUB = 1;
+	private static final int MUL = 2;
+	private static final int DIV = 3;
+
+	/**
+	 * Returned by {@link #fixed(int, double, double, int)} when the operation does not fit in a long.
+	 */
+	private static final long OVERFLOW = Long.MIN_VALUE;
+
 	/**
 	 * Converts a String to an integer, returning 0 if conversion fails.
+	 * Surrounding whitespace is ignored; see {@link NumberParser} for parsing without a String.
 	 *
 	 * @param value The string to be converted.
 	 * @return The parsed integer or 0 if parsing fails.
 	 */
 	public static int parseInt(String value) {
-		int num = 0;
-		if (value != null && !value.trim().isEmpty()) {
-			try {
-				num = Integer.parseInt(value);
-			} catch (Exception ignored) { /* Handle parsing failure silently */ }
-		}
-		return num;
+		return NumberParser.parseInt(value, 0);
 	}
 
 	/**
@@ -36,13 +43,7 @@ public class MathUtils {
 	 * @return The parsed float or 0 if parsing fails.
 	 */
 	public static float parseFloat(String value) {
-		float num = 0;
-		if (value != null && !value.trim().isEmpty()) {
-			try {
-				num = Float.parseFloat(value);
-			} catch (Exception ignored) { /* Handle parsing failure silently */ }
-		}
-		return num;
+		return NumberParser.parseFloat(value, 0);
 	}
 
 	/**
@@ -52,13 +53,7 @@ public class MathUtils {
 	 * @return The parsed double or 0 if parsing fails.
 	 */
 	public static double parseDouble(String value) {
-		double num = 0;
-		if (value != null && !value.trim().isEmpty()) {
-			try {
-				num = Double.parseDouble(value);
-			} catch (Exception ignored) { /* Handle parsing failure silently */ }
-		}
-		return num;
+		return NumberParser.parseDouble(value, 0);
 	}
 
 	/**
@@ -68,13 +63,7 @@ public class MathUtils {
 	 * @return The parsed long or 0 if parsing fails.
 	 */
 	public static long parseLong(String value) {
-		long num = 0;
-		if (value != null && !value.trim().isEmpty()) {
-			try {
-				num = Long.parseLong(value);
-			} catch (Exception ignored) { /* Handle parsing failure silently */ }
-		}
-		return num;
+		return NumberParser.parseLong(value, 0);
 	}
 
 	/**
@@ -84,13 +73,7 @@ public class MathUtils {
 	 * @return The parsed short or 0 if parsing fails.
 	 */
 	public static short parseShort(String value) {
-		short num = 0;
-		if (value != null && !value.trim().isEmpty()) {
-			try {
-				num = Short.parseShort(value);
-			} catch (Exception ignored) { /* Handle parsing failure silently */ }
-		}
-		return num;
+		return NumberParser.parseShort(value, (short) 0);
 	}
 
 	/**
@@ -102,21 +85,26 @@ public class MathUtils {
 	 */
 	public static double round(double value, int places) {
 		if (places < 0) throw new IllegalArgumentException("Scale must be non-negative");
+		int digits = FixedPoint.fractionDigits(value);
+		if (digits >= 0 && FixedPoint.isScale(places)) {
+			try {
+				return FixedPoint.toDouble(FixedPoint.rescale(FixedPoint.unscaled(value, digits), digits, places), places);
+			} catch (ArithmeticException ignored) { /* Beyond a long, fall back to BigDecimal */ }
+		}
 		BigDecimal bd = BigDecimal.valueOf(value);
 		bd = bd.setScale(places, RoundingMode.HALF_UP);
 		return bd.doubleValue();
 	}
 
 	/**
-	 * Generates a random integer within a specified range.
+	 * Generates a random integer within a specified range, from the random source of the calling thread.
 	 *
 	 * @param min The lower bound of the range.
 	 * @param max The upper bound of the range.
 	 * @return A random integer between min and max (inclusive).
 	 */
 	public static int random(int min, int max) {
-		Random random = new Random();
-		return random.nextInt((max - min) + 1) + min;
+		return ThreadLocalRandom.current().nextInt(min, max + 1);
 	}
 
 	/**
@@ -141,6 +129,10 @@ public class MathUtils {
 	 * @return The sum of v1 and v2, rounded to the specified scale.
 	 */
 	public static double add(double v1, double v2, int scale) {
+		long fixed = fixed(ADD, v1, v2, scale);
+		if (fixed != OVERFLOW) {
+			return FixedPoint.toDouble(fixed, scale);
+		}
 		BigDecimal b1 = new BigDecimal(Double.toString(v1));
 		BigDecimal b2 = new BigDecimal(Double.toString(v2));
 		return b1.add(b2).setScale(scale, RoundingMode.HALF_UP).doubleValue();
@@ -166,6 +158,10 @@ public class MathUtils {
 	 * @return The difference between v1 and v2, rounded to the specified scale.
 	 */
 	public static double sub(double v1, double v2, int scale) {
+		long fixed = fixed(SUB, v1, v2, scale);
+		if (fixed != OVERFLOW) {
+			return FixedPoint.toDouble(fixed, scale);
+		}
 		BigDecimal b1 = new BigDecimal(Double.toString(v1));
 		BigDecimal b2 = new BigDecimal(Double.toString(v2));
 		return b1.subtract(b2).setScale(scale, RoundingMode.HALF_UP).doubleValue();
@@ -191,6 +187,10 @@ public class MathUtils {
 	 * @return The product of v1 and v2, rounded to the specified scale.
 	 */
 	public static double mul(double v1, double v2, int scale) {
+		long fixed = fixed(MUL, v1, v2, scale);
+		if (fixed != OVERFLOW) {
+			return FixedPoint.toDouble(fixed, scale);
+		}
 		BigDecimal b1 = new BigDecimal(Double.toString(v1));
 		BigDecimal b2 = new BigDecimal(Double.toString(v2));
 		return b1.multiply(b2).setScale(scale, RoundingMode.HALF_UP).doubleValue();
@@ -218,11 +218,63 @@ public class MathUtils {
 	 */
 	public static double div(double v1, double v2, int scale) {
 		if (scale < 0) throw new IllegalArgumentException("Scale must be non-negative");
+		long fixed = fixed(DIV, v1, v2, scale);
+		if (fixed != OVERFLOW) {
+			return FixedPoint.toDouble(fixed, scale);
+		}
 		BigDecimal b1 = new BigDecimal(Double.toString(v1));
 		BigDecimal b2 = new BigDecimal(Double.toString(v2));
 		return b1.divide(b2, scale, RoundingMode.HALF_UP).doubleValue();
 	}
 
+	/**
+	 * Applies an operation to the decimals of two doubles on longs, exactly like BigDecimal.
+	 *
+	 * @param operation ADD, SUB, MUL or DIV.
+	 * @param v1        First operand.
+	 * @param v2        Second operand.
+	 * @param scale     The precision of the result.
+	 * @return The result scaled by 10^scale, or {@link #OVERFLOW} if an operand, an intermediate or the result
+	 * does not fit in a long, or the divisor is zero.
+	 */
+	private static long fixed(int operation, double v1, double v2, int scale) {
+		int d1 = FixedPoint.fractionDigits(v1);
+		int d2 = FixedPoint.fractionDigits(v2);
+		if (d1 < 0 || d2 < 0 || !FixedPoint.isScale(scale)) {
+			return OVERFLOW;
+		}
+		long u1 = FixedPoint.unscaled(v1, d1);
+		long u2 = FixedPoint.unscaled(v2, d2);
+		try {
+			long result;
+			switch (operation) {
+				case ADD, SUB -> {
+					int digits = Math.max(d1, d2);
+					u1 = FixedPoint.rescale(u1, d1, digits);
+					u2 = FixedPoint.rescale(u2, d2, digits);
+					result = FixedPoint.rescale(operation == ADD ? Math.addExact(u1, u2) : Math.subtractExact(u1, u2), digits, scale);
+				}
+				case MUL -> {
+					int digits = d1 + d2;
+					long product = Math.multiplyExact(u1, u2);
+					result = digits - scale > FixedPoint.MAX_SCALE ? OVERFLOW
+							: digits > scale ? FixedPoint.divide(product, FixedPoint.pow10(digits - scale))
+							: Math.multiplyExact(product, FixedPoint.pow10(scale - digits));
+				}
+				default -> {
+					// v1 / v2 = u1 * 10^(d2 + scale) / (u2 * 10^d1), at the scale
+					if (u2 == 0 || d2 + scale > FixedPoint.MAX_SCALE) {
+						return OVERFLOW;
+					}
+					result = FixedPoint.divide(Math.multiplyExact(u1, FixedPoint.pow10(d2 + scale)), Math.multiplyExact(u2, FixedPoint.pow10(d1)));
+				}
+			}
+			return result;
+		} catch (ArithmeticException e) {
+			return OVERFLOW;
+		}
+	}
+
 	/**
 	 * Formats a double as a currency string in the Canada locale.
 	 *
@@ -0,0 +1,363 @@
+package com.spring.vehicle.utils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * NumberParser class parses numbers out of a {@link CharSequence} or a range of ASCII bytes, such as a request body,
+ * without throwing and, for integers and short decimals, without allocating.
+ * Leading and trailing characters up to the space, the ones {@link String#trim()} removes, are skipped; blank or
+ * malformed input and values out of range yield the given default instead of an exception.
+ * The accepted syntax is the one of {@link Long#parseLong(String)} and {@link Double#parseDouble(String)}.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+public final class NumberParser {
+
+	/**
+	 * Significant digits of a decimal that a long mantissa and a double both hold exactly.
+	 */
+	private static final int EXACT_DIGITS = 15;
+	private static final int FLOAT_EXACT_MANTISSA = 1 << 24;
+
+	private static final double[] DOUBLE_POWERS = new double[23];
+	private static final float[] FLOAT_POWERS = new float[11];
+
+	static {
+		double power = 1;
+		for (int i = 0; i < DOUBLE_POWERS.length; i++) {
+			DOUBLE_POWERS[i] = power; // exact up to 10^22
+			power *= 10;
+		}
+		float floatPower = 1;
+		for (int i = 0; i < FLOAT_POWERS.length; i++) {
+			FLOAT_POWERS[i] = floatPower; // exact up to 10^10
+			floatPower *= 10;
+		}
+	}
+
+	private NumberParser() {
+	}
+
+	/**
+	 * Parses an int from a CharSequence, returning a default instead of throwing.
+	 * Leading and trailing characters from U+0000 up to the space are skipped, the ones {@link String#trim()}
+	 * removes; other whitespace such as a no-break space makes the value malformed. An optional sign and decimal
+	 * digits follow, any Unicode decimal digit as in {@link Integer#parseInt(String)}.
+	 *
+	 * @param value        The characters to be parsed, may be null.
+	 * @param defaultValue The value returned for null, blank or malformed input, or a value out of the int range.
+	 * @return The parsed int or the default value if parsing fails.
+	 */
+	public static int parseInt(CharSequence value, int defaultValue) {
+		return value == null ? defaultValue : (int) parse(value, null, 0, value.length(), Integer.MIN_VALUE, Integer.MAX_VALUE, defaultValue);
+	}
+
+	/**
+	 * Parses an int from a range of ASCII bytes, returning a default instead of throwing.
+	 * Leading and trailing bytes up to the space are skipped, as {@link String#trim()} does; an optional sign and
+	 * the digits 0 to 9 follow.
+	 *
+	 * @param bytes        The bytes holding the value, may be null.
+	 * @param from         The index of the first byte, inclusive.
+	 * @param to           The index of the last byte, exclusive.
+	 * @param defaultValue The value returned for a null array or a range outside of it, blank or malformed input,
+	 *                     or a value out of the int range.
+	 * @return The parsed int or the default value if parsing fails.
+	 */
+	public static int parseInt(byte[] bytes, int from, int to, int defaultValue) {
+		return (int) parse(null, bytes, from, to, Integer.MIN_VALUE, Integer.MAX_VALUE, defaultValue);
+	}
+
+	/**
+	 * Parses a long from a CharSequence, returning a default instead of throwing.
+	 * Leading and trailing characters from U+0000 up to the space are skipped, the ones {@link String#trim()}
+	 * removes; other whitespace such as a no-break space makes the value malformed. An optional sign and decimal
+	 * digits follow, any Unicode decimal digit as in {@link Long#parseLong(String)}.
+	 *
+	 * @param value        The characters to be parsed, may be null.
+	 * @param defaultValue The value returned for null, blank or malformed input, or a value out of the long range.
+	 * @return The parsed long or the default value if parsing fails.
+	 */
+	public static long parseLong(CharSequence value, long defaultValue) {
+		return value == null ? defaultValue : parse(value, null, 0, value.length(), Long.MIN_VALUE, Long.MAX_VALUE, defaultValue);
+	}
+
+	/**
+	 * Parses a long from a range of ASCII bytes, returning a default instead of throwing.
+	 * Leading and trailing bytes up to the space are skipped, as {@link String#trim()} does; an optional sign and
+	 * the digits 0 to 9 follow.
+	 *
+	 * @param bytes        The bytes holding the value, may be null.
+	 * @param from         The index of the first byte, inclusive.
+	 * @param to           The index of the last byte, exclusive.
+	 * @param defaultValue The value returned for a null array or a range outside of it, blank or malformed input,
+	 *                     or a value out of the long range.
+	 * @return The parsed long or the default value if parsing fails.
+	 */
+	public static long parseLong(byte[] bytes, int from, int to, long defaultValue) {
+		return parse(null, bytes, from, to, Long.MIN_VALUE, Long.MAX_VALUE, defaultValue);
+	}
+
+	/**
+	 * Parses a short from a CharSequence like {@link #parseInt(CharSequence, int)}, within the short range.
+	 *
+	 * @param value        The characters to be parsed, may be null.
+	 * @param defaultValue The value returned for null, blank or malformed input, or a value out of the short range.
+	 * @return The parsed short or the default value if parsing fails.
+	 */
+	public static short parseShort(CharSequence value, short defaultValue) {
+		return value == null ? defaultValue : (short) parse(value, null, 0, value.length(), Short.MIN_VALUE, Short.MAX_VALUE, defaultValue);
+	}
+
+	/**
+	 * Parses a short from a range of ASCII bytes like {@link #parseInt(byte[], int, int, int)}, within the short
+	 * range.
+	 *
+	 * @param bytes        The bytes holding the value, may be null.
+	 * @param from         The index of the first byte, inclusive.
+	 * @param to           The index of the last byte, exclusive.
+	 * @param defaultValue The value returned for a null array or a range outside of it, blank or malformed input,
+	 *                     or a value out of the short range.
+	 * @return The parsed short or the default value if parsing fails.
+	 */
+	public static short parseShort(byte[] bytes, int from, int to, short defaultValue) {
+		return (short) parse(null, bytes, from, to, Short.MIN_VALUE, Short.MAX_VALUE, defaultValue);
+	}
+
+	/**
+	 * Parses a double from a CharSequence, returning a default instead of throwing.
+	 * Surrounding characters up to the space are skipped as by {@link #parseInt(CharSequence, int)}; the rest
+	 * follows the grammar of {@link Double#parseDouble(String)}, including NaN, Infinity, hexadecimal literals and
+	 * type suffixes. Values beyond the double range are infinite, as with the JDK, not the default.
+	 *
+	 * @param value        The characters to be parsed, may be null.
+	 * @param defaultValue The value returned for null, blank or malformed input.
+	 * @return The parsed double or the default value if parsing fails.
+	 */
+	public static double parseDouble(CharSequence value, double defaultValue) {
+		return value == null ? defaultValue : parseDecimal(value, null, 0, value.length(), false, defaultValue);
+	}
+
+	/**
+	 * Parses a double from a range of ASCII bytes like {@link #parseDouble(CharSequence, double)}.
+	 *
+	 * @param bytes        The bytes holding the value, may be null.
+	 * @param from         The index of the first byte, inclusive.
+	 * @param to           The index of the last byte, exclusive.
+	 * @param defaultValue The value returned for a null array or a range outside of it, blank or malformed input.
+	 * @return The parsed double or the default value if parsing fails.
+	 */
+	public static double parseDouble(byte[] bytes, int from, int to, double defaultValue) {
+		return parseDecimal(null, bytes, from, to, false, defaultValue);
+	}
+
+	/**
+	 * Parses a float from a CharSequence like {@link #parseDouble(CharSequence, double)}, rounded once to a float
+	 * as {@link Float#parseFloat(String)} does.
+	 *
+	 * @param value        The characters to be parsed, may be null.
+	 * @param defaultValue The value returned for null, blank or malformed input.
+	 * @return The parsed float or the default value if parsing fails.
+	 */
+	public static float parseFloat(CharSequence value, float defaultValue) {
+		return value == null ? defaultValue : (float) parseDecimal(value, null, 0, value.length(), true, defaultValue);
+	}
+
+	/**
+	 * Parses a float from a range of ASCII bytes like {@link #parseFloat(CharSequence, float)}.
+	 *
+	 * @param bytes        The bytes holding the value, may be null.
+	 * @param from         The index of the first byte, inclusive.
+	 * @param to           The index of the last byte, exclusive.
+	 * @param defaultValue The value returned for a null array or a range outside of it, blank or malformed input.
+	 * @return The parsed float or the default value if parsing fails.
+	 */
+	public static float parseFloat(byte[] bytes, int from, int to, float defaultValue) {
+		return (float) parseDecimal(null, bytes, from, to, true, defaultValue);
+	}
+
+	/**
+	 * Parses an integer between min and max, accumulated negatively like {@link Long#parseLong(String)} so that
+	 * the minimum itself does not overflow.
+	 */
+	private static long parse(CharSequence chars, byte[] bytes, int from, int to, long min, long max, long defaultValue) {
+		if (chars == null && (bytes == null || from < 0 || from > to || to > bytes.length)) {
+			return defaultValue;
+		}
+		while (from < to && at(chars, bytes, from) <= ' ') from++;
+		while (to > from && at(chars, bytes, to - 1) <= ' ') to--;
+		if (from == to) {
+			return defaultValue;
+		}
+
+		boolean negative = false;
+		int first = at(chars, bytes, from);
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			if (++from == to) {
+				return defaultValue;
+			}
+		}
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long multiplyLimit = limit / 10;
+		long result = 0;
+		for (int i = from; i < to; i++) {
+			int digit = digit(chars, bytes, i);
+			if (digit < 0 || result < multiplyLimit) {
+				return defaultValue;
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				return defaultValue;
+			}
+			result -= digit;
+		}
+		result = negative ? result : -result;
+		return result < min || result > max ? defaultValue : result;
+	}
+
+	/**
+	 * Parses a decimal. Up to {@value #EXACT_DIGITS} significant digits and a power of ten that is exact as a double,
+	 * the value is computed with one correctly rounded operation; longer input is validated here and then handed to
+	 * the JDK, which never throws for it.
+	 */
+	private static double parseDecimal(CharSequence chars, byte[] bytes, int from, int to, boolean single, double defaultValue) {
+		if (chars == null && (bytes == null || from < 0 || from > to || to > bytes.length)) {
+			return defaultValue;
+		}
+		while (from < to && at(chars, bytes, from) <= ' ') from++;
+		while (to > from && at(chars, bytes, to - 1) <= ' ') to--;
+		if (from == to) {
+			return defaultValue;
+		}
+
+		int start = from;
+		boolean negative = false;
+		int first = at(chars, bytes, from);
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			from++;
+		}
+		if (matches(chars, bytes, from, to, "NaN")) {
+			return Double.NaN;
+		}
+		if (matches(chars, bytes, from, to, "Infinity")) {
+			return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		}
+		if (to - from > 1 && at(chars, bytes, from) == '0' && (at(chars, bytes, from + 1) | 0x20) == 'x') {
+			return parseHex(chars, bytes, start, to, single, defaultValue);
+		}
+		int last = to > from ? at(chars, bytes, to - 1) | 0x20 : 0;
+		if (last == 'd' || last == 'f') {
+			to--; // type suffix
+		}
+
+		long mantissa = 0;
+		int digits = 0;      // significant digits read
+		int exponent = 0;    // power of ten of the mantissa
+		boolean anyDigit = false;
+		boolean exact = true;
+		boolean point = false;
+		int i = from;
+		for (; i < to; i++) {
+			int c = at(chars, bytes, i);
+			if (c == '.') {
+				if (point) return defaultValue;
+				point = true;
+				continue;
+			}
+			int digit = c - '0';
+			if (digit < 0 || digit > 9) {
+				break;
+			}
+			anyDigit = true;
+			if (mantissa == 0 && digit == 0) {
+				if (point) exponent--;
+				continue; // leading zero
+			}
+			if (digits < 18) {
+				mantissa = mantissa * 10 + digit;
+				digits++;
+				if (point) exponent--;
+			} else {
+				exact &= digit == 0;
+				digits++;
+				if (!point) exponent++;
+			}
+		}
+		if (!anyDigit) {
+			return defaultValue;
+		}
+		if (i < to) {
+			if ((at(chars, bytes, i) | 0x20) != 'e' || ++i == to) {
+				return defaultValue;
+			}
+			int sign = at(chars, bytes, i);
+			if ((sign == '-' || sign == '+') && ++i == to) {
+				return defaultValue;
+			}
+			int power = 0;
+			for (; i < to; i++) {
+				int digit = at(chars, bytes, i) - '0';
+				if (digit < 0 || digit > 9) {
+					return defaultValue;
+				}
+				power = Math.min(power * 10 + digit, 1_000_000); // far beyond the range of a double
+			}
+			exponent += sign == '-' ? -power : power;
+		}
+
+		while (exact && mantissa != 0 && mantissa % 10 == 0) {
+			mantissa /= 10;
+			exponent++;
+			digits--;
+		}
+		if (exact && single && mantissa < FLOAT_EXACT_MANTISSA && Math.abs(exponent) < FLOAT_POWERS.length) {
+			float value = exponent >= 0 ? mantissa * FLOAT_POWERS[exponent] : mantissa / FLOAT_POWERS[-exponent];
+			return negative ? -value : value;
+		}
+		if (exact && !single && digits <= EXACT_DIGITS && Math.abs(exponent) < DOUBLE_POWERS.length) {
+			double value = exponent >= 0 ? mantissa * DOUBLE_POWERS[exponent] : mantissa / DOUBLE_POWERS[-exponent];
+			return negative ? -value : value;
+		}
+		String text = text(chars, bytes, start, to);
+		return single ? Float.parseFloat(text) : Double.parseDouble(text);
+	}
+
+	/**
+	 * Hexadecimal floating-point literals are rare enough to be left to the JDK, exceptions included.
+	 */
+	private static double parseHex(CharSequence chars, byte[] bytes, int from, int to, boolean single, double defaultValue) {
+		try {
+			String text = text(chars, bytes, from, to);
+			return single ? Float.parseFloat(text) : Double.parseDouble(text);
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	private static int at(CharSequence chars, byte[] bytes, int index) {
+		return chars != null ? chars.charAt(index) : bytes[index] & 0xFF;
+	}
+
+	private static int digit(CharSequence chars, byte[] bytes, int index) {
+		return chars != null ? Character.digit(chars.charAt(index), 10) : (bytes[index] >= '0' && bytes[index] <= '9' ? bytes[index] - '0' : -1);
+	}
+
+	private static boolean matches(CharSequence chars, byte[] bytes, int from, int to, String word) {
+		if (to - from != word.length()) {
+			return false;
+		}
+		for (int i = 0; i < word.length(); i++) {
+			if (at(chars, bytes, from + i) != word.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String text(CharSequence chars, byte[] bytes, int from, int to) {
+		return chars != null ? chars.subSequence(from, to).toString() : new String(bytes, from, to - from, StandardCharsets.ISO_8859_1);
+	}
+}
@@ -1,11 +1,22 @@
 package com.spring.vehicle.utils;
-import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
 public class TimeAgoUtils {
 
+    private static final String MORE_THAN_A_MONTH = "more than a month ago";
+
+    /**
+     * Labels of every elapsed amount below the next unit, built once: "0 seconds ago" .. "29 days ago"
+     */
+    private static final String[] SECONDS = labels(60, "second");
+    private static final String[] MINUTES = labels(60, "minute");
+    private static final String[] HOURS = labels(24, "hour");
+    private static final String[] DAYS = labels(30, "day");
+
     /**
      * Converts a given date to a human-readable "time ago" format.
      *
@@ -13,42 +24,83 @@ public class TimeAgoUtils {
      * @return A string representing how long ago the date was, e.g., "1 minute ago", "2 hours ago".
      */
     public static String timeAgo(Instant createdDate) {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime createdDateTime = toLocalDateTime(createdDate);
+        return timeAgo(createdDate, System.currentTimeMillis());
+    }
 
-        Duration duration = Duration.between(createdDateTime, now);
+    /**
+     * Converts a given date to a human-readable "time ago" format, relative to a given now.
+     * The label is one of a fixed set shared by every call, so nothing is allocated unless the date is in the future.
+     *
+     * @param createdDate The date to be converted.
+     * @param nowMillis   The current time, in epoch milliseconds.
+     * @return A string representing how long before now the date was.
+     */
+    public static String timeAgo(Instant createdDate, long nowMillis) {
+        // Whole seconds between the two instants, rounded down like Duration.getSeconds()
+        long seconds = Math.floorDiv(nowMillis, 1000) - createdDate.getEpochSecond();
+        if (Math.floorMod(nowMillis, 1000) * 1_000_000L < createdDate.getNano()) {
+            seconds--;
+        }
 
-        long seconds = duration.getSeconds();
         if (seconds < 60) {
-            return seconds + " second" + (seconds == 1 ? "" : "s") + " ago";
+            return seconds >= 0 ? SECONDS[(int) seconds] : label(seconds, "second");
         }
 
-        long minutes = duration.toMinutes();
+        long minutes = seconds / 60;
         if (minutes < 60) {
-            return minutes + " minute" + (minutes == 1 ? "" : "s") + " ago";
+            return MINUTES[(int) minutes];
         }
 
-        long hours = duration.toHours();
+        long hours = minutes / 60;
         if (hours < 24) {
-            return hours + " hour" + (hours == 1 ? "" : "s") + " ago";
+            return HOURS[(int) hours];
         }
 
-        long days = duration.toDays();
+        long days = hours / 24;
         if (days < 30) {
-            return days + " day" + (days == 1 ? "" : "s") + " ago";
+            return DAYS[(int) days];
         }
 
-        return "more than a month ago"; // For more than a month ago, you can extend this logic further
+        return MORE_THAN_A_MONTH; // For more than a month ago, you can extend this logic further
     }
 
     /**
-     * Converts a Date to LocalDateTime for comparison.
+     * Converts many dates to the "time ago" format against one and the same now, so the labels of a list are
+     * consistent with each other, and the clock is read once.
      *
-     * @param date The date to convert.
-     * @return A LocalDateTime object.
+     * @param createdDates The dates to be converted.
+     * @return The labels, in the order of the dates.
      */
-    private static LocalDateTime toLocalDateTime(Instant date) {
-        return LocalDateTime.ofInstant(date, java.time.ZoneId.systemDefault());
+    public static List<String> timeAgo(Collection<Instant> createdDates) {
+        return timeAgo(createdDates, System.currentTimeMillis());
+    }
+
+    /**
+     * Converts many dates to the "time ago" format, relative to a given now.
+     *
+     * @param createdDates The dates to be converted.
+     * @param nowMillis    The current time, in epoch milliseconds.
+     * @return The labels, in the order of the dates.
+     */
+    public static List<String> timeAgo(Collection<Instant> createdDates, long nowMillis) {
+        String[] labels = new String[createdDates.size()];
+        int i = 0;
+        for (Instant createdDate : createdDates) {
+            labels[i++] = timeAgo(createdDate, nowMillis);
+        }
+        return Arrays.asList(labels);
+    }
+
+    private static String[] labels(int count, String unit) {
+        String[] labels = new String[count];
+        for (int i = 0; i < count; i++) {
+            labels[i] = label(i, unit);
+        }
+        return labels;
+    }
+
+    private static String label(long amount, String unit) {
+        return amount + " " + unit + (amount == 1 ? "" : "s") + " ago";
     }
 
     public static void main(String[] args) {
@@ -56,4 +108,4 @@ public class TimeAgoUtils {
         Date createdDate = new Date(System.currentTimeMillis() - 5 * 60 * 1000); // 5 minutes ago
         System.out.println(timeAgo(createdDate.toInstant())); // Output: "5 minutes ago"
     }
-}
\ No newline at end of file
+}
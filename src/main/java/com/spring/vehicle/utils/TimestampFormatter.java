@@ -0,0 +1,63 @@
+package com.spring.vehicle.utils;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * TimestampFormatter class formats epoch milliseconds with a pattern of second resolution and reuses the formatted
+ * string of each second: timestamps of the same second, as in a burst of log lines or a page of audit records,
+ * are formatted once. Unlike {@link java.text.SimpleDateFormat} it is thread-safe.
+ * Recent seconds are kept in a small direct-mapped cache of immutable entries, so lookups take no lock.
+ *
+ * @author : Tom
+ * @since : 1.0.0
+ */
+public final class TimestampFormatter {
+
+	private static final int CACHE_SIZE = 64;
+
+	private final DateTimeFormatter formatter;
+	private final Entry[] cache = new Entry[CACHE_SIZE];
+
+	/**
+	 * @param pattern a {@link DateTimeFormatter} pattern without fraction of second fields
+	 * @param zone    the zone the timestamps are shown in
+	 */
+	public TimestampFormatter(String pattern, ZoneId zone) {
+		this.formatter = DateTimeFormatter.ofPattern(pattern).withZone(zone);
+	}
+
+	public String format(Instant instant) {
+		return format(instant.toEpochMilli());
+	}
+
+	public String format(long epochMillis) {
+		long second = Math.floorDiv(epochMillis, 1000);
+		int slot = (int) (second & (CACHE_SIZE - 1));
+		Entry entry = cache[slot];
+		if (entry == null || entry.second != second) {
+			entry = new Entry(second, formatter.format(Instant.ofEpochSecond(second)));
+			cache[slot] = entry; // benign race: entries are immutable, a lost write only costs a format
+		}
+		return entry.text;
+	}
+
+	/**
+	 * The current second of {@link CachedClock#SECONDS}.
+	 */
+	public String formatNow() {
+		return format(CachedClock.SECONDS.millis());
+	}
+
+	private static final class Entry {
+
+		private final long second;
+		private final String text;
+
+		private Entry(long second, String text) {
+			this.second = second;
+			this.text = text;
+		}
+	}
+}
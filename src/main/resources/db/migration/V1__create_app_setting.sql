@@ -0,0 +1,15 @@
+-- Baseline schema. Existing databases are baselined at this version (spring.flyway.baseline-on-migrate).
+CREATE TABLE IF NOT EXISTS app_setting (
+    id                 BIGINT       NOT NULL,
+    code               VARCHAR(64),
+    config_value       VARCHAR(255),
+    parent_code        VARCHAR(64),
+    name               VARCHAR(255),
+    memo               VARCHAR(255),
+    enabled            VARCHAR(8),
+    created_by         VARCHAR(64),
+    created_date       TIMESTAMP(6) NOT NULL,
+    last_modified_by   VARCHAR(64),
+    last_modified_date TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,2 @@
+-- Optimistic lock version of AppSetting, increased by every update of the row.
+ALTER TABLE app_setting ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
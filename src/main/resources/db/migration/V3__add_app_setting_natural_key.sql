@@ -0,0 +1,7 @@
+-- Natural key of AppSetting. Duplicates of (parent_code, code) are dropped first, keeping the newest row.
+DELETE FROM app_setting
+WHERE parent_code IS NOT NULL
+  AND code IS NOT NULL
+  AND id NOT IN (SELECT id FROM (SELECT MAX(id) AS id FROM app_setting GROUP BY parent_code, code) newest);
+
+CREATE UNIQUE INDEX uk_app_setting_parent_code_code ON app_setting (parent_code, code);
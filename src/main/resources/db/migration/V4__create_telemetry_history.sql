@@ -0,0 +1,26 @@
+-- Append-only history of the numeric telemetry values, one row per written value.
+-- On MySQL the table is range partitioned by day on sample_time (db/vendor/mysql/V5), so old days are dropped as
+-- whole partitions; V5 is therefore reserved for the vendor migration.
+CREATE TABLE IF NOT EXISTS telemetry_history (
+    parent_code  VARCHAR(64) NOT NULL,
+    code         VARCHAR(64) NOT NULL,
+    sample_time  BIGINT      NOT NULL,
+    version      BIGINT      NOT NULL,
+    sample_value INT         NOT NULL,
+    PRIMARY KEY (parent_code, code, sample_time, version)
+);
+
+-- Rollups of telemetry_history per 1 minute, 1 hour and 1 day bucket, merged by the history writer.
+CREATE TABLE IF NOT EXISTS telemetry_rollup (
+    parent_code  VARCHAR(64) NOT NULL,
+    code         VARCHAR(64) NOT NULL,
+    resolution   VARCHAR(4)  NOT NULL,
+    bucket_start BIGINT      NOT NULL,
+    min_value    INT         NOT NULL,
+    max_value    INT         NOT NULL,
+    sum_value    BIGINT      NOT NULL,
+    sample_count BIGINT      NOT NULL,
+    latest_value INT         NOT NULL,
+    latest_time  BIGINT      NOT NULL,
+    PRIMARY KEY (parent_code, code, resolution, bucket_start)
+);
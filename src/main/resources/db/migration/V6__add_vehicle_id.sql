@@ -0,0 +1,13 @@
+-- Vehicle id as the leading partition key of settings and telemetry history. Existing rows belong to vehicle 0,
+-- the single vehicle of earlier deployments.
+ALTER TABLE app_setting ADD COLUMN vehicle_id BIGINT NOT NULL DEFAULT 0;
+DROP INDEX uk_app_setting_parent_code_code ON app_setting;
+CREATE UNIQUE INDEX uk_app_setting_vehicle_parent_code ON app_setting (vehicle_id, parent_code, code);
+
+ALTER TABLE telemetry_history ADD COLUMN vehicle_id BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE telemetry_history DROP PRIMARY KEY;
+ALTER TABLE telemetry_history ADD PRIMARY KEY (vehicle_id, parent_code, code, sample_time, version);
+
+ALTER TABLE telemetry_rollup ADD COLUMN vehicle_id BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE telemetry_rollup DROP PRIMARY KEY;
+ALTER TABLE telemetry_rollup ADD PRIMARY KEY (vehicle_id, parent_code, code, resolution, bucket_start);
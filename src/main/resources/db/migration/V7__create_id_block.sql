@@ -0,0 +1,8 @@
+-- Next free id per table, reserved in blocks by IdAllocator. Seeded after the ids already in use.
+CREATE TABLE IF NOT EXISTS id_block (
+    table_name VARCHAR(64) NOT NULL,
+    next_id    BIGINT      NOT NULL,
+    PRIMARY KEY (table_name)
+);
+
+INSERT INTO id_block (table_name, next_id) SELECT 'app_setting', COALESCE(MAX(id), 0) + 1 FROM app_setting;
@@ -0,0 +1,114 @@
+package com.spring.vehicle.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Latency of a log call on request threads, with the appender pipeline of logback.xml in front of a disk that stalls
+ * on every write: synchronously, each call waits for the disk; behind the async appender, a call only enqueues, and
+ * INFO events are dropped rather than waited for once the queue is nearly full.
+ * The sample-time percentiles are the point: the tail of the async pipeline stays free of the disk stall.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AsyncLoggingBenchmark {
+
+	/**
+	 * Time a write spends on the simulated disk
+	 */
+	private static final long STALL_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+	@Param({"sync", "async"})
+	public String pipeline;
+
+	private LoggerContext context;
+	private Logger logger;
+	private Path file;
+	private final Map<String, String> configValues = Map.of("APP_SETTING_RPM", "1200", "APP_SETTING_BATTERY", "87");
+
+	@Setup
+	public void setUp() throws IOException {
+		context = new LoggerContext();
+		file = Files.createTempFile("async-logging", ".log");
+
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(context);
+		encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n");
+		encoder.start();
+
+		OutputStreamAppender<ILoggingEvent> disk = new OutputStreamAppender<>();
+		disk.setContext(context);
+		disk.setEncoder(encoder);
+		disk.setImmediateFlush(false);
+		disk.setOutputStream(new StallingOutputStream(Files.newOutputStream(file)));
+		disk.start();
+
+		Appender<ILoggingEvent> appender = disk;
+		if ("async".equals(pipeline)) {
+			AsyncAppender async = new AsyncAppender();
+			async.setContext(context);
+			async.setQueueSize(8192);
+			async.addAppender(disk);
+			async.start();
+			appender = async;
+		}
+
+		logger = context.getLogger("com.spring.vehicle.service.AppSettingService");
+		logger.setLevel(Level.INFO);
+		logger.setAdditive(false);
+		logger.addAppender(appender);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		context.stop();
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public void info() {
+		logger.info("Updating AppSetting codes of {}: {}", 42L, configValues);
+	}
+
+	@Benchmark
+	public void debugDisabled() {
+		logger.debug("Updating AppSetting codes of {}: {}", 42L, configValues);
+	}
+
+	/**
+	 * A disk whose every write takes {@link #STALL_NANOS}.
+	 */
+	private static final class StallingOutputStream extends FilterOutputStream {
+
+		StallingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			LockSupport.parkNanos(STALL_NANOS);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.spring.vehicle.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one latency sample, as paid by every request, repository invocation and scheduler tick: the two clock
+ * reads alone, then recorded into a Prometheus timer with and without a percentile histogram.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MeterOverheadBenchmark {
+
+	private Timer timer;
+	private Timer histogramTimer;
+
+	@Setup
+	public void setUp() {
+		PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+		timer = Timer.builder("bench.timer").register(registry);
+		histogramTimer = Timer.builder("bench.histogram")
+				.publishPercentileHistogram()
+				.minimumExpectedValue(Duration.ofNanos(100_000))
+				.maximumExpectedValue(Duration.ofSeconds(10))
+				.register(registry);
+	}
+
+	@Benchmark
+	public long clockOnly() {
+		long start = System.nanoTime();
+		return System.nanoTime() - start;
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void timer() {
+		long start = System.nanoTime();
+		timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void histogramTimer() {
+		long start = System.nanoTime();
+		histogramTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void histogramTimerContended() {
+		long start = System.nanoTime();
+		histogramTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+}
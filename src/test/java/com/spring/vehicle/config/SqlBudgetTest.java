@@ -0,0 +1,128 @@
+package com.spring.vehicle.config;
+
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.exception.SqlBudgetExceededException;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.repository.AppSettingRepository;
+import com.spring.vehicle.schedule.ChargingSchedule;
+import com.spring.vehicle.service.AppSettingService;
+import com.spring.vehicle.service.TelemetryStateStore;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The endpoints, the scheduler tick and the write-behind flush run within their SQL statement budgets on the embedded database; the test
+ * profile fails any request or tick over budget.
+ */
+@SpringBootTest(properties = {"app.telemetry.flush-interval=3600000", "app.telemetry.history.flush-interval=3600000"})
+@AutoConfigureMockMvc
+@ActiveProfiles({"dev", "test"})
+class SqlBudgetTest {
+
+	private static final Map<String, String> INITIAL_VALUES = Map.of(
+			Constants.SETTING_RPM, "1200",
+			Constants.SETTING_POWER, "1000",
+			Constants.SETTING_BATTERY, "50",
+			Constants.SETTING_IS_CHARGING, "0",
+			Constants.SETTING_TEMPERATURE, "30",
+			Constants.SETTING_GEAR_RATIO, "N");
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private AppSettingService appSettingService;
+	@Autowired
+	private AppSettingRepository appSettingRepository;
+	@Autowired
+	private ChargingSchedule chargingSchedule;
+	@Autowired
+	private SqlBudgetGuard sqlBudgetGuard;
+	@Autowired
+	private TelemetryStateStore telemetryStateStore;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void setUp() {
+		appSettingService.provisionAppSettings(List.of(0L, 1L, 2L), Constants.SETTING, INITIAL_VALUES);
+	}
+
+	@Test
+	void settingEndpointsStayWithinBudget() throws Exception {
+		mockMvc.perform(get("/v1/settings")).andExpect(status().isOk());
+		mockMvc.perform(put("/v1/settings").contentType(MediaType.APPLICATION_JSON)
+						.content("[{\"parentCode\":\"APP_SETTING\",\"code\":\"APP_SETTING_RPM\",\"configValue\":\"900\"}]"))
+				.andExpect(status().isOk());
+		mockMvc.perform(put("/v1/setting").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"parentCode\":\"APP_SETTING\",\"code\":\"APP_SETTING_BATTERY\",\"configValue\":\"60\"}"))
+				.andExpect(status().isOk());
+
+		long id = appSettingRepository.findByNaturalId(0, Constants.SETTING, Constants.SETTING_RPM).orElseThrow().getId();
+		mockMvc.perform(get("/v1/setting/{id}", id)).andExpect(status().isOk());
+		mockMvc.perform(get("/v1/settings/history").param("code", Constants.SETTING_RPM)).andExpect(status().isOk());
+		mockMvc.perform(get("/v1/settings/cache/stats")).andExpect(status().isOk());
+		mockMvc.perform(get("/v1/settings/cache/entity/stats")).andExpect(status().isOk());
+	}
+
+	@Test
+	void vehicleEndpointsStayWithinBudget() throws Exception {
+		mockMvc.perform(get("/v1/vehicles/{vehicleId}/settings", 1)).andExpect(status().isOk());
+		mockMvc.perform(put("/v1/vehicles/{vehicleId}/settings", 1).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"APP_SETTING_RPM\":\"900\",\"APP_SETTING_BATTERY\":\"40\"}"))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/v1/vehicles/settings").param("ids", "0", "1", "2")).andExpect(status().isOk());
+	}
+
+	@Test
+	void tickStaysWithinBudget() {
+		assertDoesNotThrow(chargingSchedule::resetAppSetting);
+		assertDoesNotThrow(chargingSchedule::resetAppSetting);
+	}
+
+	@Test
+	void tickAndFlushExecuteTheirExactStatements() {
+		chargingSchedule.resetAppSetting();
+		telemetryStateStore.flush();
+		// the ids of a flush would otherwise come from the query cache of an earlier one
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+		long start = SqlBudgetGuard.statementCount();
+		chargingSchedule.resetAppSetting();
+		assertEquals(0, SqlBudgetGuard.statementCount() - start, "tick on loaded settings");
+
+		Map<String, String> values = telemetryStateStore.get(SettingKey.of(Constants.SETTING));
+		telemetryStateStore.flush();
+		// one batched update of the changed codes and one select of their ids
+		assertEquals(2, SqlBudgetGuard.statementCount() - start, "tick and flush");
+
+		appSettingRepository.findValuesByVehicleIdAndParentCode(0, Constants.SETTING)
+				.forEach(value -> assertEquals(values.get(value.getCode()), value.getConfigValue(), value.getCode()));
+	}
+
+	@Test
+	void exceededBudgetFails() {
+		assertThrows(SqlBudgetExceededException.class, () -> {
+			try (SqlBudgetGuard.Scope ignored = sqlBudgetGuard.open("test", 0)) {
+				appSettingRepository.findValuesByVehicleIdAndParentCode(0, Constants.SETTING);
+			}
+		});
+	}
+}
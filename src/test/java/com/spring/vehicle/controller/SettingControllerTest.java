@@ -0,0 +1,128 @@
+package com.spring.vehicle.controller;
+
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.repository.AppSettingRepository;
+import com.spring.vehicle.schedule.ChargingSchedule;
+import com.spring.vehicle.service.AppSettingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Conditional reads and writes of the dashboard settings; the scheduler is mocked so that only the test writes them.
+ */
+@SpringBootTest(properties = {"app.telemetry.flush-interval=3600000", "app.telemetry.history.flush-interval=3600000"})
+@AutoConfigureMockMvc
+@ActiveProfiles({"dev", "test"})
+class SettingControllerTest {
+
+	static final Map<String, String> INITIAL_VALUES = Map.of(
+			Constants.SETTING_RPM, "1200",
+			Constants.SETTING_POWER, "1000",
+			Constants.SETTING_BATTERY, "50",
+			Constants.SETTING_IS_CHARGING, "0",
+			Constants.SETTING_TEMPERATURE, "30",
+			Constants.SETTING_GEAR_RATIO, "N");
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private AppSettingService appSettingService;
+	@Autowired
+	private AppSettingRepository appSettingRepository;
+	@MockBean
+	private ChargingSchedule chargingSchedule;
+
+	@BeforeEach
+	void setUp() {
+		appSettingService.provisionAppSettings(List.of(0L, 1L, 2L), Constants.SETTING, INITIAL_VALUES);
+	}
+
+	@Test
+	void settingsAreTaggedWithTheVersionOfTheirBody() throws Exception {
+		String written = mockMvc.perform(put("/v1/settings").contentType(MediaType.APPLICATION_JSON)
+								.content("[{\"parentCode\":\"APP_SETTING\",\"code\":\"APP_SETTING_RPM\",\"configValue\":\"900\"}]"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/v1/settings"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, written))
+				.andExpect(jsonPath("$.rpm").value("900"));
+		mockMvc.perform(get("/v1/settings").header(HttpHeaders.IF_NONE_MATCH, written))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, written))
+				.andExpect(content().string(""));
+
+		appSettingService.updateAppSettings(SettingKey.of(Constants.SETTING), Map.of(Constants.SETTING_RPM, "950"), null);
+		String current = mockMvc.perform(get("/v1/settings").header(HttpHeaders.IF_NONE_MATCH, written))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.rpm").value("950"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(written, current);
+	}
+
+	@Test
+	void settingsReadByIdShowWritesNotFlushedYet() throws Exception {
+		Long id = appSettingRepository.findByParentCode(Constants.SETTING).stream()
+				.filter(appSetting -> appSetting.getVehicleId() == SettingKey.DEFAULT_VEHICLE && Constants.SETTING_BATTERY.equals(appSetting.getCode()))
+				.findFirst().orElseThrow().getId();
+		appSettingService.updateAppSettings(SettingKey.of(Constants.SETTING), Map.of(Constants.SETTING_BATTERY, "42"), null);
+
+		mockMvc.perform(get("/v1/setting/{id}", id))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.configValue").value("42"));
+		assertEquals("42", appSettingService.findByParentCode(Constants.SETTING).orElseThrow().stream()
+				.filter(response -> response.getId().equals(id))
+				.findFirst().orElseThrow().getConfigValue());
+	}
+
+	@Test
+	void writesAnswerWithTheSettingsTheyProduced() throws Exception {
+		String eTag = mockMvc.perform(put("/v1/settings").contentType(MediaType.APPLICATION_JSON)
+								.content("[{\"parentCode\":\"APP_SETTING\",\"code\":\"APP_SETTING_BATTERY\",\"configValue\":\"70\"},"
+										+ "{\"parentCode\":\"APP_SETTING\",\"code\":\"APP_SETTING_GEAR_RATIO\",\"configValue\":\"D\"}]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.battery").value("70"))
+				.andExpect(jsonPath("$.gearRatio").value("D"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		assertEquals(eTag, "\"" + appSettingService.getVersionedSetting(SettingKey.of(Constants.SETTING)).orElseThrow().getVersion() + "\"");
+		mockMvc.perform(get("/v1/settings").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void writesMixingSettingsAreRejected() throws Exception {
+		String eTag = mockMvc.perform(get("/v1/settings")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(put("/v1/settings").contentType(MediaType.APPLICATION_JSON)
+						.content("[{\"parentCode\":\"APP_SETTING\",\"code\":\"APP_SETTING_RPM\",\"configValue\":\"800\"},"
+								+ "{\"vehicleId\":1,\"parentCode\":\"APP_SETTING\",\"code\":\"APP_SETTING_RPM\",\"configValue\":\"800\"}]"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(put("/v1/settings").contentType(MediaType.APPLICATION_JSON)
+						.content("[{\"parentCode\":\"APP_SETTING\",\"code\":\"APP_SETTING_RPM\",\"configValue\":\"800\"},"
+								+ "{\"parentCode\":\"APP_SETTING\",\"code\":\"APP_SETTING_RPM\",\"configValue\":\"700\"}]"))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(get("/v1/settings").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+	}
+}
@@ -0,0 +1,133 @@
+package com.spring.vehicle.controller;
+
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.schedule.ChargingSchedule;
+import com.spring.vehicle.service.AppSettingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Conditional reads and writes of the settings of single vehicles, and reads of many vehicles at once.
+ */
+@SpringBootTest(properties = {"app.telemetry.flush-interval=3600000", "app.telemetry.history.flush-interval=3600000"})
+@AutoConfigureMockMvc
+@ActiveProfiles({"dev", "test"})
+class VehicleControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private AppSettingService appSettingService;
+	@MockBean
+	private ChargingSchedule chargingSchedule;
+
+	@BeforeEach
+	void setUp() {
+		appSettingService.provisionAppSettings(List.of(0L, 1L, 2L), Constants.SETTING, SettingControllerTest.INITIAL_VALUES);
+	}
+
+	@Test
+	void unchangedSettingsAreNotModified() throws Exception {
+		String eTag = mockMvc.perform(get("/v1/vehicles/{vehicleId}/settings", 1))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get("/v1/vehicles/{vehicleId}/settings", 1).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+
+		appSettingService.updateAppSettings(SettingKey.of(1, Constants.SETTING), Map.of(Constants.SETTING_BATTERY, "45"), null);
+		String current = mockMvc.perform(get("/v1/vehicles/{vehicleId}/settings", 1).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.battery").value("45"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(eTag, current);
+	}
+
+	@Test
+	void staleIfMatchFailsThePrecondition() throws Exception {
+		String read = mockMvc.perform(get("/v1/vehicles/{vehicleId}/settings", 2)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(put("/v1/vehicles/{vehicleId}/settings", 2).header(HttpHeaders.IF_MATCH, read)
+						.contentType(MediaType.APPLICATION_JSON).content("{\"APP_SETTING_BATTERY\":\"35\"}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(put("/v1/vehicles/{vehicleId}/settings", 2).header(HttpHeaders.IF_MATCH, read)
+						.contentType(MediaType.APPLICATION_JSON).content("{\"APP_SETTING_BATTERY\":\"30\"}"))
+				.andExpect(status().isPreconditionFailed())
+				.andExpect(jsonPath("$.status").value(412));
+		mockMvc.perform(put("/v1/vehicles/{vehicleId}/settings", 2).header(HttpHeaders.IF_MATCH, read)
+						.contentType(MediaType.APPLICATION_JSON).content("{\"APP_SETTING_GEAR_RATIO\":\"R\"}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.battery").value("35"));
+		mockMvc.perform(put("/v1/vehicles/{vehicleId}/settings", 2).header(HttpHeaders.IF_MATCH, "*")
+						.contentType(MediaType.APPLICATION_JSON).content("{\"APP_SETTING_BATTERY\":\"30\"}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.battery").value("30"));
+	}
+
+	@Test
+	void ifMatchOnlyAcceptsOneStrongETag() throws Exception {
+		String read = mockMvc.perform(get("/v1/vehicles/{vehicleId}/settings", 0)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(put("/v1/vehicles/{vehicleId}/settings", 0).header(HttpHeaders.IF_MATCH, "W/" + read)
+						.contentType(MediaType.APPLICATION_JSON).content("{\"APP_SETTING_BATTERY\":\"35\"}"))
+				.andExpect(status().isPreconditionFailed());
+
+		String version = read.substring(1, read.length() - 1);
+		for (String malformed : List.of(version, "\"" + version, read + ", " + read, "\"\"", "\"-1\"", "\"1 \"",
+				"\"0x1\"", "\"99999999999999999999\"")) {
+			mockMvc.perform(put("/v1/vehicles/{vehicleId}/settings", 0).header(HttpHeaders.IF_MATCH, malformed)
+							.contentType(MediaType.APPLICATION_JSON).content("{\"APP_SETTING_BATTERY\":\"35\"}"))
+					.andExpect(status().isBadRequest());
+		}
+
+		mockMvc.perform(put("/v1/vehicles/{vehicleId}/settings", 0).header(HttpHeaders.IF_MATCH, read)
+						.contentType(MediaType.APPLICATION_JSON).content("{\"APP_SETTING_BATTERY\":\"35\"}"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void vehiclesAreWrittenIndependently() throws Exception {
+		String vehicle2 = mockMvc.perform(get("/v1/vehicles/{vehicleId}/settings", 2)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(put("/v1/vehicles/{vehicleId}/settings", 1)
+						.contentType(MediaType.APPLICATION_JSON).content("{\"APP_SETTING_RPM\":\"1111\"}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/v1/vehicles/{vehicleId}/settings", 2).header(HttpHeaders.IF_NONE_MATCH, vehicle2))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/v1/vehicles/settings").param("ids", "1,2,404"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.1.rpm").value("1111"))
+				.andExpect(jsonPath("$.2").exists())
+				.andExpect(jsonPath("$.404").doesNotExist());
+	}
+
+	@Test
+	void bulkReadsAreBounded() throws Exception {
+		String tooMany = LongStream.rangeClosed(1, 1001).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+		mockMvc.perform(get("/v1/vehicles/settings").param("ids", tooMany))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/v1/vehicles/settings").param("ids", ""))
+				.andExpect(status().isBadRequest());
+	}
+}
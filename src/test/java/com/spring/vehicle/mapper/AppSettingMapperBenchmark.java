@@ -0,0 +1,68 @@
+package com.spring.vehicle.mapper;
+
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.model.entity.AppSetting;
+import com.spring.vehicle.payload.setting.AppSettingResponse;
+import com.spring.vehicle.payload.setting.SettingResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of the settings of one vehicle into the payloads served by the settings endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AppSettingMapperBenchmark {
+
+	private final AppSettingMapper appSettingMapper = new AppSettingMapper();
+
+	private Map<String, String> configValues;
+	private List<AppSettingResponse> codes;
+	private AppSetting appSetting;
+
+	@Setup
+	public void setUp() {
+		configValues = new LinkedHashMap<>();
+		configValues.put(Constants.SETTING_RPM, "1200");
+		configValues.put(Constants.SETTING_POWER, "1000");
+		configValues.put(Constants.SETTING_BATTERY, "87");
+		configValues.put(Constants.SETTING_IS_CHARGING, "0");
+		configValues.put(Constants.SETTING_TEMPERATURE, "36");
+		configValues.put(Constants.SETTING_GEAR_RATIO, "N");
+		codes = configValues.entrySet().stream()
+				.map(entry -> AppSettingResponse.builder().code(entry.getKey()).configValue(entry.getValue()).build())
+				.toList();
+
+		appSetting = new AppSetting();
+		appSetting.setId(1L);
+		appSetting.setVehicleId(0L);
+		appSetting.setParentCode(Constants.SETTING);
+		appSetting.setCode(Constants.SETTING_RPM);
+		appSetting.setConfigValue("1200");
+		appSetting.setName("rpm");
+		appSetting.setEnabled("1");
+	}
+
+	@Benchmark
+	public SettingResponse getSettingResponseFromMap() {
+		return appSettingMapper.getSettingResponse(configValues);
+	}
+
+	@Benchmark
+	public SettingResponse getSettingResponseFromList() {
+		return appSettingMapper.getSettingResponse(codes);
+	}
+
+	@Benchmark
+	public AppSettingResponse mapToAppSettingResponse() {
+		return appSettingMapper.mapToAppSettingResponse(appSetting);
+	}
+}
@@ -0,0 +1,41 @@
+package com.spring.vehicle.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Choice of the history resolution at the boundaries of the minimum number of points, and the bucket of a time.
+ */
+class TelemetryResolutionTest {
+
+	private static final int MIN_POINTS = 60;
+
+	@Test
+	void coarsestResolutionWithEnoughPointsIsChosen() {
+		assertEquals(TelemetryResolution.DAY, TelemetryResolution.forRange(MIN_POINTS * TelemetryResolution.DAY.getMillis(), MIN_POINTS));
+		assertEquals(TelemetryResolution.HOUR, TelemetryResolution.forRange(MIN_POINTS * TelemetryResolution.DAY.getMillis() - 1, MIN_POINTS));
+		assertEquals(TelemetryResolution.HOUR, TelemetryResolution.forRange(MIN_POINTS * TelemetryResolution.HOUR.getMillis(), MIN_POINTS));
+		assertEquals(TelemetryResolution.MINUTE, TelemetryResolution.forRange(MIN_POINTS * TelemetryResolution.HOUR.getMillis() - 1, MIN_POINTS));
+		assertEquals(TelemetryResolution.MINUTE, TelemetryResolution.forRange(MIN_POINTS * TelemetryResolution.MINUTE.getMillis(), MIN_POINTS));
+		assertEquals(TelemetryResolution.RAW, TelemetryResolution.forRange(MIN_POINTS * TelemetryResolution.MINUTE.getMillis() - 1, MIN_POINTS));
+		assertEquals(TelemetryResolution.RAW, TelemetryResolution.forRange(1, MIN_POINTS));
+	}
+
+	@Test
+	void minPointsMovesTheBoundaries() {
+		assertEquals(TelemetryResolution.DAY, TelemetryResolution.forRange(TelemetryResolution.DAY.getMillis(), 1));
+		assertEquals(TelemetryResolution.HOUR, TelemetryResolution.forRange(TelemetryResolution.DAY.getMillis(), 2));
+		assertEquals(TelemetryResolution.MINUTE, TelemetryResolution.forRange(TelemetryResolution.HOUR.getMillis(), 2));
+		assertEquals(TelemetryResolution.MINUTE, TelemetryResolution.forRange(TelemetryResolution.DAY.getMillis(), 1440));
+		assertEquals(TelemetryResolution.RAW, TelemetryResolution.forRange(TelemetryResolution.DAY.getMillis(), 1441));
+		assertEquals(TelemetryResolution.RAW, TelemetryResolution.forRange(TelemetryResolution.MINUTE.getMillis() - 1, 1));
+	}
+
+	@Test
+	void bucketsStartAtMultiplesOfTheResolution() {
+		assertEquals(120_000, TelemetryResolution.MINUTE.bucketStart(120_000));
+		assertEquals(120_000, TelemetryResolution.MINUTE.bucketStart(179_999));
+		assertEquals(-60_000, TelemetryResolution.MINUTE.bucketStart(-1));
+	}
+}
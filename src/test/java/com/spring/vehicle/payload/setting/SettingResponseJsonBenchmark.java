@@ -0,0 +1,65 @@
+package com.spring.vehicle.payload.setting;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the settings payloads with the Jackson configuration of the HTTP message converters:
+ * one vehicle, as served by {@code GET /settings}, and a page of vehicles, as served by {@code GET /vehicles/settings}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SettingResponseJsonBenchmark {
+
+	private static final int VEHICLES = 100;
+
+	private ObjectWriter settingWriter;
+	private ObjectWriter vehiclesWriter;
+	private SettingResponse settingResponse;
+	private Map<Long, SettingResponse> vehicles;
+
+	@Setup
+	public void setUp() {
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		settingWriter = objectMapper.writerFor(SettingResponse.class);
+		vehiclesWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructMapType(Map.class, Long.class, SettingResponse.class));
+
+		settingResponse = settingResponse(0);
+		vehicles = new LinkedHashMap<>();
+		for (long vehicleId = 0; vehicleId < VEHICLES; vehicleId++) {
+			vehicles.put(vehicleId, settingResponse((int) vehicleId));
+		}
+	}
+
+	@Benchmark
+	public byte[] settingResponse() throws JsonProcessingException {
+		return settingWriter.writeValueAsBytes(settingResponse);
+	}
+
+	@Benchmark
+	public byte[] vehicleSettings() throws JsonProcessingException {
+		return vehiclesWriter.writeValueAsBytes(vehicles);
+	}
+
+	private static SettingResponse settingResponse(int seed) {
+		SettingResponse response = new SettingResponse();
+		response.setRpm(Integer.toString(800 + seed * 10));
+		response.setPower("1000");
+		response.setBattery(Integer.toString(seed % 101));
+		response.setIsCharging(seed % 4 == 0);
+		response.setTemperature("36");
+		response.setGearRatio("N");
+		return response;
+	}
+}
@@ -0,0 +1,68 @@
+package com.spring.vehicle.repository;
+
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.model.entity.AppSetting;
+import com.spring.vehicle.service.AppSettingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AppSetting reads are served by the second-level cache, and the JDBC batch updates evict the rows they change
+ * so that the next read sees the new values.
+ */
+@SpringBootTest(properties = {"app.telemetry.flush-interval=3600000", "app.telemetry.history.flush-interval=3600000"})
+@ActiveProfiles({"dev", "test"})
+class AppSettingCacheTest {
+
+	private static final long VEHICLE_ID = 7L;
+
+	@Autowired
+	private AppSettingService appSettingService;
+	@Autowired
+	private AppSettingRepository appSettingRepository;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setUp() {
+		appSettingService.provisionAppSettings(List.of(VEHICLE_ID), Constants.SETTING, Map.of(Constants.SETTING_RPM, "1200"));
+		transactionTemplate.executeWithoutResult(status -> appSettingRepository.updateConfigValues(VEHICLE_ID, Constants.SETTING,
+				Map.of(Constants.SETTING_RPM, "1200")));
+	}
+
+	@Test
+	void readsAreCached() {
+		long id = appSettingRepository.findByNaturalId(VEHICLE_ID, Constants.SETTING, Constants.SETTING_RPM).orElseThrow().getId();
+		appSettingRepository.findById(id).orElseThrow();
+
+		assertTrue(entityManagerFactory.getCache().contains(AppSetting.class, id));
+		long hits = appSettingService.getEntityCacheStats().getSecondLevelCacheHitCount();
+		appSettingRepository.findById(id).orElseThrow();
+		assertTrue(appSettingService.getEntityCacheStats().getSecondLevelCacheHitCount() > hits);
+	}
+
+	@Test
+	void batchUpdateEvictsChangedRows() {
+		assertEquals("1200", appSettingRepository.findByNaturalId(VEHICLE_ID, Constants.SETTING, Constants.SETTING_RPM)
+				.orElseThrow().getConfigValue());
+
+		transactionTemplate.executeWithoutResult(status -> appSettingRepository.updateConfigValues(VEHICLE_ID, Constants.SETTING,
+				Map.of(Constants.SETTING_RPM, "900")));
+
+		assertEquals("900", appSettingRepository.findByNaturalId(VEHICLE_ID, Constants.SETTING, Constants.SETTING_RPM)
+				.orElseThrow().getConfigValue());
+	}
+}
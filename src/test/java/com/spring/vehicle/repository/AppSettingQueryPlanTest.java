@@ -0,0 +1,282 @@
+package com.spring.vehicle.repository;
+
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.model.entity.AppSetting;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the migrations on an embedded database and checks that the AppSetting lookups are served by the
+ * (vehicle_id, parent_code, code) index instead of a table scan. The lookups run through the repository on Hibernate,
+ * and the statements it sends are captured by a datasource-proxy listener and explained with their parameters.
+ */
+class AppSettingQueryPlanTest {
+
+	private static final String INDEX = "UK_APP_SETTING_VEHICLE_PARENT_CODE";
+
+	private static final String INSERT = "insert into app_setting (id, code, config_value, parent_code, created_date, last_modified_date) "
+			+ "values (?, ?, ?, ?, current_timestamp, current_timestamp)";
+
+	private static final String INSERT_VEHICLE = "insert into app_setting (id, code, config_value, parent_code, vehicle_id, created_date, last_modified_date) "
+			+ "values (?, ?, ?, ?, ?, current_timestamp, current_timestamp)";
+
+	private JdbcDataSource dataSource;
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void setUp() {
+		dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+		dataSource.setUser("sa");
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (entityManagerFactory != null) {
+			entityManagerFactory.close();
+		}
+	}
+
+	@Test
+	void naturalIdLookupUsesUniqueIndex() throws SQLException {
+		migrate(null);
+		insertVehicles(2_000);
+
+		List<CapturedQuery> queries = capture(repository -> assertTrue(
+				repository.findByNaturalId(1234L, Constants.SETTING, Constants.SETTING_RPM).isPresent()));
+
+		assertUseIndex(queries);
+	}
+
+	@Test
+	void vehicleLookupUsesIndexPrefix() throws SQLException {
+		migrate(null);
+		insertVehicles(2_000);
+
+		List<CapturedQuery> queries = capture(repository -> assertEquals(5,
+				repository.findValuesByVehicleIdAndParentCode(1234L, Constants.SETTING).size()));
+
+		assertUseIndex(queries);
+	}
+
+	@Test
+	void bulkVehicleLookupUsesIndexPrefix() throws SQLException {
+		migrate(null);
+		insertVehicles(2_000);
+
+		List<CapturedQuery> queries = capture(repository -> assertEquals(15,
+				repository.findValuesByVehicleIdInAndParentCode(List.of(12L, 345L, 1234L), Constants.SETTING).size()));
+
+		assertUseIndex(queries);
+	}
+
+	@Test
+	void sameCodeOfAnotherVehicleIsAccepted() throws SQLException {
+		migrate(null);
+		insertVehicle(1, 1, "APP_SETTING", "APP_SETTING_RPM");
+
+		assertDoesNotThrow(() -> insertVehicle(2, 2, "APP_SETTING", "APP_SETTING_RPM"));
+		assertThrows(SQLException.class, () -> insertVehicle(3, 2, "APP_SETTING", "APP_SETTING_RPM"));
+	}
+
+	@Test
+	void duplicateNaturalKeyIsRejected() throws SQLException {
+		migrate(null);
+		insert(1, "SETTING", "APP_SETTING_RPM", "0");
+
+		assertThrows(SQLException.class, () -> insert(2, "SETTING", "APP_SETTING_RPM", "1"));
+	}
+
+	@Test
+	void migrationKeepsNewestDuplicate() throws SQLException {
+		migrate("2");
+		insert(1, "SETTING", "APP_SETTING_RPM", "0");
+		insert(2, "SETTING", "APP_SETTING_RPM", "1");
+		insert(3, "SETTING", "APP_SETTING_POWER", "100");
+
+		migrate(null);
+
+		try (Connection connection = dataSource.getConnection();
+			 Statement statement = connection.createStatement();
+			 ResultSet resultSet = statement.executeQuery("select id from app_setting order by id")) {
+			assertTrue(resultSet.next());
+			assertEquals(2, resultSet.getLong(1));
+			assertTrue(resultSet.next());
+			assertEquals(3, resultSet.getLong(1));
+			assertFalse(resultSet.next());
+		}
+	}
+
+	private void migrate(String target) {
+		Flyway.configure()
+			  .dataSource(dataSource)
+			  .target(target == null ? "latest" : target)
+			  .load()
+			  .migrate();
+	}
+
+	private void insertVehicles(int vehicles) throws SQLException {
+		String[] codes = {"APP_SETTING_RPM", "APP_SETTING_POWER", "APP_SETTING_BATTERY", "APP_SETTING_TEMPERATURE", "APP_SETTING_IS_CHARGING"};
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement statement = connection.prepareStatement(INSERT_VEHICLE)) {
+			long id = 1;
+			for (int vehicle = 0; vehicle < vehicles; vehicle++) {
+				for (String code : codes) {
+					statement.setLong(1, id++);
+					statement.setString(2, code);
+					statement.setString(3, "0");
+					statement.setString(4, "APP_SETTING");
+					statement.setLong(5, vehicle);
+					statement.addBatch();
+				}
+			}
+			statement.executeBatch();
+		}
+		try (Connection connection = dataSource.getConnection();
+			 Statement statement = connection.createStatement()) {
+			statement.execute("analyze");
+		}
+	}
+
+	private void insert(long id, String parentCode, String code, String configValue) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement statement = connection.prepareStatement(INSERT)) {
+			statement.setLong(1, id);
+			statement.setString(2, code);
+			statement.setString(3, configValue);
+			statement.setString(4, parentCode);
+			statement.executeUpdate();
+		}
+	}
+
+	private void insertVehicle(long id, long vehicleId, String parentCode, String code) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement statement = connection.prepareStatement(INSERT_VEHICLE)) {
+			statement.setLong(1, id);
+			statement.setString(2, code);
+			statement.setString(3, "0");
+			statement.setString(4, parentCode);
+			statement.setLong(5, vehicleId);
+			statement.executeUpdate();
+		}
+	}
+
+	/**
+	 * Run a lookup through the repository on Hibernate, over a data source proxy recording every statement sent.
+	 *
+	 * @return the statements the lookup sent, with their parameters
+	 */
+	private List<CapturedQuery> capture(Consumer<AppSettingRepository> lookup) {
+		List<CapturedQuery> queries = new ArrayList<>();
+		DataSource proxy = ProxyDataSourceBuilder.create(dataSource).listener(new QueryExecutionListener() {
+			@Override
+			public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+			}
+
+			@Override
+			public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+				for (QueryInfo queryInfo : queryInfoList) {
+					List<ParameterSetOperation> operations = queryInfo.getParametersList().isEmpty()
+							? List.of() : queryInfo.getParametersList().get(0);
+					Object[] parameters = operations.stream()
+							.sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+							.map(operation -> operation.getArgs()[1])
+							.toArray();
+					queries.add(new CapturedQuery(queryInfo.getQuery(), parameters));
+				}
+			}
+		}).build();
+
+		LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+		factory.setDataSource(proxy);
+		factory.setPackagesToScan(AppSetting.class.getPackageName());
+		factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		factory.setJpaPropertyMap(Map.of(
+				AvailableSettings.DIALECT, H2Dialect.class.getName(),
+				AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName(),
+				AvailableSettings.USE_SECOND_LEVEL_CACHE, false,
+				AvailableSettings.USE_QUERY_CACHE, false));
+		factory.afterPropertiesSet();
+		entityManagerFactory = factory.getObject();
+
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			AppSettingRepository repository = new JpaRepositoryFactory(entityManager).getRepository(AppSettingRepository.class,
+					RepositoryFragments.just(new AppSettingRepositoryCustomImpl(new JdbcTemplate(proxy), entityManager, mock(IdAllocator.class))));
+			queries.clear();
+			lookup.accept(repository);
+		} finally {
+			entityManager.close();
+		}
+		assertFalse(queries.isEmpty(), "no statement captured");
+		return queries;
+	}
+
+	/**
+	 * Explain every captured statement: none may scan the table, and the settings are found through the unique index.
+	 */
+	private void assertUseIndex(List<CapturedQuery> queries) throws SQLException {
+		boolean index = false;
+		for (CapturedQuery query : queries) {
+			String plan = explain(query.sql(), query.parameters());
+			assertFalse(plan.contains("TABLESCAN"), query.sql() + "\n" + plan);
+			index |= plan.contains(INDEX);
+		}
+		assertTrue(index, queries.toString());
+	}
+
+	private String explain(String sql, Object... parameters) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+			for (int i = 0; i < parameters.length; i++) {
+				statement.setObject(i + 1, parameters[i]);
+			}
+			try (ResultSet resultSet = statement.executeQuery()) {
+				assertTrue(resultSet.next());
+				return resultSet.getString(1).toUpperCase(Locale.ROOT);
+			}
+		}
+	}
+
+	private record CapturedQuery(String sql, Object[] parameters) {
+
+		@Override
+		public String toString() {
+			return sql;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.spring.vehicle.repository;
+
+import com.spring.vehicle.VehicleDashboardApplication;
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.model.entity.AppSetting;
+import com.spring.vehicle.service.AppSettingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The AppSetting reads of the repository against the application running on the in-memory database of the test
+ * profile, by id, by natural id and by parent code. With {@code cache=false} the second-level and query caches are
+ * off and every read goes to the database; the difference is what the caches save per read.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AppSettingReadBenchmark {
+
+	private static final Map<String, String> INITIAL_VALUES = Map.of(
+			Constants.SETTING_RPM, "1200",
+			Constants.SETTING_POWER, "1000",
+			Constants.SETTING_BATTERY, "50",
+			Constants.SETTING_IS_CHARGING, "1",
+			Constants.SETTING_TEMPERATURE, "30",
+			Constants.SETTING_GEAR_RATIO, "N");
+
+	@Param({"true", "false"})
+	public boolean cache;
+
+	private ConfigurableApplicationContext context;
+	private AppSettingRepository appSettingRepository;
+	private long id;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(VehicleDashboardApplication.class)
+				.profiles("dev", "test")
+				.run("--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cache,
+						"--spring.jpa.properties.hibernate.cache.use_query_cache=" + cache);
+		appSettingRepository = context.getBean(AppSettingRepository.class);
+		context.getBean(AppSettingService.class).provisionAppSettings(List.of(0L), Constants.SETTING, INITIAL_VALUES);
+		id = appSettingRepository.findByNaturalId(0L, Constants.SETTING, Constants.SETTING_RPM).orElseThrow().getId();
+	}
+
+	@Benchmark
+	public Optional<AppSetting> findById() {
+		return appSettingRepository.findById(id);
+	}
+
+	@Benchmark
+	public Optional<AppSetting> findByNaturalId() {
+		return appSettingRepository.findByNaturalId(0L, Constants.SETTING, Constants.SETTING_RPM);
+	}
+
+	@Benchmark
+	public List<AppSetting> findByParentCode() {
+		return appSettingRepository.findByParentCode(Constants.SETTING);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+}
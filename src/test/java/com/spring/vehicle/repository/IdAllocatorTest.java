@@ -0,0 +1,150 @@
+package com.spring.vehicle.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the migrations on an embedded database and checks that allocators, standing for several application
+ * instances, never hand out the same id.
+ */
+class IdAllocatorTest {
+
+	private static final String TABLE = "app_setting";
+
+	private String url;
+	private JdbcDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		url = "jdbc:h2:mem:" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+		dataSource = new JdbcDataSource();
+		dataSource.setURL(url);
+		dataSource.setUser("sa");
+		Flyway.configure().dataSource(dataSource).load().migrate();
+		jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
+	@Test
+	void idsAreReservedInBlocks() {
+		IdAllocator idAllocator = new IdAllocator(dataSource, 10);
+
+		assertEquals(1, idAllocator.nextId(TABLE));
+		assertEquals(2, idAllocator.nextId(TABLE));
+		assertEquals(11L, jdbcTemplate.queryForObject("select next_id from id_block where table_name = ?", Long.class, TABLE));
+	}
+
+	@Test
+	void batchLargerThanBlockIsReservedAtOnce() {
+		IdAllocator idAllocator = new IdAllocator(dataSource, 10);
+
+		long[] ids = idAllocator.nextIds(TABLE, 25);
+
+		assertEquals(25, ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			assertEquals(i + 1, ids[i]);
+		}
+		assertEquals(26, idAllocator.nextId(TABLE));
+	}
+
+	@Test
+	void newTableContinuesAfterExistingIds() {
+		jdbcTemplate.execute("create table vehicle_event (id bigint not null, primary key (id))");
+		jdbcTemplate.update("insert into vehicle_event (id) values (41)");
+		IdAllocator idAllocator = new IdAllocator(dataSource, 10);
+
+		assertEquals(42, idAllocator.nextId("vehicle_event"));
+		assertThrows(IllegalArgumentException.class, () -> idAllocator.nextId("vehicle_event; drop table app_setting"));
+	}
+
+	@Test
+	void instancesNeverShareIds() throws Exception {
+		List<IdAllocator> instances = List.of(new IdAllocator(dataSource, 7),
+				new IdAllocator(dataSource, 7));
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int thread = 0; thread < 8; thread++) {
+				IdAllocator idAllocator = instances.get(thread % 2);
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 250; i++) {
+						assertTrue(ids.add(idAllocator.nextId(TABLE)));
+					}
+					for (long id : idAllocator.nextIds(TABLE, 20)) {
+						assertTrue(ids.add(id));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(8 * 270, ids.size());
+	}
+
+	/**
+	 * Every caller holds one of the two connections of the application pool in its transaction while it waits for
+	 * ids. Reservations must not need a third one, or the callers time out waiting for each other.
+	 */
+	@Test
+	void callersHoldingEveryPooledConnectionStillGetIds() throws Exception {
+		try (HikariDataSource applicationPool = pool("application", 2);
+			 IdAllocator idAllocator = new IdAllocator(pool("id-allocator", 1), 5)) {
+			TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(applicationPool));
+			JdbcTemplate applicationJdbcTemplate = new JdbcTemplate(applicationPool);
+			Set<Long> ids = ConcurrentHashMap.newKeySet();
+			ExecutorService executor = Executors.newFixedThreadPool(8);
+			try {
+				List<Future<?>> futures = new ArrayList<>();
+				for (int thread = 0; thread < 8; thread++) {
+					futures.add(executor.submit(() -> {
+						for (int i = 0; i < 50; i++) {
+							transactionTemplate.executeWithoutResult(status -> {
+								applicationJdbcTemplate.queryForObject("select count(*) from app_setting", Long.class);
+								for (long id : idAllocator.nextIds(TABLE, 3)) {
+									assertTrue(ids.add(id));
+								}
+							});
+						}
+					}));
+				}
+				for (Future<?> future : futures) {
+					future.get(30, TimeUnit.SECONDS);
+				}
+			} finally {
+				executor.shutdown();
+			}
+			assertEquals(8 * 50 * 3, ids.size());
+		}
+	}
+
+	private HikariDataSource pool(String name, int size) {
+		HikariDataSource pool = new HikariDataSource();
+		pool.setPoolName(name);
+		pool.setJdbcUrl(url);
+		pool.setUsername("sa");
+		pool.setMaximumPoolSize(size);
+		pool.setConnectionTimeout(2_000);
+		return pool;
+	}
+}
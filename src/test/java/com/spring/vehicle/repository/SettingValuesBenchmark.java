@@ -0,0 +1,80 @@
+package com.spring.vehicle.repository;
+
+import com.spring.vehicle.VehicleDashboardApplication;
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.mapper.AppSettingMapper;
+import com.spring.vehicle.payload.setting.AppSettingResponse;
+import com.spring.vehicle.payload.setting.SettingValue;
+import com.spring.vehicle.service.AppSettingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The values of a parent code read through the code/value projection against loading the AppSetting entities and
+ * mapping them to AppSettingResponse, each in a transaction of its own as a group load of the state store is. The
+ * caches are off so both go to the database; run with {@code -Djmh.options="-prof gc"} to compare the allocation
+ * per read.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SettingValuesBenchmark {
+
+	private static final Map<String, String> INITIAL_VALUES = Map.of(
+			Constants.SETTING_RPM, "1200",
+			Constants.SETTING_POWER, "1000",
+			Constants.SETTING_BATTERY, "50",
+			Constants.SETTING_IS_CHARGING, "1",
+			Constants.SETTING_TEMPERATURE, "30",
+			Constants.SETTING_GEAR_RATIO, "N");
+
+	private ConfigurableApplicationContext context;
+	private AppSettingRepository appSettingRepository;
+	private AppSettingMapper appSettingMapper;
+	private TransactionTemplate transactionTemplate;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(VehicleDashboardApplication.class)
+				.profiles("dev", "test")
+				.run("--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+						"--spring.jpa.properties.hibernate.cache.use_query_cache=false");
+		appSettingRepository = context.getBean(AppSettingRepository.class);
+		appSettingMapper = context.getBean(AppSettingMapper.class);
+		transactionTemplate = context.getBean(TransactionTemplate.class);
+		// vehicle 0 is the only one, so both reads return the same rows
+		context.getBean(AppSettingService.class).provisionAppSettings(List.of(0L), Constants.SETTING, INITIAL_VALUES);
+	}
+
+	@Benchmark
+	public Map<String, String> projection() {
+		return transactionTemplate.execute(status -> appSettingRepository.findValuesByVehicleIdAndParentCode(0L, Constants.SETTING))
+				.stream()
+				.collect(Collectors.toMap(SettingValue::getCode, SettingValue::getConfigValue));
+	}
+
+	@Benchmark
+	public Map<String, String> entities() {
+		return transactionTemplate.execute(status -> appSettingRepository.findByParentCode(Constants.SETTING)
+				.stream()
+				.map(appSettingMapper::mapToAppSettingResponse)
+				.toList())
+				.stream()
+				.collect(Collectors.toMap(AppSettingResponse::getCode, AppSettingResponse::getConfigValue));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+}
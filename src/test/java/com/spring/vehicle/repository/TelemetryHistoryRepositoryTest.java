@@ -0,0 +1,91 @@
+package com.spring.vehicle.repository;
+
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.model.TelemetryResolution;
+import com.spring.vehicle.model.TelemetryRollup;
+import com.spring.vehicle.payload.history.TelemetryPoint;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rollups merged into the stored buckets over the migrated schema of an embedded database.
+ */
+class TelemetryHistoryRepositoryTest {
+
+	private static final SettingKey KEY = SettingKey.of(Constants.SETTING);
+	private static final long MINUTE = 1_700_000_040_000L;
+
+	private TelemetryHistoryRepository telemetryHistoryRepository;
+
+	@BeforeEach
+	void setUp() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+		dataSource.setUser("sa");
+		Flyway.configure().dataSource(dataSource).load().migrate();
+		telemetryHistoryRepository = new TelemetryHistoryRepository(new JdbcTemplate(dataSource));
+	}
+
+	@Test
+	void rollupsOfLaterBatchesAreMergedIntoTheirBucket() {
+		telemetryHistoryRepository.mergeRollups(List.of(rollup(MINUTE + 1_000, 1000, MINUTE + 2_000, 1400)));
+		telemetryHistoryRepository.mergeRollups(List.of(rollup(MINUTE + 3_000, 800, MINUTE + 4_000, 1200)));
+
+		List<TelemetryPoint> points = findMinute();
+		assertEquals(1, points.size());
+		TelemetryPoint point = points.get(0);
+		assertEquals(MINUTE, point.getTime());
+		assertEquals(800, point.getMin());
+		assertEquals(1400, point.getMax());
+		assertEquals(1100, point.getAvg());
+		assertEquals(4, point.getCount());
+		assertEquals(1200, point.getLast());
+	}
+
+	@Test
+	void olderSamplesMergedLaterKeepTheLatestValue() {
+		telemetryHistoryRepository.mergeRollups(List.of(rollup(MINUTE + 5_000, 1500)));
+		telemetryHistoryRepository.mergeRollups(List.of(rollup(MINUTE + 1_000, 900)));
+
+		TelemetryPoint point = findMinute().get(0);
+		assertEquals(1500, point.getLast());
+		assertEquals(900, point.getMin());
+		assertEquals(2, point.getCount());
+	}
+
+	@Test
+	void bucketsOfOtherResolutionsAreKeptApart() {
+		TelemetryRollup hour = new TelemetryRollup(KEY.getVehicleId(), KEY.getParentCode(), Constants.SETTING_RPM,
+				TelemetryResolution.HOUR, TelemetryResolution.HOUR.bucketStart(MINUTE));
+		hour.add(MINUTE, 2000);
+		telemetryHistoryRepository.mergeRollups(List.of(rollup(MINUTE, 1000), hour));
+
+		assertEquals(1000, findMinute().get(0).getMax());
+		assertEquals(2000, telemetryHistoryRepository.findRollups(KEY, Constants.SETTING_RPM, TelemetryResolution.HOUR,
+				hour.getBucketStart(), hour.getBucketStart() + 1).get(0).getMax());
+	}
+
+	/**
+	 * A minute rollup of the rpm with a sample per time and value pair
+	 */
+	private static TelemetryRollup rollup(long... samples) {
+		TelemetryRollup rollup = new TelemetryRollup(KEY.getVehicleId(), KEY.getParentCode(), Constants.SETTING_RPM,
+				TelemetryResolution.MINUTE, MINUTE);
+		for (int i = 0; i < samples.length; i += 2) {
+			rollup.add(samples[i], (int) samples[i + 1]);
+		}
+		return rollup;
+	}
+
+	private List<TelemetryPoint> findMinute() {
+		return telemetryHistoryRepository.findRollups(KEY, Constants.SETTING_RPM, TelemetryResolution.MINUTE, MINUTE, MINUTE + 60_000);
+	}
+}
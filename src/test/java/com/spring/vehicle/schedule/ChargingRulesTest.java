@@ -0,0 +1,48 @@
+package com.spring.vehicle.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The charge, run and idle rules on single vehicles of a fleet.
+ */
+class ChargingRulesTest {
+
+	@Test
+	void chargingRaisesBatteryAndTemperatureUntilFull() {
+		assertTick(vehicle(0, 100, 50, 30, true), 0, 0, 51, 31);
+		assertTick(vehicle(0, 100, 99, 30, true), 0, 1000, 100, 30);
+		assertTick(vehicle(0, 100, 100, ChargingRules.MAX_TEMPERATURE, true), 0, 1000, 100, ChargingRules.MAX_TEMPERATURE);
+	}
+
+	@Test
+	void runningDrainsTheBatteryUntilTheMotorStops() {
+		assertTick(vehicle(1600, 100, 50, 30, false), 1600, 2000, 49, 32);
+		assertTick(vehicle(1600, 100, 1, 30, false), 0, 0, 0, ChargingRules.DEFAULT_TEMPERATURE);
+		assertTick(vehicle(1600, 100, 1, 30, true), 1600, 2000, 1, 33);
+	}
+
+	@Test
+	void idleVehiclesCoolDownOnlyWhenKnownNotToCharge() {
+		assertTick(vehicle(0, 100, 50, 30, false), 0, 100, 50, ChargingRules.DEFAULT_TEMPERATURE);
+
+		FleetState unknown = vehicle(0, 100, 50, 30, false);
+		ChargingRules.apply(unknown, 0, false);
+		assertEquals(30, unknown.getTemperature(0));
+	}
+
+	private static FleetState vehicle(int rpm, int power, int battery, int temperature, boolean charging) {
+		FleetState state = new FleetState(1);
+		state.set(0, rpm, power, battery, temperature, charging);
+		return state;
+	}
+
+	private static void assertTick(FleetState state, int rpm, int power, int battery, int temperature) {
+		ChargingRules.apply(state, 0);
+		assertEquals(rpm, state.getRpm(0), "rpm");
+		assertEquals(power, state.getPower(0), "power");
+		assertEquals(battery, state.getBattery(0), "battery");
+		assertEquals(temperature, state.getTemperature(0), "temperature");
+	}
+}
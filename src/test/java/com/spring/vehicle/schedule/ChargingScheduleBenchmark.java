@@ -0,0 +1,75 @@
+package com.spring.vehicle.schedule;
+
+import com.spring.vehicle.VehicleDashboardApplication;
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.service.AppSettingService;
+import com.spring.vehicle.service.TelemetryStateStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full scheduler tick of the charging rules against the application running on the in-memory database of the
+ * test profile: the atomic transition of the live settings, then the write-behind flush of the changed rows.
+ * Every invocation starts from the same settings, written and flushed beforehand, so each tick changes the same rows.
+ * With {@code metrics=false} every meter is disabled, the difference is the cost of the instrumentation on the tick.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChargingScheduleBenchmark {
+
+	private static final Map<String, String> INITIAL_VALUES = Map.of(
+			Constants.SETTING_RPM, "1200",
+			Constants.SETTING_POWER, "1000",
+			Constants.SETTING_BATTERY, "50",
+			Constants.SETTING_IS_CHARGING, "1",
+			Constants.SETTING_TEMPERATURE, "30",
+			Constants.SETTING_GEAR_RATIO, "N");
+
+	@Param({"true", "false"})
+	public boolean metrics;
+
+	private ConfigurableApplicationContext context;
+	private ChargingSchedule chargingSchedule;
+	private AppSettingService appSettingService;
+	private TelemetryStateStore telemetryStateStore;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		// The flush and the history writer are left to the benchmark, not to the scheduler
+		context = new SpringApplicationBuilder(VehicleDashboardApplication.class)
+				.profiles("dev", "test")
+				.run("--app.telemetry.flush-interval=3600000", "--app.telemetry.history.flush-interval=3600000",
+						"--management.metrics.enable.all=" + metrics);
+		chargingSchedule = context.getBean(ChargingSchedule.class);
+		appSettingService = context.getBean(AppSettingService.class);
+		telemetryStateStore = context.getBean(TelemetryStateStore.class);
+		appSettingService.provisionAppSettings(List.of(0L), Constants.SETTING, INITIAL_VALUES);
+	}
+
+	@Setup(Level.Invocation)
+	public void resetSettings() {
+		appSettingService.updateAppSettings(SettingKey.of(Constants.SETTING), INITIAL_VALUES, null);
+		telemetryStateStore.flush();
+	}
+
+	@Benchmark
+	public void tick() {
+		chargingSchedule.resetAppSetting();
+		telemetryStateStore.flush();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+}
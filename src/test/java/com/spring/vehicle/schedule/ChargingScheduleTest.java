@@ -0,0 +1,140 @@
+package com.spring.vehicle.schedule;
+
+import com.spring.vehicle.config.SqlBudgetGuard;
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.mapper.AppSettingMapper;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.model.TelemetryCode;
+import com.spring.vehicle.payload.setting.SettingValue;
+import com.spring.vehicle.repository.AppSettingRepository;
+import com.spring.vehicle.repository.IdAllocator;
+import com.spring.vehicle.service.AppSettingService;
+import com.spring.vehicle.service.SettingResponseCache;
+import com.spring.vehicle.service.TelemetryStateStore;
+import com.spring.vehicle.service.TelemetryValues;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ChargingScheduleTest {
+
+	private AppSettingRepository appSettingRepository;
+	private TelemetryStateStore telemetryStateStore;
+	private ChargingSchedule chargingSchedule;
+
+	@BeforeEach
+	void setUp() {
+		appSettingRepository = mock(AppSettingRepository.class);
+		telemetryStateStore = new TelemetryStateStore(appSettingRepository, mock(PlatformTransactionManager.class),
+				new SqlBudgetGuard(false, new SimpleMeterRegistry()), List.of(), 16, 60_000, 100, 60_000);
+		chargingSchedule = new ChargingSchedule(new AppSettingService(appSettingRepository, new AppSettingMapper(), telemetryStateStore,
+				new SettingResponseCache(16), mock(EntityManagerFactory.class),
+				mock(IdAllocator.class)), new SqlBudgetGuard(false, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+	}
+
+	@Test
+	void ticksAreCoalescedIntoOneBatchedWritePerFlush() {
+		when(appSettingRepository.findValuesByVehicleIdAndParentCode(SettingKey.DEFAULT_VEHICLE, Constants.SETTING)).thenReturn(List.of(
+				new SettingValue(Constants.SETTING_RPM, "1000"),
+				new SettingValue(Constants.SETTING_POWER, "100"),
+				new SettingValue(Constants.SETTING_BATTERY, "50"),
+				new SettingValue(Constants.SETTING_TEMPERATURE, "30"),
+				new SettingValue(Constants.SETTING_IS_CHARGING, "1")));
+
+		chargingSchedule.resetAppSetting();
+		chargingSchedule.resetAppSetting();
+		verify(appSettingRepository, times(1)).findValuesByVehicleIdAndParentCode(SettingKey.DEFAULT_VEHICLE, Constants.SETTING);
+		verifyNoMoreInteractions(appSettingRepository);
+
+		telemetryStateStore.flush();
+		telemetryStateStore.flush();
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Map<String, String>> changes = ArgumentCaptor.forClass(Map.class);
+		verify(appSettingRepository, times(1)).updateConfigValues(eq(SettingKey.DEFAULT_VEHICLE), eq(Constants.SETTING), changes.capture());
+		verifyNoMoreInteractions(appSettingRepository);
+
+		// charging then running: battery +1 -1 is not written, power follows rpm, temperature +1 +2 per tick
+		assertEquals(Map.of(Constants.SETTING_POWER, "1000",
+							Constants.SETTING_TEMPERATURE, "36"), changes.getValue());
+	}
+
+	@Test
+	void idleVehiclesWithoutAChargingSettingKeepTheirTemperature() {
+		MapValues values = new MapValues(Map.of(TelemetryCode.RPM, 0, TelemetryCode.POWER, 100, TelemetryCode.BATTERY, 50,
+				TelemetryCode.TEMPERATURE, 30));
+		chargingSchedule.tick(values);
+		assertEquals(30, values.getInt(TelemetryCode.TEMPERATURE));
+
+		values.setInt(TelemetryCode.IS_CHARGING, 0);
+		chargingSchedule.tick(values);
+		assertEquals(ChargingRules.DEFAULT_TEMPERATURE, values.getInt(TelemetryCode.TEMPERATURE));
+	}
+
+	@Test
+	void settingsFollowTheFleetRules() {
+		Random random = new Random(20241018L);
+		for (int run = 0; run < 10_000; run++) {
+			boolean hasCharging = random.nextInt(4) > 0;
+			boolean charging = hasCharging && random.nextBoolean();
+			int rpm = random.nextBoolean() ? 0 : random.nextInt(4001);
+			int battery = random.nextInt(4) == 0 ? random.nextInt(2) * ChargingRules.MAX_BATTERY : random.nextInt(101);
+			int temperature = random.nextInt(121);
+			MapValues values = new MapValues(Map.of(TelemetryCode.RPM, rpm, TelemetryCode.POWER, 100, TelemetryCode.BATTERY, battery,
+					TelemetryCode.TEMPERATURE, temperature));
+			if (hasCharging) {
+				values.setInt(TelemetryCode.IS_CHARGING, charging ? 1 : 0);
+			}
+			FleetState fleet = new FleetState(1);
+			fleet.set(0, rpm, 100, battery, temperature, charging);
+
+			chargingSchedule.tick(values);
+			ChargingRules.apply(fleet, 0, hasCharging);
+
+			String input = rpm + " rpm, " + battery + "% battery, " + temperature + " degrees, charging " + (hasCharging ? charging : "unknown");
+			assertEquals(fleet.getRpm(0), values.getInt(TelemetryCode.RPM), input);
+			assertEquals(fleet.getPower(0), values.getInt(TelemetryCode.POWER), input);
+			assertEquals(fleet.getBattery(0), values.getInt(TelemetryCode.BATTERY), input);
+			assertEquals(fleet.getTemperature(0), values.getInt(TelemetryCode.TEMPERATURE), input);
+		}
+	}
+
+	/**
+	 * Values of a vehicle held in a map; a code without a value cannot be written, like a missing setting.
+	 */
+	private static final class MapValues implements TelemetryValues {
+
+		private final Map<TelemetryCode, Integer> values;
+
+		private MapValues(Map<TelemetryCode, Integer> values) {
+			this.values = new EnumMap<>(values);
+		}
+
+		@Override
+		public boolean has(TelemetryCode code) {
+			return values.containsKey(code);
+		}
+
+		@Override
+		public int getInt(TelemetryCode code) {
+			return values.getOrDefault(code, code.getDefaultValue());
+		}
+
+		@Override
+		public void setInt(TelemetryCode code, int value) {
+			values.put(code, code.validate(value));
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.spring.vehicle.schedule;
+
+import com.spring.vehicle.payload.fleet.FleetMetricsResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A small fleet ticked across several shards in parallel, against the same rules applied one vehicle at a time.
+ */
+class FleetTickEngineTest {
+
+	private static final int VEHICLES = 1_000;
+	private static final int SHARD_SIZE = 64;
+	private static final int TICKS = 5;
+
+	private final FleetTickEngine fleetTickEngine = new FleetTickEngine(VEHICLES, SHARD_SIZE, 4);
+
+	@AfterEach
+	void tearDown() {
+		fleetTickEngine.shutdown();
+	}
+
+	@Test
+	void everyShardIsTickedLikeASequentialLoop() {
+		FleetState state = fleetTickEngine.getState();
+		FleetState expected = new FleetState(VEHICLES);
+		for (int i = 0; i < VEHICLES; i++) {
+			expected.set(i, state.getRpm(i), state.getPower(i), state.getBattery(i), state.getTemperature(i), state.isCharging(i));
+		}
+
+		for (int tick = 0; tick < TICKS; tick++) {
+			fleetTickEngine.tick();
+			for (int i = 0; i < VEHICLES; i++) {
+				ChargingRules.apply(expected, i);
+			}
+		}
+
+		for (int i = 0; i < VEHICLES; i++) {
+			assertEquals(expected.getRpm(i), state.getRpm(i), "rpm of " + i);
+			assertEquals(expected.getPower(i), state.getPower(i), "power of " + i);
+			assertEquals(expected.getBattery(i), state.getBattery(i), "battery of " + i);
+			assertEquals(expected.getTemperature(i), state.getTemperature(i), "temperature of " + i);
+		}
+	}
+
+	@Test
+	void metricsCoverEveryShard() {
+		FleetMetricsResponse before = fleetTickEngine.getMetrics();
+		assertEquals(0, before.getTickCount());
+		assertEquals(0, before.getTicksPerSecond());
+
+		for (int tick = 0; tick < TICKS; tick++) {
+			fleetTickEngine.tick();
+		}
+
+		FleetMetricsResponse metrics = fleetTickEngine.getMetrics();
+		assertEquals(VEHICLES, metrics.getVehicles());
+		assertEquals((VEHICLES + SHARD_SIZE - 1) / SHARD_SIZE, metrics.getShards());
+		assertEquals(4, metrics.getParallelism());
+		assertEquals(TICKS, metrics.getTickCount());
+		assertTrue(metrics.getTicksPerSecond() > 0);
+		assertEquals(VEHICLES * metrics.getTicksPerSecond(), metrics.getVehicleUpdatesPerSecond(), 1e-6 * metrics.getVehicleUpdatesPerSecond());
+		assertEquals(metrics.getShards(), metrics.getShardLatencyMicros().length);
+		for (long shardMicros : metrics.getShardLatencyMicros()) {
+			assertTrue(shardMicros >= 0 && shardMicros <= metrics.getLastTickMicros(), shardMicros + " us");
+		}
+	}
+}
@@ -0,0 +1,233 @@
+package com.spring.vehicle.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.payload.setting.SettingResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Ordering and replay of the settings stream, with emitters recording the events they are sent.
+ */
+class SettingStreamServiceTest {
+
+	private static final SettingKey KEY = SettingKey.of(Constants.SETTING);
+
+	private final ObjectMapper objectMapper = spy(new ObjectMapper());
+	private Supplier<RecordingEmitter> emitters = RecordingEmitter::new;
+	private SettingStreamService settingStreamService = newService(256, 512);
+
+	@AfterEach
+	void tearDown() {
+		settingStreamService.shutdown();
+	}
+
+	@Test
+	void writesOfSettingsNobodyStreamsReturnAtOnce() {
+		settingStreamService.onSettingChange(KEY, Map.of(Constants.SETTING_RPM, "1100"), 11);
+
+		assertEquals(0, settingStreamService.getChannelCount());
+		verifyNoInteractions(objectMapper);
+	}
+
+	@Test
+	void snapshotIsFollowedOnlyByNewerChanges() throws InterruptedException {
+		RecordingEmitter emitter = subscribe(KEY, null, () -> {
+			// A write made before the snapshot is read is already in it
+			settingStreamService.onSettingChange(KEY, Map.of(Constants.SETTING_RPM, "1100"), 11);
+			return snapshot(11);
+		});
+		settingStreamService.onSettingChange(KEY, Map.of(Constants.SETTING_RPM, "1200"), 12);
+
+		assertEquals("snapshot 11", emitter.next());
+		assertEquals("setting 12", emitter.next());
+		assertNull(emitter.poll());
+	}
+
+	@Test
+	void reconnectingClientsReceiveOnlyWhatTheyMissed() throws InterruptedException {
+		RecordingEmitter first = subscribe(KEY, null, () -> snapshot(10));
+		for (long version = 11; version <= 13; version++) {
+			settingStreamService.onSettingChange(KEY, Map.of(Constants.SETTING_RPM, String.valueOf(version)), version);
+		}
+		assertEquals("snapshot 10", first.next());
+		assertEquals("setting 11", first.next());
+
+		RecordingEmitter second = subscribe(KEY, 11L, () -> snapshot(13));
+		assertEquals("setting 12", second.next());
+		assertEquals("setting 13", second.next());
+		assertNull(second.poll());
+	}
+
+	@Test
+	void clientsTooFarBehindGetASnapshot() throws InterruptedException {
+		settingStreamService.shutdown();
+		settingStreamService = newService(2, 8);
+		RecordingEmitter first = subscribe(KEY, null, () -> snapshot(10));
+		for (long version = 11; version <= 14; version++) {
+			settingStreamService.onSettingChange(KEY, Map.of(Constants.SETTING_RPM, String.valueOf(version)), version);
+		}
+		assertEquals("snapshot 10", first.next());
+
+		RecordingEmitter second = subscribe(KEY, 11L, () -> snapshot(14));
+		assertEquals("snapshot 14", second.next());
+		assertNull(second.poll());
+	}
+
+	@Test
+	void changesOfOtherVehiclesAreNotStreamed() throws InterruptedException {
+		RecordingEmitter vehicle1 = subscribe(SettingKey.of(1L, Constants.SETTING), null, () -> snapshot(10));
+		RecordingEmitter vehicle2 = subscribe(SettingKey.of(2L, Constants.SETTING), null, () -> snapshot(20));
+		settingStreamService.onSettingChange(SettingKey.of(2L, Constants.SETTING), Map.of(Constants.SETTING_RPM, "1100"), 21);
+		settingStreamService.onSettingChange(SettingKey.of(3L, Constants.SETTING), Map.of(Constants.SETTING_RPM, "1100"), 31);
+
+		assertEquals("snapshot 10", vehicle1.next());
+		assertNull(vehicle1.poll());
+		assertEquals("snapshot 20", vehicle2.next());
+		assertEquals("setting 21", vehicle2.next());
+		assertEquals(2, settingStreamService.getChannelCount());
+	}
+
+	@Test
+	void fleetWritesDoNotEvictTheReplayOfAVehicle() throws InterruptedException {
+		settingStreamService.shutdown();
+		settingStreamService = newService(2, 8);
+		SettingKey vehicle1 = SettingKey.of(1L, Constants.SETTING);
+		SettingKey vehicle2 = SettingKey.of(2L, Constants.SETTING);
+		RecordingEmitter first = subscribe(vehicle1, null, () -> snapshot(10));
+		subscribe(vehicle2, null, () -> snapshot(20));
+		settingStreamService.onSettingChange(vehicle1, Map.of(Constants.SETTING_RPM, "1100"), 11);
+		for (long version = 21; version <= 30; version++) {
+			settingStreamService.onSettingChange(vehicle2, Map.of(Constants.SETTING_RPM, String.valueOf(version)), version);
+		}
+		assertEquals("snapshot 10", first.next());
+		assertEquals("setting 11", first.next());
+
+		RecordingEmitter second = subscribe(vehicle1, 10L, () -> snapshot(11));
+		assertEquals("setting 11", second.next());
+		assertNull(second.poll());
+	}
+
+	@Test
+	void stalledClientsDoNotHoldUpTheOthers() throws InterruptedException {
+		settingStreamService.shutdown();
+		settingStreamService = newService(2, 4);
+		CountDownLatch release = new CountDownLatch(1);
+		emitters = () -> new StalledEmitter(release);
+		RecordingEmitter stalled = subscribe(KEY, null, () -> snapshot(10));
+		emitters = RecordingEmitter::new;
+		RecordingEmitter healthy = subscribe(KEY, null, () -> snapshot(10));
+		try {
+			for (long version = 11; version <= 20; version++) {
+				settingStreamService.onSettingChange(KEY, Map.of(Constants.SETTING_RPM, String.valueOf(version)), version);
+			}
+
+			assertEquals("snapshot 10", healthy.next());
+			for (long version = 11; version <= 20; version++) {
+				assertEquals("setting " + version, healthy.next());
+			}
+			// the stalled stream overflowed its outbox and was closed, the healthy one is still subscribed
+			assertEquals(1, settingStreamService.getSubscriberCount());
+			assertEquals(1, settingStreamService.getDroppedCount());
+		} finally {
+			release.countDown();
+		}
+		assertEquals("snapshot 10", stalled.next());
+		assertNull(stalled.poll());
+	}
+
+	private SettingStreamService newService(int replaySize, int outboxSize) {
+		return new SettingStreamService(objectMapper, 60_000, replaySize, 60_000, outboxSize, 1_000) {
+			@Override
+			SseEmitter newEmitter() {
+				return emitters.get();
+			}
+		};
+	}
+
+	private RecordingEmitter subscribe(SettingKey key, Long lastEventId, Supplier<VersionedSetting> snapshot) {
+		return (RecordingEmitter) settingStreamService.subscribe(key, lastEventId, snapshot);
+	}
+
+	private static VersionedSetting snapshot(long version) {
+		return new VersionedSetting(version, SettingResponse.builder().rpm(String.valueOf(version)).build());
+	}
+
+	/**
+	 * Records the name and id of every event instead of writing it to a response.
+	 */
+	private static class RecordingEmitter extends SseEmitter {
+
+		private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			send(builder.build());
+		}
+
+		@Override
+		public void send(Set<DataWithMediaType> items) {
+			StringBuilder text = new StringBuilder();
+			items.stream().map(DataWithMediaType::getData).filter(String.class::isInstance).forEach(text::append);
+			String name = null;
+			String id = null;
+			for (String line : text.toString().split("\n")) {
+				if (line.startsWith("event:")) {
+					name = line.substring("event:".length());
+				} else if (line.startsWith("id:")) {
+					id = line.substring("id:".length());
+				}
+			}
+			if (name != null) {
+				events.add(name + " " + id);
+			}
+		}
+
+		private String next() throws InterruptedException {
+			String event = events.poll(5, TimeUnit.SECONDS);
+			assertNotNull(event, "no event within 5 seconds");
+			return event;
+		}
+
+		private String poll() throws InterruptedException {
+			return events.poll(200, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * A client which stops reading: every write blocks until released.
+	 */
+	private static final class StalledEmitter extends RecordingEmitter {
+
+		private final CountDownLatch release;
+
+		private StalledEmitter(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public void send(Set<DataWithMediaType> items) {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			super.send(items);
+		}
+	}
+}
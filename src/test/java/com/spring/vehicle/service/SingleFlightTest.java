@@ -0,0 +1,123 @@
+package com.spring.vehicle.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Coalescing of concurrent loads, with a first load held open until the other callers have arrived.
+ */
+class SingleFlightTest {
+
+	private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final CountDownLatch started = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		Future<String> first = executor.submit(() -> singleFlight.execute("key", 1, () -> blockingLoad("loaded")));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		Future<String> second = executor.submit(() -> singleFlight.execute("key", 1, () -> load("again")));
+		Future<String> third = executor.submit(() -> singleFlight.execute("key", () -> load("again")));
+		awaitCoalesced(2);
+		release.countDown();
+
+		assertEquals("loaded", first.get(5, TimeUnit.SECONDS));
+		assertEquals("loaded", second.get(5, TimeUnit.SECONDS));
+		assertEquals("loaded", third.get(5, TimeUnit.SECONDS));
+		assertEquals(1, loads.get());
+		assertEquals(1, singleFlight.getLoadCount());
+		assertEquals(0, singleFlight.getInFlightCount());
+	}
+
+	@Test
+	void callersOfANewerVersionDoNotJoinAnOlderLoad() throws Exception {
+		Future<String> first = executor.submit(() -> singleFlight.execute("key", 1, () -> blockingLoad("version 1")));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		// the caller wrote version 2 while the first load was in flight
+		assertEquals("version 2", singleFlight.execute("key", 2, () -> load("version 2")));
+		release.countDown();
+
+		assertEquals("version 1", first.get(5, TimeUnit.SECONDS));
+		assertEquals(2, loads.get());
+		assertEquals(0, singleFlight.getCoalescedCount());
+		assertEquals(0, singleFlight.getInFlightCount());
+	}
+
+	@Test
+	void callersOfAnOlderVersionJoinANewerLoad() throws Exception {
+		Future<String> first = executor.submit(() -> singleFlight.execute("key", 2, () -> blockingLoad("version 2")));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		Future<String> second = executor.submit(() -> singleFlight.execute("key", 1, () -> load("version 1")));
+		awaitCoalesced(1);
+		release.countDown();
+
+		assertEquals("version 2", first.get(5, TimeUnit.SECONDS));
+		assertEquals("version 2", second.get(5, TimeUnit.SECONDS));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void failuresReachEveryWaitingCallerAndAreNotKept() throws Exception {
+		Future<String> first = executor.submit(() -> singleFlight.execute("key", 1, () -> {
+			blockingLoad(null);
+			throw new IllegalStateException("database down");
+		}));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		Future<String> second = executor.submit(() -> singleFlight.execute("key", 1, () -> load("again")));
+		awaitCoalesced(1);
+		release.countDown();
+
+		for (Future<String> caller : List.of(first, second)) {
+			ExecutionException e = assertThrows(ExecutionException.class, () -> caller.get(5, TimeUnit.SECONDS));
+			assertInstanceOf(IllegalStateException.class, e.getCause());
+			assertEquals("database down", e.getCause().getMessage());
+		}
+		assertEquals(0, singleFlight.getInFlightCount());
+
+		assertEquals("recovered", singleFlight.execute("key", 1, () -> load("recovered")));
+		assertEquals(2, loads.get());
+	}
+
+	private String load(String value) {
+		loads.incrementAndGet();
+		return value;
+	}
+
+	private String blockingLoad(String value) {
+		loads.incrementAndGet();
+		started.countDown();
+		try {
+			assertTrue(release.await(5, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return value;
+	}
+
+	private void awaitCoalesced(long callers) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (singleFlight.getCoalescedCount() < callers) {
+			assertTrue(System.nanoTime() < deadline, "callers did not join the load");
+			Thread.sleep(10);
+		}
+	}
+}
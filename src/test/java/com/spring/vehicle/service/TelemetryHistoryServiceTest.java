@@ -0,0 +1,65 @@
+package com.spring.vehicle.service;
+
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.model.TelemetrySample;
+import com.spring.vehicle.repository.TelemetryHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * The bounded sample queue of the history against a mocked repository.
+ */
+class TelemetryHistoryServiceTest {
+
+	private static final SettingKey KEY = SettingKey.of(Constants.SETTING);
+
+	private TelemetryHistoryRepository telemetryHistoryRepository;
+	private TelemetryHistoryService telemetryHistoryService;
+
+	@BeforeEach
+	void setUp() {
+		telemetryHistoryRepository = mock(TelemetryHistoryRepository.class);
+		telemetryHistoryService = new TelemetryHistoryService(telemetryHistoryRepository, mock(PlatformTransactionManager.class), 2, 100, 60);
+	}
+
+	@Test
+	void samplesBeyondTheQueueCapacityAreDropped() {
+		telemetryHistoryService.onSettingChange(KEY, Map.of(Constants.SETTING_RPM, "1000", Constants.SETTING_BATTERY, "50"), 1);
+		telemetryHistoryService.onSettingChange(KEY, Map.of(Constants.SETTING_RPM, "1100", Constants.SETTING_GEAR_RATIO, "D"), 2);
+
+		assertEquals(2, telemetryHistoryService.getQueueSize());
+		assertEquals(1, telemetryHistoryService.getDroppedCount());
+
+		// the batch is reused once inserted, so copy the samples
+		List<TelemetrySample> inserted = new ArrayList<>();
+		doAnswer(invocation -> inserted.addAll(invocation.getArgument(0))).when(telemetryHistoryRepository).insertSamples(anyList());
+		telemetryHistoryService.flush();
+		assertEquals(List.of(1L, 1L), inserted.stream().map(TelemetrySample::getVersion).toList());
+		assertEquals(0, telemetryHistoryService.getQueueSize());
+
+		telemetryHistoryService.onSettingChange(KEY, Map.of(Constants.SETTING_RPM, "1200"), 3);
+		assertEquals(1, telemetryHistoryService.getQueueSize());
+		assertEquals(1, telemetryHistoryService.getDroppedCount());
+	}
+
+	@Test
+	void failedBatchesAreCountedAsDropped() {
+		doThrow(new IllegalStateException("database down")).when(telemetryHistoryRepository).insertSamples(anyList());
+		telemetryHistoryService.onSettingChange(KEY, Map.of(Constants.SETTING_RPM, "1000"), 1);
+
+		telemetryHistoryService.flush();
+
+		assertEquals(0, telemetryHistoryService.getQueueSize());
+		assertEquals(1, telemetryHistoryService.getDroppedCount());
+	}
+}
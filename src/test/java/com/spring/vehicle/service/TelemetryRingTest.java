@@ -0,0 +1,111 @@
+package com.spring.vehicle.service;
+
+import com.spring.vehicle.model.TelemetryCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The ring keeps the latest writes in order, and lock-free readers racing a writer never see a torn or overwritten
+ * slot: every write stores its sequence number as the time and as every value, so a valid row is consistent.
+ */
+class TelemetryRingTest {
+
+	private static final int WIDTH = TelemetryCode.values().length;
+
+	@Test
+	void keepsLatestWritesOldestFirst() {
+		TelemetryRing ring = new TelemetryRing(4);
+		for (int seq = 1; seq <= 6; seq++) {
+			ring.append(seq, row(seq), 1L << TelemetryCode.RPM.ordinal());
+		}
+
+		TelemetryRing.Recent recent = ring.read(0);
+		assertArrayEquals(new long[]{3, 4, 5, 6}, recent.times());
+		assertArrayEquals(new int[]{3, 4, 5, 6}, recent.values(TelemetryCode.RPM));
+		assertTrue(recent.has(TelemetryCode.RPM));
+		assertFalse(recent.has(TelemetryCode.POWER));
+		assertArrayEquals(new long[]{5, 6}, ring.read(5).times());
+	}
+
+	@Test
+	void holdsItsFullCapacity() {
+		TelemetryRing ring = new TelemetryRing(1);
+		assertEquals(0, ring.read(0).size());
+
+		ring.append(1, row(1), -1L);
+		assertArrayEquals(new long[]{1}, ring.read(0).times());
+		ring.append(2, row(2), -1L);
+		assertArrayEquals(new long[]{2}, ring.read(0).times());
+		assertArrayEquals(new int[]{2}, ring.read(0).values(TelemetryCode.RPM));
+
+		TelemetryRing full = new TelemetryRing(360);
+		for (int seq = 1; seq <= 1_000; seq++) {
+			full.append(seq, row(seq), -1L);
+		}
+		assertEquals(360, full.read(0).size());
+		assertEquals(641, full.read(0).times()[0]);
+	}
+
+	@Test
+	void readersNeverSeeTornSlots() throws Exception {
+		raceReadersAgainstAWriter(1);
+		raceReadersAgainstAWriter(8);
+	}
+
+	private static void raceReadersAgainstAWriter(int capacity) throws Exception {
+		TelemetryRing ring = new TelemetryRing(capacity);
+		AtomicBoolean running = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Long>> readers = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				readers.add(executor.submit(() -> {
+					long reads = 0;
+					while (running.get()) {
+						TelemetryRing.Recent recent = ring.read(0);
+						long[] times = recent.times();
+						for (TelemetryCode code : TelemetryCode.values()) {
+							int[] values = recent.values(code);
+							for (int row = 0; row < times.length; row++) {
+								assertEquals(times[row], values[row], "torn slot");
+								if (row > 0) {
+									assertEquals(times[row - 1] + 1, times[row], "slots out of order");
+								}
+							}
+						}
+						reads++;
+					}
+					return reads;
+				}));
+			}
+			Future<?> writer = executor.submit(() -> {
+				for (int seq = 1; seq <= 1_000_000; seq++) {
+					ring.append(seq, row(seq), -1L);
+				}
+				running.set(false);
+			});
+			writer.get();
+			for (Future<Long> reader : readers) {
+				assertTrue(reader.get() > 0);
+			}
+		} finally {
+			running.set(false);
+			executor.shutdownNow();
+		}
+	}
+
+	private static int[] row(int value) {
+		int[] row = new int[WIDTH];
+		Arrays.fill(row, value);
+		return row;
+	}
+}
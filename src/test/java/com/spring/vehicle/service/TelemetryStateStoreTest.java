@@ -0,0 +1,184 @@
+package com.spring.vehicle.service;
+
+import com.spring.vehicle.config.SqlBudgetGuard;
+import com.spring.vehicle.constant.Constants;
+import com.spring.vehicle.exception.ConflictException;
+import com.spring.vehicle.model.SettingKey;
+import com.spring.vehicle.model.TelemetryCode;
+import com.spring.vehicle.payload.setting.SettingValue;
+import com.spring.vehicle.repository.AppSettingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * The in-memory state against a mocked repository: loading, conditional writes, the write-behind flush, eviction of
+ * idle groups and the recent ring.
+ */
+class TelemetryStateStoreTest {
+
+	private static final long IDLE_TIMEOUT = 60_000;
+	private static final int MAX_GROUPS = 3;
+
+	private AppSettingRepository appSettingRepository;
+	private TelemetryStateStore telemetryStateStore;
+
+	@BeforeEach
+	void setUp() {
+		appSettingRepository = mock(AppSettingRepository.class);
+		when(appSettingRepository.findValuesByVehicleIdAndParentCode(anyLong(), eq(Constants.SETTING))).thenReturn(List.of(
+				new SettingValue(Constants.SETTING_RPM, "1000"),
+				new SettingValue(Constants.SETTING_BATTERY, "50"),
+				new SettingValue(Constants.SETTING_GEAR_RATIO, "N")));
+		telemetryStateStore = new TelemetryStateStore(appSettingRepository, mock(PlatformTransactionManager.class),
+				new SqlBudgetGuard(false, new SimpleMeterRegistry()), List.of(),
+				16, IDLE_TIMEOUT, MAX_GROUPS, 60_000);
+	}
+
+	@Test
+	void recentValuesStartWithTheFirstWrite() {
+		SettingKey key = SettingKey.of(Constants.SETTING);
+
+		assertEquals(0, telemetryStateStore.recent(key, 10).getTimes().length);
+
+		telemetryStateStore.put(key, Map.of(Constants.SETTING_RPM, "1200"));
+		assertEquals(1, telemetryStateStore.recent(key, 10).getTimes().length);
+		assertArrayEquals(new int[]{1200}, telemetryStateStore.recent(key, 10).getValues().get(Constants.SETTING_RPM));
+	}
+
+	@Test
+	void idleGroupsAreEvictedAndLoadedAgain() {
+		SettingKey key = SettingKey.of(Constants.SETTING);
+		telemetryStateStore.get(key);
+
+		assertEquals(0, telemetryStateStore.evictIdle(System.currentTimeMillis()));
+		assertEquals(1, telemetryStateStore.evictIdle(System.currentTimeMillis() + IDLE_TIMEOUT + 1));
+		assertEquals(0, telemetryStateStore.getGroupCount());
+		assertEquals(-1, telemetryStateStore.version(key));
+
+		assertEquals("1000", telemetryStateStore.get(key).get(Constants.SETTING_RPM));
+		verify(appSettingRepository, times(2)).findValuesByVehicleIdAndParentCode(SettingKey.DEFAULT_VEHICLE, Constants.SETTING);
+	}
+
+	@Test
+	void groupsWithPendingWritesAreKeptUntilFlushed() {
+		SettingKey key = SettingKey.of(Constants.SETTING);
+		telemetryStateStore.put(key, Map.of(Constants.SETTING_GEAR_RATIO, "D"));
+		long later = System.currentTimeMillis() + IDLE_TIMEOUT + 1;
+
+		assertEquals(0, telemetryStateStore.evictIdle(later));
+		assertEquals("D", telemetryStateStore.get(key).get(Constants.SETTING_GEAR_RATIO));
+
+		telemetryStateStore.flush();
+		verify(appSettingRepository).updateConfigValues(SettingKey.DEFAULT_VEHICLE, Constants.SETTING, Map.of(Constants.SETTING_GEAR_RATIO, "D"));
+		assertEquals(1, telemetryStateStore.evictIdle(later));
+	}
+
+	@Test
+	void conditionalWritesOnlyConflictWithWritesOfTheSameCodes() {
+		SettingKey key = SettingKey.of(Constants.SETTING);
+		long read = telemetryStateStore.snapshot(key).getVersion();
+
+		// the scheduler moves the rpm on
+		assertTrue(telemetryStateStore.transition(key, values -> values.setInt(TelemetryCode.RPM, 1500)));
+		long written = telemetryStateStore.put(key, Map.of(Constants.SETTING_BATTERY, "40"), read).getVersion();
+		assertEquals(read + 2, written);
+
+		assertThrows(ConflictException.class, () -> telemetryStateStore.put(key, Map.of(Constants.SETTING_RPM, "900"), read));
+		assertThrows(ConflictException.class, () -> telemetryStateStore.put(key, Map.of(Constants.SETTING_BATTERY, "30"), read));
+		assertThrows(ConflictException.class, () -> telemetryStateStore.put(key, Map.of(Constants.SETTING_GEAR_RATIO, "D"), written + 1));
+		assertEquals(written + 1, telemetryStateStore.put(key, Map.of(Constants.SETTING_GEAR_RATIO, "D"), read).getVersion());
+		assertEquals("1500", telemetryStateStore.get(key).get(Constants.SETTING_RPM));
+		assertEquals("40", telemetryStateStore.get(key).get(Constants.SETTING_BATTERY));
+	}
+
+	@Test
+	void flushPersistsTheLastValueOfEachWrittenCodeOnce() {
+		SettingKey key = SettingKey.of(Constants.SETTING);
+		telemetryStateStore.put(key, Map.of(Constants.SETTING_RPM, "1100"));
+		telemetryStateStore.put(key, Map.of(Constants.SETTING_RPM, "1200", Constants.SETTING_GEAR_RATIO, "D"));
+
+		telemetryStateStore.flush();
+		telemetryStateStore.flush();
+
+		verify(appSettingRepository).updateConfigValues(SettingKey.DEFAULT_VEHICLE, Constants.SETTING,
+				Map.of(Constants.SETTING_RPM, "1200", Constants.SETTING_GEAR_RATIO, "D"));
+		verify(appSettingRepository, times(1)).updateConfigValues(anyLong(), anyString(), anyMap());
+	}
+
+	@Test
+	void failedFlushesAreRetried() {
+		SettingKey key = SettingKey.of(Constants.SETTING);
+		telemetryStateStore.put(key, Map.of(Constants.SETTING_GEAR_RATIO, "D"));
+		doThrow(new IllegalStateException("database down")).doReturn(1)
+				.when(appSettingRepository).updateConfigValues(anyLong(), anyString(), anyMap());
+		long later = System.currentTimeMillis() + IDLE_TIMEOUT + 1;
+
+		telemetryStateStore.flush();
+		assertEquals(0, telemetryStateStore.evictIdle(later));
+
+		telemetryStateStore.flush();
+		verify(appSettingRepository, times(2)).updateConfigValues(SettingKey.DEFAULT_VEHICLE, Constants.SETTING, Map.of(Constants.SETTING_GEAR_RATIO, "D"));
+		assertEquals(1, telemetryStateStore.evictIdle(later));
+	}
+
+	@Test
+	void codesWrittenWhileFlushingStayDirty() {
+		SettingKey key = SettingKey.of(Constants.SETTING);
+		telemetryStateStore.put(key, Map.of(Constants.SETTING_RPM, "1200", Constants.SETTING_GEAR_RATIO, "D"));
+		doAnswer(invocation -> {
+			telemetryStateStore.put(key, Map.of(Constants.SETTING_RPM, "1300"));
+			return 2;
+		}).doReturn(1).when(appSettingRepository).updateConfigValues(anyLong(), anyString(), anyMap());
+
+		telemetryStateStore.flush();
+		telemetryStateStore.flush();
+		telemetryStateStore.flush();
+
+		verify(appSettingRepository).updateConfigValues(SettingKey.DEFAULT_VEHICLE, Constants.SETTING,
+				Map.of(Constants.SETTING_RPM, "1200", Constants.SETTING_GEAR_RATIO, "D"));
+		verify(appSettingRepository).updateConfigValues(SettingKey.DEFAULT_VEHICLE, Constants.SETTING, Map.of(Constants.SETTING_RPM, "1300"));
+		verify(appSettingRepository, times(2)).updateConfigValues(anyLong(), anyString(), anyMap());
+	}
+
+	@Test
+	void vehiclesWithoutSettingsAreQueriedOnceUntilInserted() {
+		SettingKey key = SettingKey.of(99L, Constants.SETTING);
+		when(appSettingRepository.findValuesByVehicleIdAndParentCode(99L, Constants.SETTING)).thenReturn(List.of());
+
+		assertEquals(-1, telemetryStateStore.snapshot(key).getVersion());
+		assertEquals(-1, telemetryStateStore.snapshot(key).getVersion());
+		verify(appSettingRepository, times(1)).findValuesByVehicleIdAndParentCode(99L, Constants.SETTING);
+
+		telemetryStateStore.inserted(List.of(key));
+		assertEquals(-1, telemetryStateStore.snapshot(key).getVersion());
+		verify(appSettingRepository, times(2)).findValuesByVehicleIdAndParentCode(99L, Constants.SETTING);
+	}
+
+	@Test
+	void leastRecentlyUsedGroupsAreEvictedBeyondTheMaximum() throws InterruptedException {
+		for (long vehicleId = 1; vehicleId <= 5; vehicleId++) {
+			telemetryStateStore.get(SettingKey.of(vehicleId, Constants.SETTING));
+			Thread.sleep(2);
+		}
+		telemetryStateStore.get(SettingKey.of(1, Constants.SETTING));
+
+		assertEquals(2, telemetryStateStore.evictIdle(System.currentTimeMillis()));
+		assertEquals(MAX_GROUPS, telemetryStateStore.getGroupCount());
+		assertTrue(telemetryStateStore.version(SettingKey.of(1, Constants.SETTING)) >= 0);
+		assertEquals(-1, telemetryStateStore.version(SettingKey.of(2, Constants.SETTING)));
+		assertEquals(-1, telemetryStateStore.version(SettingKey.of(3, Constants.SETTING)));
+		assertEquals(2, telemetryStateStore.getEvictionCount());
+	}
+}
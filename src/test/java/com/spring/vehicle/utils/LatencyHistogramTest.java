@@ -0,0 +1,111 @@
+package com.spring.vehicle.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the bucket boundaries of the histogram, where the linear range ends and where each power of two starts,
+ * and its percentiles against the exact ones of a sorted array.
+ */
+class LatencyHistogramTest {
+
+	private static final int SAMPLES = 100_000;
+	private static final double[] PERCENTILES = {0, 0.1, 1, 25, 50, 75, 90, 99, 99.9, 99.99, 100};
+
+	private final Random random = new Random(20241018L);
+
+	@Test
+	void valuesBelow128AreExact() {
+		assertEquals(0, bucketHighest(0));
+		assertEquals(1, bucketHighest(1));
+		assertEquals(127, bucketHighest(127));
+	}
+
+	@Test
+	void bucketsDoubleTheirWidthAtEachPowerOfTwo() {
+		assertEquals(129, bucketHighest(128));
+		assertEquals(129, bucketHighest(129));
+		assertEquals(131, bucketHighest(130));
+		assertEquals(255, bucketHighest(254));
+		assertEquals(255, bucketHighest(255));
+		assertEquals(259, bucketHighest(256));
+		assertEquals(259, bucketHighest(259));
+		assertEquals(263, bucketHighest(260));
+	}
+
+	@Test
+	void largestValuesFallInTheLastBucket() {
+		long lastBucket = Long.MAX_VALUE - (1L << 56) + 1;
+		assertEquals(Long.MAX_VALUE, bucketHighest(lastBucket));
+		assertEquals(Long.MAX_VALUE, bucketHighest(Long.MAX_VALUE));
+		assertEquals(lastBucket - 1, bucketHighest(lastBucket - 1));
+
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, histogram.percentile(100));
+		assertEquals(Long.MAX_VALUE, histogram.getMin());
+		assertEquals(Long.MAX_VALUE, histogram.getMax());
+	}
+
+	@Test
+	void bucketsAreWithinTheRelativeErrorOverTheWholeRange() {
+		for (int shift = 7; shift < 63; shift++) {
+			for (long value : new long[]{1L << shift, (1L << shift) + 1, (2L << shift) - 1}) {
+				long highest = bucketHighest(value);
+				assertTrue(highest >= value, value + " -> " + highest);
+				assertTrue(highest - value <= value / 64, value + " -> " + highest);
+			}
+		}
+	}
+
+	@Test
+	void negativeAndEmptyRecordings() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.percentile(50));
+		assertEquals(0, histogram.getMin());
+		assertEquals(0, histogram.getMean());
+
+		histogram.record(-5);
+		assertEquals(0, histogram.percentile(100));
+		assertEquals(0, histogram.getMin());
+		assertEquals(1, histogram.getCount());
+	}
+
+	@Test
+	void percentilesMatchASortedArray() {
+		long[] values = new long[SAMPLES];
+		LatencyHistogram first = new LatencyHistogram();
+		LatencyHistogram second = new LatencyHistogram();
+		for (int i = 0; i < SAMPLES; i++) {
+			// log-uniform up to 2^40, so every range of buckets is hit
+			values[i] = (long) Math.pow(2, random.nextDouble() * 40);
+			(i % 2 == 0 ? first : second).record(values[i]);
+		}
+		first.add(second);
+		Arrays.sort(values);
+
+		assertEquals(SAMPLES, first.getCount());
+		assertEquals(values[0], first.getMin());
+		assertEquals(values[SAMPLES - 1], first.getMax());
+		for (double percentile : PERCENTILES) {
+			long exact = values[(int) Math.max(1, Math.ceil(percentile / 100 * SAMPLES)) - 1];
+			long reported = first.percentile(percentile);
+			assertTrue(reported >= exact, percentile + ": " + reported + " < " + exact);
+			assertTrue(reported - exact <= exact / 64, percentile + ": " + reported + " too far above " + exact);
+		}
+	}
+
+	/**
+	 * Highest value of the bucket a value falls in, read as the median of the value and a larger one
+	 */
+	private static long bucketHighest(long value) {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(value);
+		histogram.record(Long.MAX_VALUE);
+		return histogram.percentile(50);
+	}
+}
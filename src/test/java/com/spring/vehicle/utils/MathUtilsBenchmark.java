@@ -0,0 +1,81 @@
+package com.spring.vehicle.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the fixed-point arithmetic with the BigDecimal implementation it replaced, on two-decimal operands
+ * like the telemetry values. Run with {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MathUtilsBenchmark {
+
+	private static final int SIZE = 1024;
+
+	private final double[] operands = new double[SIZE];
+	private int index;
+
+	@Setup
+	public void setUp() {
+		for (int i = 0; i < SIZE; i++) {
+			operands[i] = BigDecimal.valueOf(i * 7919L % 1_000_000, 2).doubleValue();
+		}
+	}
+
+	@Benchmark
+	public double addFixedPoint() {
+		return MathUtils.add(next(), next(), 2);
+	}
+
+	@Benchmark
+	public double addBigDecimal() {
+		return new BigDecimal(Double.toString(next())).add(new BigDecimal(Double.toString(next())))
+				.setScale(2, RoundingMode.HALF_UP).doubleValue();
+	}
+
+	@Benchmark
+	public double mulFixedPoint() {
+		return MathUtils.mul(next(), next(), 2);
+	}
+
+	@Benchmark
+	public double mulBigDecimal() {
+		return new BigDecimal(Double.toString(next())).multiply(new BigDecimal(Double.toString(next())))
+				.setScale(2, RoundingMode.HALF_UP).doubleValue();
+	}
+
+	@Benchmark
+	public double divFixedPoint() {
+		return MathUtils.div(next(), next() + 1, 2);
+	}
+
+	@Benchmark
+	public double divBigDecimal() {
+		return new BigDecimal(Double.toString(next())).divide(new BigDecimal(Double.toString(next() + 1)), 2, RoundingMode.HALF_UP)
+				.doubleValue();
+	}
+
+	@Benchmark
+	public long mulLong() {
+		return FixedPoint.mul(FixedPoint.of(next(), 2), FixedPoint.of(next(), 2), 2);
+	}
+
+	private double next() {
+		return operands[index++ & (SIZE - 1)];
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(MathUtilsBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,163 @@
+package com.spring.vehicle.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Property checks of the fixed-point arithmetic against the BigDecimal implementation it replaced: for random
+ * operands of every shape, the results and the exceptions must be the same.
+ */
+class MathUtilsTest {
+
+	private static final int SAMPLES = 50_000;
+
+	private final Random random = new Random(20241018L);
+
+	@Test
+	void addMatchesBigDecimal() {
+		forAll((v1, v2, scale) -> assertSameOutcome(() -> legacyAdd(v1, v2, scale), () -> MathUtils.add(v1, v2, scale), v1, v2, scale));
+	}
+
+	@Test
+	void subMatchesBigDecimal() {
+		forAll((v1, v2, scale) -> assertSameOutcome(() -> legacySub(v1, v2, scale), () -> MathUtils.sub(v1, v2, scale), v1, v2, scale));
+	}
+
+	@Test
+	void mulMatchesBigDecimal() {
+		forAll((v1, v2, scale) -> assertSameOutcome(() -> legacyMul(v1, v2, scale), () -> MathUtils.mul(v1, v2, scale), v1, v2, scale));
+	}
+
+	@Test
+	void divMatchesBigDecimal() {
+		forAll((v1, v2, scale) -> assertSameOutcome(() -> legacyDiv(v1, v2, scale), () -> MathUtils.div(v1, v2, scale), v1, v2, scale));
+	}
+
+	@Test
+	void roundMatchesBigDecimal() {
+		forAll((v1, v2, scale) -> assertSameOutcome(() -> legacyRound(v1, scale), () -> MathUtils.round(v1, scale), v1, v2, scale));
+	}
+
+	@Test
+	void roundsHalfUpOnTheDecimalOfTheDouble() {
+		assertEquals(1.01, MathUtils.round(1.005, 2));
+		assertEquals(-1.01, MathUtils.round(-1.005, 2));
+		assertEquals(0.3, MathUtils.add(0.1, 0.2, 2));
+		assertEquals(0.67, MathUtils.div(2, 3));
+		assertEquals(4.47, MathUtils.mul(2.235, 2));
+	}
+
+	@Test
+	void fixedPointMatchesBigDecimal() {
+		for (int i = 0; i < SAMPLES; i++) {
+			int scale = random.nextInt(5);
+			long a = random.nextInt(2_000_001) - 1_000_000;
+			long b = random.nextInt(2_000_001) - 1_000_000;
+			BigDecimal x = BigDecimal.valueOf(a, scale);
+			BigDecimal y = BigDecimal.valueOf(b, scale);
+
+			assertEquals(x.multiply(y).setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact(), FixedPoint.mul(a, b, scale));
+			if (b != 0) {
+				assertEquals(x.divide(y, scale, RoundingMode.HALF_UP).unscaledValue().longValueExact(), FixedPoint.div(a, b, scale));
+			}
+			assertEquals(x.setScale(0, RoundingMode.HALF_UP).longValueExact(), FixedPoint.rescale(a, scale, 0));
+			assertEquals(Double.valueOf(x.doubleValue()), Double.valueOf(FixedPoint.toDouble(a, scale)));
+		}
+	}
+
+	@Test
+	void fixedPointConvertsDoubles() {
+		assertEquals(1234, FixedPoint.of(12.34, 2));
+		assertEquals(101, FixedPoint.of(1.005, 2));
+		assertEquals(-101, FixedPoint.of(-1.005, 2));
+		assertEquals(12.34, FixedPoint.toDouble(1234, 2));
+	}
+
+	@Test
+	void fixedPointThrowsOnOverflow() {
+		assertThrows(ArithmeticException.class, () -> FixedPoint.add(Long.MAX_VALUE, 1));
+		assertThrows(ArithmeticException.class, () -> FixedPoint.sub(Long.MIN_VALUE, 1));
+		assertThrows(ArithmeticException.class, () -> FixedPoint.mul(Long.MAX_VALUE / 2, 3, 0));
+		assertThrows(ArithmeticException.class, () -> FixedPoint.div(Long.MAX_VALUE, 1, 2));
+		assertThrows(ArithmeticException.class, () -> FixedPoint.div(1, 0, 2));
+		assertThrows(ArithmeticException.class, () -> FixedPoint.of(1e300, 2));
+		assertThrows(IllegalArgumentException.class, () -> FixedPoint.of(1, FixedPoint.MAX_SCALE + 1));
+	}
+
+	private void forAll(Property property) {
+		DoubleSupplier[] generators = {
+				() -> decimal(random.nextInt(7), 1_000_000),
+				() -> decimal(random.nextInt(3), 100) + 0.005 * (random.nextBoolean() ? 1 : -1),
+				() -> (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(30) - 10),
+				() -> Double.longBitsToDouble(random.nextLong()),
+				() -> special(),
+		};
+		for (int i = 0; i < SAMPLES; i++) {
+			double v1 = generators[random.nextInt(generators.length)].getAsDouble();
+			double v2 = generators[random.nextInt(generators.length)].getAsDouble();
+			property.check(v1, v2, random.nextInt(8));
+		}
+	}
+
+	private double decimal(int digits, int bound) {
+		long unscaled = (long) (random.nextInt(2 * bound + 1) - bound) * (long) Math.pow(10, random.nextInt(3));
+		return BigDecimal.valueOf(unscaled, digits).doubleValue();
+	}
+
+	private double special() {
+		double[] values = {0.0, -0.0, 1.0, -1.0, 0.5, 1.005, 2.675, 1e15, 9.007199254740993E15, 1e-9,
+				Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY};
+		return values[random.nextInt(values.length)];
+	}
+
+	private static void assertSameOutcome(DoubleSupplier expected, DoubleSupplier actual, double v1, double v2, int scale) {
+		Object expectedResult = outcome(expected);
+		Object actualResult = outcome(actual);
+		assertEquals(expectedResult, actualResult, () -> String.format("v1=%s v2=%s scale=%d", v1, v2, scale));
+	}
+
+	/**
+	 * The result, or the type of the exception thrown instead.
+	 */
+	private static Object outcome(DoubleSupplier operation) {
+		try {
+			return operation.getAsDouble();
+		} catch (RuntimeException e) {
+			return e.getClass();
+		}
+	}
+
+	@FunctionalInterface
+	private interface Property {
+
+		void check(double v1, double v2, int scale);
+	}
+
+	private static double legacyRound(double value, int places) {
+		if (places < 0) throw new IllegalArgumentException("Scale must be non-negative");
+		return BigDecimal.valueOf(value).setScale(places, RoundingMode.HALF_UP).doubleValue();
+	}
+
+	private static double legacyAdd(double v1, double v2, int scale) {
+		return new BigDecimal(Double.toString(v1)).add(new BigDecimal(Double.toString(v2))).setScale(scale, RoundingMode.HALF_UP).doubleValue();
+	}
+
+	private static double legacySub(double v1, double v2, int scale) {
+		return new BigDecimal(Double.toString(v1)).subtract(new BigDecimal(Double.toString(v2))).setScale(scale, RoundingMode.HALF_UP).doubleValue();
+	}
+
+	private static double legacyMul(double v1, double v2, int scale) {
+		return new BigDecimal(Double.toString(v1)).multiply(new BigDecimal(Double.toString(v2))).setScale(scale, RoundingMode.HALF_UP).doubleValue();
+	}
+
+	private static double legacyDiv(double v1, double v2, int scale) {
+		if (scale < 0) throw new IllegalArgumentException("Scale must be non-negative");
+		return new BigDecimal(Double.toString(v1)).divide(new BigDecimal(Double.toString(v2)), scale, RoundingMode.HALF_UP).doubleValue();
+	}
+}
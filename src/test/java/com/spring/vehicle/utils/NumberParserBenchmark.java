@@ -0,0 +1,78 @@
+package com.spring.vehicle.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the exception-free parsers with the trim and catch implementation they replaced, for valid, invalid and
+ * blank input. Run with {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NumberParserBenchmark {
+
+	@Param({"12345", "-98.765", "12a45", "not a number", "   "})
+	private String input;
+
+	private byte[] bytes;
+
+	@Setup
+	public void setUp() {
+		bytes = input.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	@Benchmark
+	public long parseLongTrimAndCatch() {
+		long num = 0;
+		if (input != null && !input.trim().isEmpty()) {
+			try {
+				num = Long.parseLong(input);
+			} catch (Exception ignored) { /* Handle parsing failure silently */ }
+		}
+		return num;
+	}
+
+	@Benchmark
+	public long parseLongCharSequence() {
+		return NumberParser.parseLong(input, 0);
+	}
+
+	@Benchmark
+	public long parseLongBytes() {
+		return NumberParser.parseLong(bytes, 0, bytes.length, 0);
+	}
+
+	@Benchmark
+	public double parseDoubleTrimAndCatch() {
+		double num = 0;
+		if (input != null && !input.trim().isEmpty()) {
+			try {
+				num = Double.parseDouble(input);
+			} catch (Exception ignored) { /* Handle parsing failure silently */ }
+		}
+		return num;
+	}
+
+	@Benchmark
+	public double parseDoubleCharSequence() {
+		return NumberParser.parseDouble(input, 0);
+	}
+
+	@Benchmark
+	public double parseDoubleBytes() {
+		return NumberParser.parseDouble(bytes, 0, bytes.length, 0);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(NumberParserBenchmark.class.getSimpleName()).build()).run();
+	}
+}
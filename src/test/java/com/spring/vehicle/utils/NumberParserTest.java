@@ -0,0 +1,113 @@
+package com.spring.vehicle.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the exception-free parsers against the JDK parsers on trimmed input, over the CharSequence and the byte[]
+ * entry points.
+ */
+class NumberParserTest {
+
+	private static final int SAMPLES = 200_000;
+	private static final long LONG_DEFAULT = -12345;
+	private static final double DOUBLE_DEFAULT = -12345.5;
+
+	private static final String[] EDGES = {"", "   ", "+", "-", ".", "1.", " .5 ", "1e", "e5", "1e+", "1ee5", "--1", "+-1",
+			"1_000", "NaN", "-Infinity", "+Infinity", "1e400", "1e-400", "0x1p3", "0x1.8p1f", "0xg", "-0", "1.0e-5d", "2f",
+			"123456789012345678901234567890", "0.000000000000000000000000000001", "9223372036854775807",
+			"9223372036854775808", "-9223372036854775808", "2147483648", "-2147483648", "32768", "-32768"};
+
+	private final Random random = new Random(20241018L);
+
+	@Test
+	void edgeCasesMatchTheJdk() {
+		for (String edge : EDGES) {
+			assertMatches(edge);
+			assertMatches("\t" + edge + " ");
+		}
+	}
+
+	@Test
+	void randomInputMatchesTheJdk() {
+		String alphabet = "0123456789.eE+-dDfFxX pNaInfity";
+		for (int i = 0; i < SAMPLES; i++) {
+			String value = switch (random.nextInt(4)) {
+				case 0 -> {
+					StringBuilder builder = new StringBuilder();
+					for (int n = random.nextInt(12); n > 0; n--) {
+						builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+					}
+					yield builder.toString();
+				}
+				case 1 -> Double.toString(Double.longBitsToDouble(random.nextLong()));
+				case 2 -> Double.toString((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(40) - 20));
+				default -> Long.toString(random.nextLong() >> random.nextInt(64));
+			};
+			assertMatches(value);
+		}
+	}
+
+	@Test
+	void returnsDefaultForNullAndBadRanges() {
+		assertEquals(7, NumberParser.parseInt((CharSequence) null, 7));
+		assertEquals(7, NumberParser.parseInt(null, 0, 0, 7));
+		assertEquals(7, NumberParser.parseInt(new byte[]{'1'}, 0, 2, 7));
+		assertEquals(23, NumberParser.parseInt("{\"v\":23}".getBytes(StandardCharsets.US_ASCII), 5, 7, 7));
+	}
+
+	private static void assertMatches(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+		assertEquals(jdkLong(value), NumberParser.parseLong(value, LONG_DEFAULT), value);
+		assertEquals(jdkLong(value), NumberParser.parseLong(bytes, 0, bytes.length, LONG_DEFAULT), value);
+		assertEquals(jdkInt(value), NumberParser.parseInt(value, (int) LONG_DEFAULT), value);
+		assertEquals(jdkShort(value), NumberParser.parseShort(value, (short) LONG_DEFAULT), value);
+		assertEquals(jdkDouble(value), NumberParser.parseDouble(value, DOUBLE_DEFAULT), value);
+		assertEquals(jdkDouble(value), NumberParser.parseDouble(bytes, 0, bytes.length, DOUBLE_DEFAULT), value);
+		assertEquals(jdkFloat(value), NumberParser.parseFloat(value, (float) DOUBLE_DEFAULT), value);
+	}
+
+	private static long jdkLong(String value) {
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			return LONG_DEFAULT;
+		}
+	}
+
+	private static int jdkInt(String value) {
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			return (int) LONG_DEFAULT;
+		}
+	}
+
+	private static short jdkShort(String value) {
+		try {
+			return Short.parseShort(value.trim());
+		} catch (NumberFormatException e) {
+			return (short) LONG_DEFAULT;
+		}
+	}
+
+	private static double jdkDouble(String value) {
+		try {
+			return Double.parseDouble(value);
+		} catch (NumberFormatException e) {
+			return DOUBLE_DEFAULT;
+		}
+	}
+
+	private static float jdkFloat(String value) {
+		try {
+			return Float.parseFloat(value);
+		} catch (NumberFormatException e) {
+			return (float) DOUBLE_DEFAULT;
+		}
+	}
+}
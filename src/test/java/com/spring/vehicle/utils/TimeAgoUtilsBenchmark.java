@@ -0,0 +1,102 @@
+package com.spring.vehicle.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting of record ages, over ages from seconds to months, and the rendering of an audit list of
+ * {@value #RECORDS} records: the age and the timestamp of each, with the Duration and DateTimeFormatter code it
+ * replaced as the baseline. Add {@code -prof gc} to {@code jmh.options} for the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TimeAgoUtilsBenchmark {
+
+	private static final long[] AGES_SECONDS = {5, 90, 2 * 3600, 3 * 86400, 45 * 86400};
+	private static final int RECORDS = 1000;
+	private static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+	private final Instant[] instants = new Instant[AGES_SECONDS.length];
+	private int index;
+
+	private final List<Instant> auditDates = new ArrayList<>();
+	private final TimestampFormatter timestampFormatter = new TimestampFormatter(PATTERN, ZoneId.systemDefault());
+	private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern(PATTERN).withZone(ZoneId.systemDefault());
+
+	@Setup
+	public void setUp() {
+		Instant now = Instant.now();
+		for (int i = 0; i < AGES_SECONDS.length; i++) {
+			instants[i] = now.minusSeconds(AGES_SECONDS[i]);
+		}
+		// A busy hour of audit records, newest first, several per second
+		SplittableRandom random = new SplittableRandom(42);
+		long millis = now.toEpochMilli();
+		for (int i = 0; i < RECORDS; i++) {
+			millis -= random.nextInt(7200);
+			auditDates.add(Instant.ofEpochMilli(millis));
+		}
+	}
+
+	@Benchmark
+	public String timeAgo() {
+		index = index + 1 == instants.length ? 0 : index + 1;
+		return TimeAgoUtils.timeAgo(instants[index]);
+	}
+
+	@Benchmark
+	public String[] auditList(Blackhole blackhole) {
+		long now = System.currentTimeMillis();
+		List<String> ages = TimeAgoUtils.timeAgo(auditDates, now);
+		String[] rows = new String[RECORDS];
+		for (int i = 0; i < RECORDS; i++) {
+			rows[i] = timestampFormatter.format(auditDates.get(i).toEpochMilli());
+		}
+		blackhole.consume(ages);
+		return rows;
+	}
+
+	@Benchmark
+	public String[] legacyAuditList(Blackhole blackhole) {
+		String[] rows = new String[RECORDS];
+		String[] ages = new String[RECORDS];
+		for (int i = 0; i < RECORDS; i++) {
+			ages[i] = legacyTimeAgo(auditDates.get(i));
+			rows[i] = dateTimeFormatter.format(auditDates.get(i));
+		}
+		blackhole.consume(ages);
+		return rows;
+	}
+
+	private static String legacyTimeAgo(Instant createdDate) {
+		Duration duration = Duration.between(LocalDateTime.ofInstant(createdDate, ZoneId.systemDefault()), LocalDateTime.now());
+		long seconds = duration.getSeconds();
+		if (seconds < 60) {
+			return seconds + " second" + (seconds == 1 ? "" : "s") + " ago";
+		}
+		long minutes = duration.toMinutes();
+		if (minutes < 60) {
+			return minutes + " minute" + (minutes == 1 ? "" : "s") + " ago";
+		}
+		long hours = duration.toHours();
+		if (hours < 24) {
+			return hours + " hour" + (hours == 1 ? "" : "s") + " ago";
+		}
+		long days = duration.toDays();
+		return days < 30 ? days + " day" + (days == 1 ? "" : "s") + " ago" : "more than a month ago";
+	}
+}
@@ -0,0 +1,116 @@
+package com.spring.vehicle.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The precomputed labels against the Duration arithmetic they replaced, and the cached formatting of timestamps
+ * against {@link DateTimeFormatter}.
+ */
+class TimeAgoUtilsTest {
+
+	private static final int SAMPLES = 50_000;
+
+	private final Random random = new Random(20241018L);
+
+	@Test
+	void timeAgoMatchesDuration() {
+		for (int i = 0; i < SAMPLES; i++) {
+			long nowMillis = 1_700_000_000_000L + random.nextInt(1_000_000_000);
+			long ageNanos = (long) (random.nextDouble() * Math.pow(10, random.nextInt(17))) * (random.nextInt(20) == 0 ? -1 : 1);
+			Instant createdDate = Instant.ofEpochMilli(nowMillis).minusNanos(ageNanos);
+			assertEquals(legacyTimeAgo(createdDate, Instant.ofEpochMilli(nowMillis)), TimeAgoUtils.timeAgo(createdDate, nowMillis),
+					() -> createdDate + " at " + nowMillis);
+		}
+	}
+
+	@Test
+	void timeAgoLabels() {
+		long now = 1_700_000_000_000L;
+		assertEquals("0 seconds ago", TimeAgoUtils.timeAgo(Instant.ofEpochMilli(now), now));
+		assertEquals("1 second ago", TimeAgoUtils.timeAgo(Instant.ofEpochMilli(now - 1_500), now));
+		assertEquals("1 minute ago", TimeAgoUtils.timeAgo(Instant.ofEpochMilli(now - 60_000), now));
+		assertEquals("2 hours ago", TimeAgoUtils.timeAgo(Instant.ofEpochMilli(now - 7_200_000), now));
+		assertEquals("29 days ago", TimeAgoUtils.timeAgo(Instant.ofEpochMilli(now - 29 * 86_400_000L), now));
+		assertEquals("more than a month ago", TimeAgoUtils.timeAgo(Instant.ofEpochMilli(now - 30 * 86_400_000L), now));
+		assertEquals("-5 seconds ago", TimeAgoUtils.timeAgo(Instant.ofEpochMilli(now + 5_000), now));
+		assertSame(TimeAgoUtils.timeAgo(Instant.ofEpochMilli(now - 3_000), now), TimeAgoUtils.timeAgo(Instant.ofEpochMilli(now - 3_999), now));
+	}
+
+	@Test
+	void bulkTimeAgoUsesOneNow() {
+		long now = 1_700_000_000_000L;
+		List<Instant> createdDates = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			createdDates.add(Instant.ofEpochMilli(now - (long) random.nextInt(Integer.MAX_VALUE) * 10));
+		}
+		List<String> labels = TimeAgoUtils.timeAgo(createdDates, now);
+		assertEquals(createdDates.size(), labels.size());
+		for (int i = 0; i < createdDates.size(); i++) {
+			assertEquals(TimeAgoUtils.timeAgo(createdDates.get(i), now), labels.get(i));
+		}
+	}
+
+	@Test
+	void timestampFormatterMatchesDateTimeFormatter() {
+		ZoneId zone = ZoneId.of("Europe/Paris");
+		TimestampFormatter timestampFormatter = new TimestampFormatter("yyyy-MM-dd HH:mm:ss", zone);
+		DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(zone);
+		for (int i = 0; i < SAMPLES; i++) {
+			long epochMillis = random.nextLong() % 4_000_000_000_000L;
+			assertEquals(dateTimeFormatter.format(Instant.ofEpochMilli(epochMillis)), timestampFormatter.format(epochMillis));
+		}
+		long second = 1_700_000_000_000L;
+		assertSame(timestampFormatter.format(second), timestampFormatter.format(second + 999));
+	}
+
+	@Test
+	void cachedClockAdvancesInTicks() {
+		Instant start = Instant.parse("2024-10-18T10:15:30.250Z");
+		CachedClock clock = new CachedClock(Clock.fixed(start, ZoneOffset.UTC), 1000);
+		assertEquals(Instant.parse("2024-10-18T10:15:30Z"), clock.instant());
+		assertSame(clock.instant(), clock.instant());
+		assertEquals(start.toEpochMilli() - 250, clock.millis());
+
+		CachedClock later = new CachedClock(Clock.offset(Clock.fixed(start, ZoneOffset.UTC), Duration.ofMillis(800)), 1000);
+		assertEquals(Instant.parse("2024-10-18T10:15:31Z"), later.instant());
+		assertThrows(IllegalArgumentException.class, () -> new CachedClock(Clock.systemUTC(), 0));
+	}
+
+	private static String legacyTimeAgo(Instant createdDate, Instant now) {
+		Duration duration = Duration.between(createdDate, now);
+
+		long seconds = duration.getSeconds();
+		if (seconds < 60) {
+			return seconds + " second" + (seconds == 1 ? "" : "s") + " ago";
+		}
+
+		long minutes = duration.toMinutes();
+		if (minutes < 60) {
+			return minutes + " minute" + (minutes == 1 ? "" : "s") + " ago";
+		}
+
+		long hours = duration.toHours();
+		if (hours < 24) {
+			return hours + " hour" + (hours == 1 ? "" : "s") + " ago";
+		}
+
+		long days = duration.toDays();
+		if (days < 30) {
+			return days + " day" + (days == 1 ? "" : "s") + " ago";
+		}
+
+		return "more than a month ago";
+	}
+}